@@ -0,0 +1,76 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* package */ final class ResourceStore {
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+  private static final ClassValue<Integer> INDEXES = new ClassValue<Integer>() {
+    @Override
+    protected @NonNull Integer computeValue(final @NonNull Class<?> type) {
+      return ResourceStore.COUNTER.getAndIncrement();
+    }
+  };
+
+  private volatile Object[] resources = new Object[16];
+
+  /* package */ static @NonNegative int index(final @NonNull Class<?> type) {
+    return ResourceStore.INDEXES.get(type);
+  }
+
+  /* package */ @Nullable Object get(final @NonNull Class<?> type) {
+    final int index = ResourceStore.index(type);
+    final Object[] resources = this.resources;
+    return index < resources.length ? resources[index] : null;
+  }
+
+  /* package */ synchronized void put(final @NonNull Class<?> type, final @NonNull Object resource) {
+    final int index = ResourceStore.index(type);
+    // Copied on write, so readers never need to synchronize.
+    final Object[] resources = Arrays.copyOf(this.resources, Math.max(this.resources.length, index + 1));
+    resources[index] = resource;
+    this.resources = resources;
+  }
+
+  /* package */ synchronized @Nullable Object remove(final @NonNull Class<?> type) {
+    final int index = ResourceStore.index(type);
+    if(index >= this.resources.length || this.resources[index] == null) return null;
+    final Object[] resources = this.resources.clone();
+    final Object previous = resources[index];
+    resources[index] = null;
+    this.resources = resources;
+    return previous;
+  }
+
+  /* package */ synchronized void clear() {
+    this.resources = new Object[this.resources.length];
+  }
+}
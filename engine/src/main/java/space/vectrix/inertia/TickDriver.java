@@ -0,0 +1,168 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents a fixed timestep driver that ticks a {@link Universe} at a
+ * target rate.
+ *
+ * <p>Elapsed time is accumulated and drained one tick period at a time,
+ * so a late advance catches up on the ticks it missed. At most the
+ * catch up limit of ticks are run per advance, the remaining backlog is
+ * dropped and counted as skipped.</p>
+ *
+ * @since 0.3.0
+ */
+public interface TickDriver {
+  /**
+   * Returns a new {@link TickDriver} for the specified {@link Universe}
+   * and {@code long} tick period in the {@link TimeUnit}, catching up at
+   * most 5 ticks per advance.
+   *
+   * @param universe the universe
+   * @param period the tick period
+   * @param unit the tick period unit
+   * @return a new tick driver
+   * @since 0.3.0
+   */
+  static @NonNull TickDriver create(final @NonNull Universe universe, final @NonNegative long period, final @NonNull TimeUnit unit) {
+    return TickDriver.create(universe, period, unit, 5);
+  }
+
+  /**
+   * Returns a new {@link TickDriver} for the specified {@link Universe},
+   * {@code long} tick period in the {@link TimeUnit} and {@code int}
+   * maximum number of ticks to run per advance.
+   *
+   * @param universe the universe
+   * @param period the tick period
+   * @param unit the tick period unit
+   * @param catchUp the maximum ticks per advance
+   * @return a new tick driver
+   * @since 0.3.0
+   */
+  static @NonNull TickDriver create(final @NonNull Universe universe, final @NonNegative long period, final @NonNull TimeUnit unit,
+                                    final @NonNegative int catchUp) {
+    requireNonNull(universe, "universe");
+    requireNonNull(unit, "unit");
+    return new TickDriverImpl(universe, unit.toNanos(period), catchUp);
+  }
+
+  /**
+   * Returns the {@link Universe} this driver ticks.
+   *
+   * @return the universe
+   * @since 0.3.0
+   */
+  @NonNull Universe universe();
+
+  /**
+   * Returns the {@code long} tick period, in nanoseconds.
+   *
+   * @return the tick period
+   * @since 0.3.0
+   */
+  @NonNegative long period();
+
+  /**
+   * Sets the handler for the errors of driven ticks, or {@code null} to
+   * only return them.
+   *
+   * <p>The handler receives every error collected by a {@link Universe.Tick}
+   * run by this driver, along with the {@link Universe}. While the driver
+   * is {@link #run(BooleanSupplier) running}, it also receives any
+   * exception thrown by a tick, instead of it ending the run. It is called
+   * on the thread that advanced the driver.</p>
+   *
+   * @param handler the error handler
+   * @since 0.3.0
+   */
+  void errors(final @Nullable BiConsumer<Universe, Throwable> handler);
+
+  /**
+   * Advances this driver by the time elapsed since the last advance and
+   * returns the {@link Universe.Tick}s that were run.
+   *
+   * @return the ticks run
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  @NonNull List<Universe.Tick> advance();
+
+  /**
+   * Advances this driver by the specified {@code long} elapsed time in
+   * the {@link TimeUnit} and returns the {@link Universe.Tick}s that were
+   * run.
+   *
+   * @param elapsed the elapsed time
+   * @param unit the elapsed time unit
+   * @return the ticks run
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  @NonNull List<Universe.Tick> advance(final @NonNegative long elapsed, final @NonNull TimeUnit unit);
+
+  /**
+   * Runs this driver on the current thread, sleeping between ticks,
+   * while the {@link BooleanSupplier} condition holds and the universe
+   * is active.
+   *
+   * <p>Exceptions thrown by a tick end the run, unless an
+   * {@link #errors(BiConsumer) error handler} is set.</p>
+   *
+   * @param condition the run condition
+   * @throws InterruptedException if interrupted while sleeping
+   * @since 0.3.0
+   */
+  void run(final @NonNull BooleanSupplier condition) throws InterruptedException;
+
+  /**
+   * Returns the {@code long} number of ticks run by this driver.
+   *
+   * @return the number of ticks
+   * @since 0.3.0
+   */
+  @NonNegative long ticks();
+
+  /**
+   * Returns the {@code long} number of ticks dropped because they were
+   * beyond the catch up limit.
+   *
+   * @return the number of skipped ticks
+   * @since 0.3.0
+   */
+  @NonNegative long skipped();
+}
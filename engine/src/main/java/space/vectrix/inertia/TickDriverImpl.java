@@ -0,0 +1,154 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class TickDriverImpl implements TickDriver {
+  private final Universe universe;
+  private final long period;
+  private final int catchUp;
+  private final Object lock = new Object();
+
+  private volatile @Nullable BiConsumer<Universe, Throwable> handler;
+  private long last = -1;
+  private long accumulator;
+  // Written under the lock, but read without it.
+  private volatile long ticks;
+  private volatile long skipped;
+
+  /* package */ TickDriverImpl(final @NonNull Universe universe, final @NonNegative long period, final @NonNegative int catchUp) {
+    if(period <= 0) throw new IllegalArgumentException("Period must be positive!");
+    if(catchUp < 1) throw new IllegalArgumentException("Catch up must be positive!");
+    this.universe = universe;
+    this.period = period;
+    this.catchUp = catchUp;
+  }
+
+  @Override
+  public @NonNull Universe universe() {
+    return this.universe;
+  }
+
+  @Override
+  public @NonNegative long period() {
+    return this.period;
+  }
+
+  @Override
+  public void errors(final @Nullable BiConsumer<Universe, Throwable> handler) {
+    this.handler = handler;
+  }
+
+  @Override
+  public @NonNull List<Universe.Tick> advance() {
+    final long now = System.nanoTime();
+    final long elapsed;
+    synchronized(this.lock) {
+      // The first advance only starts the clock.
+      elapsed = this.last < 0 ? 0 : now - this.last;
+      this.last = now;
+    }
+    return this.advance(elapsed, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public @NonNull List<Universe.Tick> advance(final @NonNegative long elapsed, final @NonNull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    Universe.checkActive(this.universe);
+    if(elapsed < 0) throw new IllegalArgumentException("Elapsed must not be negative!");
+    final List<Universe.Tick> result;
+    synchronized(this.lock) {
+      this.accumulator += unit.toNanos(elapsed);
+      long due = this.accumulator / this.period;
+      if(due == 0) return Collections.emptyList();
+      this.accumulator -= due * this.period;
+      if(due > this.catchUp) {
+        this.skipped += due - this.catchUp;
+        due = this.catchUp;
+      }
+      result = new ArrayList<>((int) due);
+      for(long i = 0; i < due; i++) {
+        result.add(this.universe.tick());
+        this.ticks++;
+      }
+    }
+    // The handler is called outside the lock, so it may use the driver.
+    final BiConsumer<Universe, Throwable> handler = this.handler;
+    if(handler != null) {
+      for(final Universe.Tick tick : result) {
+        for(final Throwable throwable : tick.errors()) handler.accept(this.universe, throwable);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void run(final @NonNull BooleanSupplier condition) throws InterruptedException {
+    requireNonNull(condition, "condition");
+    this.step();
+    while(condition.getAsBoolean() && this.universe.active()) {
+      this.step();
+      final long remaining;
+      synchronized(this.lock) {
+        remaining = this.period - this.accumulator - (System.nanoTime() - this.last);
+      }
+      if(remaining > 0) TimeUnit.NANOSECONDS.sleep(remaining);
+    }
+  }
+
+  @Override
+  public @NonNegative long ticks() {
+    return this.ticks;
+  }
+
+  @Override
+  public @NonNegative long skipped() {
+    return this.skipped;
+  }
+
+  private void step() {
+    try {
+      this.advance();
+    } catch(final InactiveUniverseException exception) {
+      // The run loop ends once it sees the universe is inactive.
+    } catch(final RuntimeException exception) {
+      final BiConsumer<Universe, Throwable> handler = this.handler;
+      if(handler == null) throw exception;
+      handler.accept(this.universe, exception);
+    }
+  }
+}
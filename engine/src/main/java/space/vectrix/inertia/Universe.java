@@ -28,14 +28,22 @@ import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
 import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFilter;
 import space.vectrix.inertia.entity.EntityFunction;
 import space.vectrix.inertia.injection.InjectionStructure;
+import space.vectrix.inertia.system.SlicedSystem;
 import space.vectrix.inertia.system.System;
 import space.vectrix.inertia.util.CustomIterator;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Represents the universe of entities, components and processors.
@@ -62,7 +70,23 @@ public interface Universe {
    * @since 0.3.0
    */
   static @NonNull Universe create() {
-    return Universes.create();
+    return Universes.create(null);
+  }
+
+  /**
+   * Returns a new universe that resolves its component types from the
+   * specified {@link ComponentTypeRegistry}.
+   *
+   * <p>Universes sharing a registry share the same {@link ComponentType}
+   * instances and indexes.</p>
+   *
+   * @param registry the component type registry
+   * @return the new universe
+   * @since 0.3.0
+   */
+  static @NonNull Universe create(final @NonNull ComponentTypeRegistry registry) {
+    requireNonNull(registry, "registry");
+    return Universes.create(registry);
   }
 
   /**
@@ -95,6 +119,15 @@ public interface Universe {
    */
   boolean active();
 
+  /**
+   * Returns the {@link ComponentTypeRegistry} this universe resolves its
+   * component types from if it has one, otherwise {@code null}.
+   *
+   * @return the component type registry, if present
+   * @since 0.3.0
+   */
+  @Nullable ComponentTypeRegistry registry();
+
   /**
    * Returns the unique {@code int} index for this universe.
    *
@@ -112,6 +145,55 @@ public interface Universe {
    */
   @NonNull Tick tick();
 
+  /**
+   * Ticks the {@link System}s in this universe asynchronously, running
+   * each stage of the tick as a separate task on the {@link Executor}.
+   *
+   * <p>Ticks never overlap. If this universe is already ticking the
+   * returned future completes exceptionally with an
+   * {@link IllegalStateException}, while {@link #tick()} waits for the
+   * tick in progress to complete instead.</p>
+   *
+   * <p>Unlike {@link #tick()}, the universe is only locked while a stage
+   * runs, so other threads may lock it between stages, including while
+   * the blocking systems are joined.</p>
+   *
+   * @param executor the executor
+   * @return a future of the tick result
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  @NonNull CompletableFuture<Tick> tickAsync(final @NonNull Executor executor);
+
+  /**
+   * Returns {@code true} if this universe is ticking, otherwise returns
+   * {@code false}.
+   *
+   * @return whether the universe is ticking
+   * @since 0.3.0
+   */
+  boolean ticking();
+
+  /**
+   * Returns the {@code long} time budget per tick, in nanoseconds, or
+   * {@code 0} if ticks are not budgeted.
+   *
+   * @return the tick budget
+   * @since 0.3.0
+   */
+  @NonNegative long budget();
+
+  /**
+   * Sets the {@code long} time budget per tick in the {@link TimeUnit},
+   * shared by the {@link SlicedSystem}s of this universe. A budget of
+   * {@code 0} does not budget ticks.
+   *
+   * @param budget the tick budget
+   * @param unit the tick budget unit
+   * @since 0.3.0
+   */
+  void budget(final @NonNegative long budget, final @NonNull TimeUnit unit);
+
   /**
    * Sets the {@link InjectionStructure} for system dependency injection.
    *
@@ -120,6 +202,22 @@ public interface Universe {
    */
   void injector(final InjectionStructure.@Nullable Factory factory);
 
+  /**
+   * Adds the {@link UniverseListener} to this universe.
+   *
+   * @param listener the listener
+   * @since 0.3.0
+   */
+  void addListener(final @NonNull UniverseListener listener);
+
+  /**
+   * Removes the {@link UniverseListener} from this universe.
+   *
+   * @param listener the listener
+   * @since 0.3.0
+   */
+  void removeListener(final @NonNull UniverseListener listener);
+
   /**
    * Returns {@code true} if the universe contains the specified {@link Entity},
    * otherwise {@code false}.
@@ -193,6 +291,20 @@ public interface Universe {
    */
   <T extends System> @Nullable T getSystem(final @NonNull Class<T> target);
 
+  /**
+   * Returns the {@code T} resource for the specified {@link Class} type if
+   * it exists, otherwise {@code null}.
+   *
+   * <p>Resources are stored by a per-class index, so the lookup does not
+   * hash.</p>
+   *
+   * @param type the resource type
+   * @param <T> the resource type
+   * @return the resource, if present
+   * @since 0.3.0
+   */
+  <T> @Nullable T resource(final @NonNull Class<T> type);
+
   /**
    * Returns the {@link ComponentType} with the specified {@code int}
    * index if it exists, otherwise {@code null}.
@@ -332,6 +444,42 @@ public interface Universe {
    */
   <T extends Entity> @NonNull T createEntity(final @NonNull EntityFunction<T> function);
 
+  /**
+   * Creates the specified {@code int} count of new {@link Entity}s, with
+   * the specified {@link ComponentType}s, and returns the {@code int} index
+   * of the first.
+   *
+   * <p>The entities are created with a contiguous range of indexes, from
+   * the returned index to the returned index plus the count, exclusive.</p>
+   *
+   * @param count the number of entities
+   * @param types the component types
+   * @return the first entity index
+   * @throws InactiveUniverseException if the universe is not active
+   * @throws IllegalArgumentException if a component type is specified more than once
+   * @since 0.3.0
+   */
+  @NonNegative int createEntities(final @NonNegative int count, final @NonNull ComponentType @NonNull ... types);
+
+  /**
+   * Creates the specified {@code int} count of new {@code T} entity
+   * instances for the specified {@link EntityFunction}, with the specified
+   * {@link ComponentType}s, and returns the {@code int} index of the first.
+   *
+   * <p>The entities are created with a contiguous range of indexes, from
+   * the returned index to the returned index plus the count, exclusive.</p>
+   *
+   * @param count the number of entities
+   * @param function the entity function
+   * @param types the component types
+   * @param <T> the entity type
+   * @return the first entity index
+   * @throws InactiveUniverseException if the universe is not active
+   * @throws IllegalArgumentException if a component type is specified more than once
+   * @since 0.3.0
+   */
+  <T extends Entity> @NonNegative int createEntities(final @NonNegative int count, final @NonNull EntityFunction<T> function, final @NonNull ComponentType @NonNull ... types);
+
   /**
    * Returns a new {@code T} component instance for the specified {@link Entity}
    * index and {@link ComponentType} if it exists, otherwise {@code null}.
@@ -346,6 +494,46 @@ public interface Universe {
    */
   <T> @NonNull T addComponent(final @NonNull Entity entity, final @NonNull ComponentType type);
 
+  /**
+   * Marks the component for the specified {@link ComponentType} on the
+   * {@link Entity} as changed, notifying the {@link UniverseListener}s.
+   *
+   * @param entity the entity
+   * @param type the component type
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void markChanged(final @NonNull Entity entity, final @NonNull ComponentType type);
+
+  /**
+   * Inserts the {@code T} resource for the specified {@link Class} type,
+   * replacing any existing resource of the type.
+   *
+   * <p>The resource is injected into any systems with a
+   * {@link space.vectrix.inertia.system.Resource} field of the type.</p>
+   *
+   * @param type the resource type
+   * @param resource the resource
+   * @param <T> the resource type
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  <T> void insertResource(final @NonNull Class<T> type, final @NonNull T resource);
+
+  /**
+   * Removes and returns the {@code T} resource for the specified
+   * {@link Class} type if it exists, otherwise {@code null}.
+   *
+   * <p>Systems the resource was injected into keep their reference.</p>
+   *
+   * @param type the resource type
+   * @param <T> the resource type
+   * @return the removed resource, if present
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  <T> @Nullable T removeResource(final @NonNull Class<T> type);
+
   /**
    * Removes the specified {@link System} from this universe.
    *
@@ -373,6 +561,106 @@ public interface Universe {
    */
   void removeEntity(final @NonNull Entity entity);
 
+  /**
+   * Marks all the entities matching the specified {@link EntityFilter}
+   * for removal.
+   *
+   * <p>The matching entities are resolved from the component type members
+   * immediately, then removed together on sanitization, rather than
+   * queued one by one.</p>
+   *
+   * @param filter the entity filter
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void removeEntities(final @NonNull EntityFilter filter);
+
+  /**
+   * Transfers the specified {@link Entity} and its components to the
+   * target {@link Universe}, and returns the new entity.
+   *
+   * <p>The component instances are moved rather than recreated, with
+   * their {@link ComponentType}s remapped by identifier. The new entity is
+   * created with {@link Entity#simple()}.</p>
+   *
+   * <p>Both universes are locked for the transfer, in the order of their
+   * indexes, so it waits for a tick, or the stage of an asynchronous tick,
+   * in progress on either universe on another thread to complete. The new
+   * entity is created in the target universe before the entity is removed
+   * from this universe immediately. Blocking systems of either universe
+   * cannot transfer entities, as a synchronous tick stays locked while
+   * they run.</p>
+   *
+   * <p>Listeners of this universe observe the entity as destroyed, so a
+   * cascading {@link space.vectrix.inertia.relation.Relation} queues its
+   * sources in this universe for removal.</p>
+   *
+   * @param entity the entity
+   * @param target the target universe
+   * @return the new entity in the target universe
+   * @throws InactiveUniverseException if either universe is not active
+   * @throws IllegalArgumentException if the entity does not exist
+   * @throws IllegalStateException if called from a blocking system of either universe
+   * @since 0.3.0
+   */
+  @NonNull Entity transferEntity(final @NonNull Entity entity, final @NonNull Universe target);
+
+  /**
+   * Transfers the specified {@link Entity} and its components to the
+   * target {@link Universe}, and returns the new {@code T} entity instance
+   * for the specified {@link EntityFunction}.
+   *
+   * @param entity the entity
+   * @param target the target universe
+   * @param function the entity function
+   * @param <T> the entity type
+   * @return the new entity in the target universe
+   * @throws InactiveUniverseException if either universe is not active
+   * @throws IllegalArgumentException if the entity does not exist
+   * @throws IllegalStateException if called from a blocking system of either universe
+   * @see #transferEntity(Entity, Universe)
+   * @since 0.3.0
+   */
+  <T extends Entity> @NonNull T transferEntity(final @NonNull Entity entity, final @NonNull Universe target, final @NonNull EntityFunction<T> function);
+
+  /**
+   * Transfers the specified {@code int} entities and their components to
+   * the target {@link Universe}, and returns the {@code int} index of the
+   * first new entity.
+   *
+   * <p>The new entities are created with a contiguous range of indexes,
+   * in the same order as the specified entities.</p>
+   *
+   * @param entities the entity indexes
+   * @param target the target universe
+   * @return the first new entity index
+   * @throws InactiveUniverseException if either universe is not active
+   * @throws IllegalArgumentException if an entity does not exist or is duplicated
+   * @throws IllegalStateException if called from a blocking system of either universe
+   * @see #transferEntity(Entity, Universe)
+   * @since 0.3.0
+   */
+  @NonNegative int transferEntities(final int @NonNull [] entities, final @NonNull Universe target);
+
+  /**
+   * Transfers the specified {@code int} entities and their components to
+   * the target {@link Universe}, creating the new entities with the
+   * specified {@link EntityFunction}, and returns the {@code int} index of
+   * the first new entity.
+   *
+   * @param entities the entity indexes
+   * @param target the target universe
+   * @param function the entity function
+   * @param <T> the entity type
+   * @return the first new entity index
+   * @throws InactiveUniverseException if either universe is not active
+   * @throws IllegalArgumentException if an entity does not exist or is duplicated
+   * @throws IllegalStateException if called from a blocking system of either universe
+   * @see #transferEntities(int[], Universe)
+   * @since 0.3.0
+   */
+  <T extends Entity> @NonNegative int transferEntities(final int @NonNull [] entities, final @NonNull Universe target, final @NonNull EntityFunction<T> function);
+
   /**
    * Marks the specified {@link ComponentType} for the {@link Entity}
    * to be removed.
@@ -394,6 +682,19 @@ public interface Universe {
    */
   void clearComponents(final @NonNull Entity entity);
 
+  /**
+   * Marks the components for the specified {@link ComponentType} on every
+   * entity to be removed.
+   *
+   * <p>The components are removed together on sanitization, in a single
+   * pass over the component type members.</p>
+   *
+   * @param type the component type
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void removeComponents(final @NonNull ComponentType type);
+
   /**
    * Returns a {@link CustomIterator} of {@link System}s in this universe.
    *
@@ -29,6 +29,7 @@ import it.unimi.dsi.fastutil.PriorityQueue;
 import it.unimi.dsi.fastutil.PriorityQueues;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.IntIntPair;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 import it.unimi.dsi.fastutil.objects.ObjectObjectImmutablePair;
 import org.checkerframework.checker.index.qual.NonNegative;
@@ -38,41 +39,77 @@ import space.vectrix.flare.SyncMap;
 import space.vectrix.flare.fastutil.Int2ObjectSyncMap;
 import space.vectrix.inertia.component.Component;
 import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
 import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFilter;
 import space.vectrix.inertia.entity.EntityFunction;
 import space.vectrix.inertia.entity.EntityStash;
 import space.vectrix.inertia.injection.InjectionStructure;
+import space.vectrix.inertia.journal.JournalTarget;
 import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.SlicedSystem;
 import space.vectrix.inertia.system.System;
 import space.vectrix.inertia.util.CustomIterator;
 import space.vectrix.inertia.util.IndexCounter;
+import space.vectrix.inertia.util.IndexSet;
 
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
 
 import static java.util.Objects.requireNonNull;
 
-public final class UniverseImpl implements Universe {
+public final class UniverseImpl implements Universe, JournalTarget {
+  /**
+   * Stores the universe whose blocking system runs on the current thread.
+   */
+  private static final ThreadLocal<UniverseImpl> BLOCKING = new ThreadLocal<>();
+
+  /**
+   * Stores the universe whose tick phase or blocking system runs on the
+   * current thread.
+   */
+  private static final ThreadLocal<UniverseImpl> UPDATING = new ThreadLocal<>();
+
   /**
    * Stores the processors by class type.
    */
   private final Map<Class<? extends System>, SystemEntry> systems = SyncMap.of(IdentityHashMap::new, 20);
 
   /**
-   * Store the entity stashes.
+   * Stores the open entity stashes, with their destroyed entity purge
+   * functions.
    */
-  private final Set<EntityStash> stashes = SyncMap.setOf(WeakHashMap::new, 20);
+  private final Map<EntityStash, Consumer<IndexSet>> stashes = SyncMap.of(IdentityHashMap::new, 20);
+
+  /**
+   * Stores the resources by class type.
+   */
+  private final ResourceStore resources = new ResourceStore();
+
+  /**
+   * Stores the structural change listeners.
+   */
+  private final List<UniverseListener> listeners = new CopyOnWriteArrayList<>();
 
   /**
    * Stored by unique {@code int} component type index and {@link Class} component
@@ -83,6 +120,18 @@ public final class UniverseImpl implements Universe {
   private final Map<Class<?>, ComponentType> typeClasses = SyncMap.of(IdentityHashMap::new, 50);
   private final IndexCounter typeCounter = IndexCounter.counter("types", this.types);
 
+  /**
+   * Stores the entity indexes with a component, by unique {@code int}
+   * component type index.
+   */
+  private final Int2ObjectMap<IndexSet> typeMembers = Int2ObjectSyncMap.hashmap(50);
+
+  /**
+   * Stores the shared tag component instances, by unique {@code int}
+   * component type index. Tags are stored only in the type members.
+   */
+  private final Int2ObjectMap<Object> tags = Int2ObjectSyncMap.hashmap(20);
+
   /**
    * Stored by unique {@code int} component index.
    */
@@ -100,16 +149,24 @@ public final class UniverseImpl implements Universe {
    */
   private final Deque<Integer> entityRemovals = new ConcurrentLinkedDeque<>();
   private final PriorityQueue<IntIntPair> entityComponentRemovals = PriorityQueues.synchronize(new ObjectArrayFIFOQueue<>());
+  private final IndexSet entityDestroyed = new IndexSet();
+  private final IndexSet entityBulkRemovals = new IndexSet();
+  private final IndexSet typeRemovals = new IndexSet();
 
   private final AtomicInteger time = new AtomicInteger();
+  private final AtomicInteger systemCounter = new AtomicInteger();
   private final Object lock = new Object();
+  private final Semaphore ticking = new Semaphore(1);
   private final int index;
+  private final @Nullable ComponentTypeRegistry registry;
 
   private InjectionStructure.@Nullable Factory factory;
+  private volatile long budget;
   private boolean active = true;
 
-  /* package */ UniverseImpl(final @NonNegative int index) {
+  /* package */ UniverseImpl(final @NonNegative int index, final @Nullable ComponentTypeRegistry registry) {
     this.index = index;
+    this.registry = registry;
   }
 
   @Override
@@ -122,10 +179,64 @@ public final class UniverseImpl implements Universe {
     return this.index;
   }
 
+  @Override
+  public @Nullable ComponentTypeRegistry registry() {
+    return this.registry;
+  }
+
   @Override
   public @NonNull Tick tick() {
     Universe.checkActive(this);
-    return this.update();
+    this.ticking.acquireUninterruptibly();
+    try {
+      return this.update();
+    } finally {
+      this.ticking.release();
+    }
+  }
+
+  @Override
+  public @NonNull CompletableFuture<Tick> tickAsync(final @NonNull Executor executor) {
+    Universe.checkActive(this);
+    requireNonNull(executor, "executor");
+    if(!this.ticking.tryAcquire()) {
+      final CompletableFuture<Tick> future = new CompletableFuture<>();
+      future.completeExceptionally(new IllegalStateException("Universe is already ticking!"));
+      return future;
+    }
+    // Each phase is a separate stage, so the executor is free to run other
+    // work between them. The lock is only held within a phase.
+    final CompletableFuture<Tick> future;
+    try {
+      future = CompletableFuture.supplyAsync(this::begin, executor)
+        .thenApplyAsync(update -> this.phase(update, this::initialize), executor)
+        .thenApplyAsync(update -> this.phase(update, this::prepare), executor)
+        .thenApplyAsync(update -> this.phase(update, this::execute), executor)
+        .thenCompose(Update::joined)
+        .thenApplyAsync(update -> this.phase(update, this::sanitize), executor)
+        .thenApplyAsync(this::complete, executor);
+    } catch(final Throwable throwable) {
+      this.ticking.release();
+      throw throwable;
+    }
+    return future.whenComplete((tick, throwable) -> this.ticking.release());
+  }
+
+  @Override
+  public boolean ticking() {
+    return this.ticking.availablePermits() == 0;
+  }
+
+  @Override
+  public @NonNegative long budget() {
+    return this.budget;
+  }
+
+  @Override
+  public void budget(final @NonNegative long budget, final @NonNull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    if(budget < 0) throw new IllegalArgumentException("Budget must not be negative!");
+    this.budget = unit.toNanos(budget);
   }
 
   @Override
@@ -133,6 +244,18 @@ public final class UniverseImpl implements Universe {
     this.factory = factory;
   }
 
+  @Override
+  public void addListener(final @NonNull UniverseListener listener) {
+    requireNonNull(listener, "listener");
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(final @NonNull UniverseListener listener) {
+    requireNonNull(listener, "listener");
+    this.listeners.remove(listener);
+  }
+
   @Override
   public boolean hasEntity(final @NonNull Entity entity) {
     requireNonNull(entity, "entity");
@@ -143,6 +266,8 @@ public final class UniverseImpl implements Universe {
   @Override
   public boolean hasComponent(final @NonNegative int entity, final @NonNull ComponentType type) {
     requireNonNull(type, "type");
+    if(!this.local(type)) return false;
+    if(type.tag()) return this.typeMembers.get(type.index()).contains(entity);
     final EntityEntry entry = this.entities.get(entity);
     return entry != null && entry.get(type) != null;
   }
@@ -156,6 +281,8 @@ public final class UniverseImpl implements Universe {
   @Override
   public boolean hasComponent(@NonNegative int entity, @NonNull Class<?> type) {
     requireNonNull(type, "type");
+    final ComponentType tag = this.typeClasses.get(type);
+    if(tag != null && tag.tag()) return this.typeMembers.get(tag.index()).contains(entity);
     final EntityEntry entry = this.entities.get(entity);
     return entry != null && entry.get(type) != null;
   }
@@ -174,6 +301,13 @@ public final class UniverseImpl implements Universe {
     return systemEntry != null ? (T) systemEntry.left() : null;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> @Nullable T resource(final @NonNull Class<T> type) {
+    requireNonNull(type, "type");
+    return (T) this.resources.get(type);
+  }
+
   @Override
   public @Nullable ComponentType getType(final @NonNegative int type) {
     return this.types.get(type);
@@ -205,8 +339,11 @@ public final class UniverseImpl implements Universe {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> @Nullable T getComponent(final @NonNegative int entity, final @NonNull ComponentType type) {
     requireNonNull(type, "type");
+    if(!this.local(type)) return null;
+    if(type.tag()) return this.typeMembers.get(type.index()).contains(entity) ? (T) this.tags.get(type.index()) : null;
     final EntityEntry entry = this.entities.get(entity);
     return entry != null ? entry.component(type) : null;
   }
@@ -220,6 +357,8 @@ public final class UniverseImpl implements Universe {
   @Override
   public <T> @Nullable T getComponent(final @NonNegative int entity, final @NonNull Class<? super T> type) {
     requireNonNull(type, "type");
+    final ComponentType tag = this.typeClasses.get(type);
+    if(tag != null && tag.tag()) return this.getComponent(entity, tag);
     final EntityEntry entry = this.entities.get(entity);
     return entry != null ? entry.component(type) : null;
   }
@@ -234,19 +373,27 @@ public final class UniverseImpl implements Universe {
   public <T extends System> void addSystem(final @NonNull T system) {
     Universe.checkActive(this);
     requireNonNull(system, "system");
-    this.systems.computeIfAbsent(system.getClass(), key -> {
-      try {
-        if(this.factory != null) {
-          final InjectionStructure structure = this.factory.create(key);
-          this.injectSystem(system, structure);
-          return new SystemEntry(system, structure);
-        }
-      } catch(final Throwable throwable) {
-        throwable.printStackTrace();
+    final Class<? extends System> key = system.getClass();
+    if(this.systems.containsKey(key)) return;
+    // Injection may create component types, which re-enters the systems map,
+    // so it must not happen while computing the entry.
+    InjectionStructure structure = null;
+    final List<EntityStash> queries = new ArrayList<>();
+    try {
+      if(this.factory != null) {
+        structure = this.factory.create(key);
+        this.injectSystem(system, structure, queries);
       }
-
-      return new SystemEntry(system, null);
-    });
+    } catch(final Throwable throwable) {
+      throwable.printStackTrace();
+      // A system that failed injection is added without a structure, so the
+      // queries already created for it are closed.
+      for(final EntityStash query : queries) query.close();
+      queries.clear();
+      structure = null;
+    }
+    final SystemEntry entry = new SystemEntry(system, structure, queries, this.systemCounter.getAndIncrement());
+    if(this.systems.putIfAbsent(key, entry) != null) entry.close();
   }
 
   @Override
@@ -258,49 +405,158 @@ public final class UniverseImpl implements Universe {
   public <T extends Entity> @NonNull T createEntity(final @NonNull EntityFunction<T> function) {
     Universe.checkActive(this);
     requireNonNull(function, "function");
-    return this.entityCounter.next(index -> {
-      final T entity = function.apply(this, index);
-      this.entities.put(index, new EntityEntry(entity));
-      return entity;
+    final T entity = this.entityCounter.next(index -> {
+      final T value = function.apply(this, index);
+      this.entities.put(index, new EntityEntry(value));
+      return value;
     });
+    for(final UniverseListener listener : this.listeners) listener.entityCreated(entity);
+    return entity;
+  }
+
+  @Override
+  public @NonNegative int createEntities(final @NonNegative int count, final @NonNull ComponentType @NonNull ... types) {
+    return this.createEntities(count, Entity.simple(), types);
+  }
+
+  @Override
+  public <T extends Entity> @NonNegative int createEntities(final @NonNegative int count, final @NonNull EntityFunction<T> function, final @NonNull ComponentType @NonNull ... types) {
+    return this.createEntities(count, function, types, null);
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public <T> @NonNull T addComponent(final @NonNull Entity entity, final @NonNull ComponentType type) {
+  public <T> @NonNull T addComponent(final @NonNull Entity entity, final @NonNull ComponentType componentType) {
     Universe.checkActive(this);
     requireNonNull(entity, "entity");
-    requireNonNull(type, "type");
-    return this.componentCounter.next(index -> {
-      final EntityEntry entityEntry = this.entities.get(entity.index());
-      if(entityEntry == null) throw new IllegalArgumentException("Entity does not exist!");
-      ComponentEntry entry = entityEntry.get(type);
-      if(entry != null) return entry.component();
-      final T componentReference = (T) this.createInstance(type.type());
-      entry = new ComponentEntry(type, index, componentReference);
-      entityEntry.add(entry);
-      this.components.put(index, entry);
-      return componentReference;
+    final ComponentType type = this.localize(requireNonNull(componentType, "type"));
+    final EntityEntry entityEntry = this.entities.get(entity.index());
+    if(entityEntry == null) throw new IllegalArgumentException("Entity does not exist!");
+    if(type.tag()) return this.addTag(entity.index(), type);
+    final ComponentEntry existing = entityEntry.get(type);
+    if(existing != null) return existing.component();
+    final ComponentEntry entry = this.componentCounter.next(index -> {
+      final ComponentEntry present = entityEntry.get(type);
+      if(present != null) return present;
+      final ComponentEntry value = new ComponentEntry(type, index, this.createInstance(type.type()));
+      entityEntry.add(value);
+      this.components.put(index, value);
+      this.typeMembers.get(type.index()).add(entity.index());
+      for(final UniverseListener listener : this.listeners) listener.componentAdded(entity.index(), type, value.component());
+      return value;
     });
+    return (T) entry.component();
+  }
+
+  @Override
+  public void markChanged(final @NonNull Entity entity, final @NonNull ComponentType type) {
+    Universe.checkActive(this);
+    requireNonNull(entity, "entity");
+    requireNonNull(type, "type");
+    final Object component = this.getComponent(entity.index(), type);
+    if(component == null) return;
+    for(final UniverseListener listener : this.listeners) listener.componentChanged(entity.index(), type, component);
+  }
+
+  @Override
+  public <T> void insertResource(final @NonNull Class<T> type, final @NonNull T resource) {
+    Universe.checkActive(this);
+    requireNonNull(type, "type");
+    requireNonNull(resource, "resource");
+    this.resources.put(type, type.cast(resource));
+    this.injectResource(type, resource);
+  }
+
+  @Override
+  public <T> @Nullable T removeResource(final @NonNull Class<T> type) {
+    Universe.checkActive(this);
+    requireNonNull(type, "type");
+    return type.cast(this.resources.remove(type));
   }
 
   @Override
   public void removeSystem(final @NonNull Class<? extends System> system) {
     Universe.checkActive(this);
-    this.systems.remove(system);
+    final SystemEntry entry = this.systems.remove(system);
+    if(entry != null) entry.close();
   }
 
   @Override
   public void removeEntity(final @NonNegative int entity) {
     Universe.checkActive(this);
     this.entityRemovals.offerFirst(entity);
+    for(final UniverseListener listener : this.listeners) listener.entityRemovalQueued(entity);
   }
 
   @Override
   public void removeEntity(final @NonNull Entity entity) {
     Universe.checkActive(this);
     requireNonNull(entity, "entity");
-    this.entityRemovals.offerFirst(entity.index());
+    this.removeEntity(entity.index());
+  }
+
+  @Override
+  public void removeEntities(final @NonNull EntityFilter filter) {
+    Universe.checkActive(this);
+    requireNonNull(filter, "filter");
+    final IndexSet matches = new IndexSet();
+    final Iterator<ComponentType> required = filter.required().iterator();
+    if(required.hasNext()) {
+      matches.addAll(this.members(required.next()));
+      while(required.hasNext()) matches.retainAll(this.members(required.next()));
+    } else {
+      for(final IntIterator iterator = this.entities.keySet().iterator(); iterator.hasNext(); ) matches.add(iterator.nextInt());
+    }
+    for(final ComponentType excluded : filter.excluded()) matches.removeAll(this.members(excluded));
+    this.entityBulkRemovals.addAll(matches);
+    if(this.listeners.isEmpty()) return;
+    for(final IntIterator iterator = matches.iterator(); iterator.hasNext(); ) {
+      final int entity = iterator.nextInt();
+      for(final UniverseListener listener : this.listeners) listener.entityRemovalQueued(entity);
+    }
+  }
+
+  @Override
+  public @NonNull Entity transferEntity(final @NonNull Entity entity, final @NonNull Universe target) {
+    return this.transferEntity(entity, target, Entity.simple());
+  }
+
+  @Override
+  public <T extends Entity> @NonNull T transferEntity(final @NonNull Entity entity, final @NonNull Universe target, final @NonNull EntityFunction<T> function) {
+    requireNonNull(entity, "entity");
+    final T transferred = target.getEntity(this.transferEntities(new int[] {entity.index()}, target, function), Entity.class);
+    if(transferred == null) throw new IllegalStateException("Transferred entity does not exist!");
+    return transferred;
+  }
+
+  @Override
+  public @NonNegative int transferEntities(final int @NonNull [] entities, final @NonNull Universe target) {
+    return this.transferEntities(entities, target, Entity.simple());
+  }
+
+  @Override
+  public <T extends Entity> @NonNegative int transferEntities(final int @NonNull [] entities, final @NonNull Universe target, final @NonNull EntityFunction<T> function) {
+    Universe.checkActive(this);
+    requireNonNull(entities, "entities");
+    requireNonNull(target, "target");
+    requireNonNull(function, "function");
+    Universe.checkActive(target);
+    if(target == this) throw new IllegalArgumentException("Entities cannot be transferred to the same universe!");
+    final UniverseImpl internal = (UniverseImpl) target;
+    // A synchronous tick stays locked while its blocking systems run, so
+    // locking it from one of them would never return. Asynchronous ticks
+    // reject it too, so blocking systems behave the same on either path.
+    final UniverseImpl blocking = UniverseImpl.BLOCKING.get();
+    if(blocking == this || blocking == internal) throw new IllegalStateException("Entities cannot be transferred from a blocking system!");
+    // Both universes are locked in the order of their indexes, so transfers
+    // in opposite directions cannot deadlock.
+    final UniverseImpl first = this.index < internal.index ? this : internal;
+    final UniverseImpl second = first == this ? internal : this;
+    synchronized(first.lock) {
+      synchronized(second.lock) {
+        return this.transfer(entities, internal, function);
+      }
+    }
   }
 
   @Override
@@ -308,7 +564,9 @@ public final class UniverseImpl implements Universe {
     Universe.checkActive(this);
     requireNonNull(entity, "entity");
     requireNonNull(type, "type");
+    if(!this.local(type)) return;
     this.entityComponentRemovals.enqueue(IntIntPair.of(entity.index(), type.index()));
+    for(final UniverseListener listener : this.listeners) listener.componentRemovalQueued(entity.index(), type);
   }
 
   @Override
@@ -318,7 +576,30 @@ public final class UniverseImpl implements Universe {
     final int index = entity.index();
     final EntityEntry entityEntry = this.entities.get(index);
     if(entityEntry == null) return;
-    entityEntry.entries().forEach(entry -> this.entityComponentRemovals.enqueue(IntIntPair.of(index, entry.type().index())));
+    for(final ComponentEntry entry : entityEntry.entries()) {
+      this.entityComponentRemovals.enqueue(IntIntPair.of(index, entry.type().index()));
+      for(final UniverseListener listener : this.listeners) listener.componentRemovalQueued(index, entry.type());
+    }
+    for(final int tag : this.tags.keySet()) {
+      if(!this.typeMembers.get(tag).contains(index)) continue;
+      this.entityComponentRemovals.enqueue(IntIntPair.of(index, tag));
+      for(final UniverseListener listener : this.listeners) listener.componentRemovalQueued(index, this.types.get(tag));
+    }
+  }
+
+  @Override
+  public void removeComponents(final @NonNull ComponentType type) {
+    Universe.checkActive(this);
+    requireNonNull(type, "type");
+    // A shared type that was never used here has no members to remove.
+    if(!this.local(type) && this.registry != null && this.registry.get(type.index()) == type) return;
+    final IndexSet members = this.members(type);
+    this.typeRemovals.add(type.index());
+    if(this.listeners.isEmpty()) return;
+    for(final IntIterator iterator = members.iterator(); iterator.hasNext(); ) {
+      final int entity = iterator.nextInt();
+      for(final UniverseListener listener : this.listeners) listener.componentRemovalQueued(entity, type);
+    }
   }
 
   @Override
@@ -372,8 +653,14 @@ public final class UniverseImpl implements Universe {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> @NonNull CustomIterator<T> components(final @NonNull ComponentType type) {
     requireNonNull(type, "type");
+    if(!this.local(type)) return CustomIterator.empty();
+    if(type.tag()) {
+      final T tag = (T) this.tags.get(type.index());
+      return CustomIterator.of(this.typeMembers.get(type.index()).iterator(), ignored -> tag);
+    }
     return CustomIterator.of(
       this.components.values().iterator(),
       entry -> entry.type().index() == type.index() ? entry.component() : null
@@ -385,10 +672,18 @@ public final class UniverseImpl implements Universe {
     requireNonNull(entity, "entity");
     final EntityEntry entityEntry = this.entities.get(entity.index());
     if(entityEntry == null) return CustomIterator.empty();
-    return CustomIterator.of(
-      entityEntry.entries().iterator(),
-      ComponentEntry::component
-    );
+    if(this.tags.isEmpty()) {
+      return CustomIterator.of(
+        entityEntry.entries().iterator(),
+        ComponentEntry::component
+      );
+    }
+    final List<Object> components = new ArrayList<>();
+    for(final ComponentEntry entry : entityEntry.entries()) components.add(entry.component());
+    for(final Int2ObjectMap.Entry<Object> tag : this.tags.int2ObjectEntrySet()) {
+      if(this.typeMembers.get(tag.getIntKey()).contains(entity.index())) components.add(tag.getValue());
+    }
+    return CustomIterator.of(components.iterator());
   }
 
   @Override
@@ -402,6 +697,7 @@ public final class UniverseImpl implements Universe {
   @Override
   public void destroy() {
     Universe.checkActive(this);
+    this.checkBlocking();
     synchronized(this.lock) {
       this.active = false;
       this.clear();
@@ -411,6 +707,7 @@ public final class UniverseImpl implements Universe {
 
   /* package */ void deactivate() {
     Universe.checkActive(this);
+    this.checkBlocking();
     synchronized(this.lock) {
       this.active = false;
       this.clear();
@@ -419,24 +716,203 @@ public final class UniverseImpl implements Universe {
 
   // Internal
 
-  public @NonNull EntityStash addStash(final @NonNull EntityStash stash) {
+  public boolean updating() {
+    return UniverseImpl.UPDATING.get() == this;
+  }
+
+  @Override
+  public @NonNull List<ComponentType> types(final @NonNegative int entity) {
+    final EntityEntry entityEntry = this.entities.get(entity);
+    if(entityEntry == null) return Collections.emptyList();
+    final List<ComponentType> types = new ArrayList<>();
+    for(final ComponentEntry entry : entityEntry.entries()) types.add(entry.type());
+    for(final Int2ObjectMap.Entry<Object> tag : this.tags.int2ObjectEntrySet()) {
+      if(this.typeMembers.get(tag.getIntKey()).contains(entity)) types.add(this.types.get(tag.getIntKey()));
+    }
+    return types;
+  }
+
+  @Override
+  public <T extends Entity> @NonNull T restoreEntity(final @NonNegative int index, final @NonNull EntityFunction<T> function) {
+    Universe.checkActive(this);
+    requireNonNull(function, "function");
+    this.checkBlocking();
+    synchronized(this.lock) {
+      if(this.entities.containsKey(index)) throw new IllegalArgumentException("Entity " + index + " already exists!");
+      final T entity = function.apply(this, index);
+      this.entities.put(index, new EntityEntry(entity));
+      this.entityCounter.counter().accumulateAndGet(index + 1, Math::max);
+      for(final UniverseListener listener : this.listeners) listener.entityCreated(entity);
+      return entity;
+    }
+  }
+
+  @Override
+  public void restoreDestroy(final @NonNegative int entity) {
+    Universe.checkActive(this);
+    this.checkBlocking();
+    synchronized(this.lock) {
+      if(this.destroy(entity)) this.entityDestroyed.add(entity);
+      this.purge();
+    }
+  }
+
+  @Override
+  public void restoreRemove(final @NonNegative int entity, final @NonNull ComponentType type) {
+    Universe.checkActive(this);
+    requireNonNull(type, "type");
+    this.checkBlocking();
+    synchronized(this.lock) {
+      this.destroyComponent(entity, this.localize(type).index());
+    }
+  }
+
+  public <T extends Entity> @NonNegative int createEntities(final @NonNegative int count, final @NonNull EntityFunction<T> function,
+                                                             final @NonNull ComponentType @NonNull [] types, final @Nullable ObjIntConsumer<Object> initializer) {
+    Universe.checkActive(this);
+    requireNonNull(function, "function");
+    requireNonNull(types, "types");
+    if(count < 0) throw new IllegalArgumentException("Count must not be negative!");
+    // Types are resolved before any entity is reserved, so a foreign type
+    // leaves the universe untouched.
+    final ComponentType[] locals = new ComponentType[types.length];
+    for(int t = 0; t < types.length; t++) {
+      locals[t] = this.localize(requireNonNull(types[t], "type"));
+      for(int u = 0; u < t; u++) {
+        if(locals[u] == locals[t]) throw new IllegalArgumentException("Component type '" + locals[t].id() + "' is specified more than once!");
+      }
+    }
+    // Components are created and initialized before any index is reserved
+    // too, so a failing constructor or initializer leaves no partial entities.
+    final Object[][] components = new Object[types.length][];
+    for(int t = 0; t < types.length; t++) {
+      final ComponentType type = locals[t];
+      final Object[] values = components[t] = new Object[count];
+      if(type.tag()) {
+        Arrays.fill(values, this.tags.get(type.index()));
+      } else {
+        final Constructor<?> constructor = this.constructor(type.type());
+        for(int i = 0; i < count; i++) {
+          values[i] = this.createInstance(constructor);
+          if(initializer != null) initializer.accept(values[i], t);
+        }
+      }
+    }
+    final EntityEntry[] entries = new EntityEntry[count];
+    final int first = this.entityCounter.next(count, start -> {
+      for(int i = 0; i < count; i++) {
+        entries[i] = new EntityEntry(function.apply(this, start + i));
+        this.entities.put(start + i, entries[i]);
+      }
+      return start;
+    });
+    for(int t = 0; t < types.length; t++) {
+      final ComponentType type = locals[t];
+      final Object[] values = components[t];
+      if(!type.tag()) {
+        // Component indexes are reserved as a range too, so the whole type
+        // is attached under a single lock.
+        this.componentCounter.next(count, start -> {
+          for(int i = 0; i < count; i++) {
+            final ComponentEntry entry = new ComponentEntry(type, start + i, values[i]);
+            entries[i].add(entry);
+            this.components.put(start + i, entry);
+          }
+          return start;
+        });
+      }
+      this.typeMembers.get(type.index()).addRange(first, first + count);
+    }
+    if(!this.listeners.isEmpty()) {
+      for(int i = 0; i < count; i++) {
+        for(final UniverseListener listener : this.listeners) listener.entityCreated(entries[i].entity());
+        for(int t = 0; t < types.length; t++) {
+          for(final UniverseListener listener : this.listeners) listener.componentAdded(first + i, locals[t], components[t][i]);
+        }
+      }
+    }
+    return first;
+  }
+
+  public @NonNull ComponentType remapType(final @NonNull ComponentType type) {
+    requireNonNull(type, "type");
+    ComponentType remapped = this.getType(type.id());
+    if(remapped == null) remapped = ComponentType.create(this, type.type());
+    if(remapped.type() != type.type()) throw new IllegalArgumentException("Component type '" + type.id() + "' does not match the target component type!");
+    return remapped;
+  }
+
+  public void attachComponent(final @NonNegative int entity, final @NonNull ComponentType componentType, final @NonNull Object component) {
+    Universe.checkActive(this);
+    final ComponentType type = this.localize(requireNonNull(componentType, "type"));
+    requireNonNull(component, "component");
+    final EntityEntry entityEntry = this.entities.get(entity);
+    if(entityEntry == null) throw new IllegalArgumentException("Entity does not exist!");
+    if(type.tag()) {
+      this.addTag(entity, type);
+      return;
+    }
+    if(entityEntry.get(type) != null) return;
+    this.componentCounter.next(index -> {
+      final ComponentEntry present = entityEntry.get(type);
+      if(present != null) return present;
+      final ComponentEntry value = new ComponentEntry(type, index, component);
+      entityEntry.add(value);
+      this.components.put(index, value);
+      this.typeMembers.get(type.index()).add(entity);
+      for(final UniverseListener listener : this.listeners) listener.componentAdded(entity, type, component);
+      return value;
+    });
+  }
+
+  public @NonNull EntityStash addStash(final @NonNull EntityStash stash, final @NonNull Consumer<IndexSet> purge) {
     Universe.checkActive(this);
     requireNonNull(stash, "stash");
-    this.stashes.add(stash);
+    requireNonNull(purge, "purge");
+    this.stashes.put(stash, purge);
     return stash;
   }
 
+  public void removeStash(final @NonNull EntityStash stash) {
+    requireNonNull(stash, "stash");
+    this.stashes.remove(stash);
+  }
+
+  public @NonNull IndexSet members(final @NonNull ComponentType type) {
+    // Shared registry types are registered here, so views over them track later additions.
+    return this.typeMembers.get(this.localize(requireNonNull(type, "type")).index());
+  }
+
   public @NonNull ComponentType resolveComponent(final @NonNull Class<?> target, final @NonNull IntFunction<ComponentType> function) {
     Universe.checkActive(this);
     requireNonNull(target, "target");
     requireNonNull(function, "function");
-    return this.typeClasses.computeIfAbsent(target, ignored -> this.typeCounter.next(index -> {
-      final ComponentType componentType = function.apply(index);
-      this.types.put(index, componentType);
-      this.typeNamed.put(componentType.id(), componentType);
-      if(this.factory != null) this.injectSystems(componentType);
-      return componentType;
-    }));
+    return this.typeClasses.computeIfAbsent(target, ignored -> {
+      // Shared registries assign the index, so the local counter is unused.
+      if(this.registry != null) return this.registerType(this.registry.resolve(target));
+      return this.typeCounter.next(index -> this.registerType(function.apply(index)));
+    });
+  }
+
+  private boolean local(final @NonNull ComponentType type) {
+    return this.types.get(type.index()) == type;
+  }
+
+  private @NonNull ComponentType localize(final @NonNull ComponentType type) {
+    if(this.local(type)) return type;
+    // Types from a shared registry are registered here on first use.
+    if(this.registry != null && this.registry.get(type.index()) == type) return this.resolveComponent(type.type(), ignored -> type);
+    throw new IllegalArgumentException("Component type does not belong to this universe!");
+  }
+
+  private @NonNull ComponentType registerType(final @NonNull ComponentType componentType) {
+    final int index = componentType.index();
+    if(componentType.tag()) this.tags.put(index, this.createInstance(componentType.type()));
+    this.typeMembers.put(index, new IndexSet());
+    this.types.put(index, componentType);
+    this.typeNamed.put(componentType.id(), componentType);
+    if(this.factory != null) this.injectSystems(componentType);
+    return componentType;
   }
 
   private void injectSystems(final @NonNull ComponentType type) {
@@ -463,9 +939,59 @@ public final class UniverseImpl implements Universe {
     }
   }
 
-  private <T extends System> void injectSystem(final @NonNull T system, final @NonNull InjectionStructure structure) {
+  private void injectResource(final @NonNull Class<?> type, final @NonNull Object resource) {
+    for(final SystemEntry systemEntry : this.systems.values()) {
+      final System system = systemEntry.left();
+      final InjectionStructure structure = systemEntry.right();
+      if(structure == null) continue;
+      for(final InjectionStructure.ResourceEntry entry : structure.resources()) {
+        if(entry.type() != type) continue;
+        try {
+          entry.target().inject(system, resource);
+        } catch(final Throwable throwable) {
+          throw new IllegalStateException(
+            "Unable to inject resource '"
+              + type.getSimpleName() + "' into system '"
+              + system.getClass().getSimpleName() + "'.", throwable
+          );
+        }
+      }
+    }
+  }
+
+  private <T extends System> void injectSystem(final @NonNull T system, final @NonNull InjectionStructure structure, final @NonNull List<EntityStash> queries) {
     requireNonNull(system, "system");
     requireNonNull(structure, "structure");
+    requireNonNull(queries, "queries");
+    for(final InjectionStructure.QueryEntry entry : structure.queries()) {
+      final Query query = entry.annotation();
+      EntityFilter filter = EntityFilter.any();
+      for(final Class<?> target : query.value()) filter = filter.with(ComponentType.create(this, target));
+      for(final Class<?> target : query.without()) filter = filter.without(ComponentType.create(this, target));
+      final EntityStash stash = EntityStash.filtered(this, filter);
+      queries.add(stash);
+      try {
+        entry.target().inject(system, stash);
+      } catch(final Throwable throwable) {
+        throw new IllegalStateException(
+          "Unable to inject query into system '"
+            + system.getClass().getSimpleName() + "'.", throwable
+        );
+      }
+    }
+    for(final InjectionStructure.ResourceEntry entry : structure.resources()) {
+      final Object resource = this.resources.get(entry.type());
+      if(resource == null) continue;
+      try {
+        entry.target().inject(system, resource);
+      } catch(final Throwable throwable) {
+        throw new IllegalStateException(
+          "Unable to inject resource '"
+            + entry.type().getSimpleName() + "' into system '"
+            + system.getClass().getSimpleName() + "'.", throwable
+        );
+      }
+    }
     for(final Map.Entry<Class<?>, InjectionStructure.Entry> entry : structure.injectors().entrySet()) {
       final Class<?> target = entry.getKey();
       final InjectionStructure.Entry injectionEntry = entry.getValue();
@@ -480,81 +1006,238 @@ public final class UniverseImpl implements Universe {
           throw new IllegalStateException(
             "Unable to inject component type '"
             + target.getSimpleName() + "' into system '"
-            + system.getClass().getSimpleName() + "'."
+            + system.getClass().getSimpleName() + "'.", throwable
           );
         }
       }
     }
   }
 
-  private void destroyEntity(final @NonNegative int entity) {
-    final EntityEntry entityEntry = this.entities.remove(entity);
-    if(entityEntry != null) {
-      entityEntry.entries().forEach(entry -> this.components.remove(entry.index()));
-      this.stashes.forEach(stash -> stash.remove(entity));
-    }
-  }
-
   private void destroyComponent(final @NonNegative int entity, final @NonNegative int type) {
+    final Object tag = this.tags.get(type);
+    if(tag != null) {
+      if(this.typeMembers.get(type).remove(entity)) {
+        for(final UniverseListener listener : this.listeners) listener.componentRemoved(entity, this.types.get(type), tag);
+      }
+      return;
+    }
     final EntityEntry entityEntry = this.entities.get(entity);
     final ComponentEntry componentEntry;
     if(entityEntry != null && (componentEntry = entityEntry.remove(type)) != null) {
       this.components.remove(componentEntry.index());
+      this.typeMembers.get(type).remove(entity);
+      for(final UniverseListener listener : this.listeners) listener.componentRemoved(entity, componentEntry.type(), componentEntry.component());
     }
   }
 
+  private <T extends Entity> @NonNegative int transfer(final int @NonNull [] entities, final @NonNull UniverseImpl target, final @NonNull EntityFunction<T> function) {
+    final IndexSet unique = new IndexSet();
+    final ComponentType[][] types = new ComponentType[entities.length][];
+    final Object[][] components = new Object[entities.length][];
+    for(int i = 0; i < entities.length; i++) {
+      final int entity = entities[i];
+      final EntityEntry entityEntry = this.entities.get(entity);
+      if(entityEntry == null) throw new IllegalArgumentException("Entity " + entity + " does not exist!");
+      if(!unique.add(entity)) throw new IllegalArgumentException("Entity " + entity + " is transferred more than once!");
+      final List<ComponentType> entityTypes = new ArrayList<>();
+      final List<Object> entityComponents = new ArrayList<>();
+      for(final ComponentEntry entry : entityEntry.entries()) {
+        entityTypes.add(target.remapType(entry.type()));
+        entityComponents.add(entry.component());
+      }
+      for(final Int2ObjectMap.Entry<Object> tag : this.tags.int2ObjectEntrySet()) {
+        if(!this.typeMembers.get(tag.getIntKey()).contains(entity)) continue;
+        entityTypes.add(target.remapType(this.types.get(tag.getIntKey())));
+        entityComponents.add(tag.getValue());
+      }
+      types[i] = entityTypes.toArray(new ComponentType[0]);
+      components[i] = entityComponents.toArray();
+    }
+    // The target is populated before the entities are destroyed here, so
+    // they are never missing from both universes.
+    final int first = target.createEntities(entities.length, function, new ComponentType[0], null);
+    for(int i = 0; i < entities.length; i++) {
+      for(int j = 0; j < types[i].length; j++) target.attachComponent(first + i, types[i][j], components[i][j]);
+    }
+    for(final int entity : entities) {
+      if(this.destroy(entity)) this.entityDestroyed.add(entity);
+    }
+    this.purge();
+    return first;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> @NonNull T addTag(final @NonNegative int entity, final @NonNull ComponentType type) {
+    final Object tag = this.tags.get(type.index());
+    if(this.typeMembers.get(type.index()).add(entity)) {
+      for(final UniverseListener listener : this.listeners) listener.componentAdded(entity, type, tag);
+    }
+    return (T) tag;
+  }
+
+  private boolean destroy(final @NonNegative int entity) {
+    final EntityEntry entityEntry = this.entities.remove(entity);
+    if(entityEntry == null) return false;
+    for(final ComponentEntry entry : entityEntry.entries()) {
+      this.components.remove(entry.index());
+      this.typeMembers.get(entry.type().index()).remove(entity);
+      for(final UniverseListener listener : this.listeners) listener.componentRemoved(entity, entry.type(), entry.component());
+    }
+    for(final Int2ObjectMap.Entry<Object> tag : this.tags.int2ObjectEntrySet()) {
+      if(!this.typeMembers.get(tag.getIntKey()).remove(entity)) continue;
+      for(final UniverseListener listener : this.listeners) listener.componentRemoved(entity, this.types.get(tag.getIntKey()), tag.getValue());
+    }
+    for(final UniverseListener listener : this.listeners) listener.entityDestroyed(entity);
+    return true;
+  }
+
   private void clear() {
+    this.stashes.clear();
     this.components.clear();
     this.entities.clear();
+    this.typeMembers.values().forEach(IndexSet::clear);
+    this.entityBulkRemovals.clear();
+    this.typeRemovals.clear();
     this.systems.clear();
+    this.resources.clear();
+    this.listeners.clear();
   }
 
   // Utility
 
-  private Tick update() {
+  private void checkBlocking() {
+    // A synchronous tick stays locked while its blocking systems run, so
+    // locking it from one of them would never return. Asynchronous ticks
+    // reject it too, so blocking systems behave the same on either path.
+    if(UniverseImpl.BLOCKING.get() == this) throw new IllegalStateException("Universe cannot be locked from its blocking systems!");
+  }
+
+  private @NonNull Tick update() {
+    synchronized(this.lock) {
+      final Update update = this.begin();
+      final UniverseImpl previous = UniverseImpl.UPDATING.get();
+      UniverseImpl.UPDATING.set(this);
+      try {
+        this.initialize(update);
+        this.prepare(update);
+        this.execute(update);
+        for(final CompletableFuture<Throwable> future : update.blocking) update.error(future.join());
+        this.sanitize(update);
+      } finally {
+        UniverseImpl.UPDATING.set(previous);
+      }
+      return this.complete(update);
+    }
+  }
+
+  private @NonNull Update phase(final @NonNull Update update, final @NonNull Consumer<Update> phase) {
+    synchronized(this.lock) {
+      Universe.checkActive(this);
+      final UniverseImpl previous = UniverseImpl.UPDATING.get();
+      UniverseImpl.UPDATING.set(this);
+      try {
+        phase.accept(update);
+      } finally {
+        UniverseImpl.UPDATING.set(previous);
+      }
+      return update;
+    }
+  }
+
+  private @NonNull Update begin() {
     synchronized(this.lock) {
+      Universe.checkActive(this);
       final List<SystemEntry> systems = new ArrayList<>(this.systems.values());
-      final List<Throwable> errors = new ArrayList<>();
-      final int time = this.time.getAndIncrement();
       Collections.sort(systems);
-      // 1. Initialize
-      for(final SystemEntry systemEntry : systems) {
-        final System system = systemEntry.left();
-        try {
-          if(!system.initialized()) system.initialize();
-        } catch(final Throwable throwable) {
-          errors.add(throwable);
-        }
+      final Update update = new Update(systems, this.time.getAndIncrement(), java.lang.System.nanoTime(), this.budget);
+      for(final UniverseListener listener : this.listeners) listener.tickStarted(update.time);
+      return update;
+    }
+  }
+
+  // 1. Initialize
+  private void initialize(final @NonNull Update update) {
+    for(final SystemEntry systemEntry : update.systems) {
+      final System system = systemEntry.left();
+      try {
+        if(!system.initialized()) system.initialize();
+      } catch(final Throwable throwable) {
+        update.errors.add(throwable);
       }
-      // 2. Prepare
-      for(final SystemEntry systemEntry : systems) {
-        final System system = systemEntry.left();
-        try {
-          if(system.initialized()) system.prepare();
-        } catch(final Throwable throwable) {
-          errors.add(throwable);
-        }
+    }
+  }
+
+  // 2. Prepare
+  private void prepare(final @NonNull Update update) {
+    for(final SystemEntry systemEntry : update.systems) {
+      final System system = systemEntry.left();
+      try {
+        if(system.initialized() && systemEntry.due(update.time)) system.prepare();
+      } catch(final Throwable throwable) {
+        update.errors.add(throwable);
       }
-      // 3. Execute
-      for(final SystemEntry systemEntry : systems) {
-        final System system = systemEntry.left();
-        try {
-          if(system.initialized()) system.execute();
-        } catch(final Throwable throwable) {
-          errors.add(throwable);
-        }
+    }
+  }
+
+  // 3. Execute
+  private void execute(final @NonNull Update update) {
+    for(final SystemEntry systemEntry : update.systems) {
+      final System system = systemEntry.left();
+      if(!system.initialized() || !systemEntry.due(update.time)) continue;
+      // A previous system may have destroyed the universe.
+      Universe.checkActive(this);
+      update.await(systemEntry);
+      if(system.blocking()) {
+        update.pending.add(systemEntry);
+        update.blocking.add(CompletableFuture.supplyAsync(() -> {
+          UniverseImpl.BLOCKING.set(this);
+          UniverseImpl.UPDATING.set(this);
+          try {
+            systemEntry.execute(update.start, update.budget);
+            return null;
+          } catch(final Throwable throwable) {
+            return throwable;
+          } finally {
+            UniverseImpl.BLOCKING.remove();
+            UniverseImpl.UPDATING.remove();
+          }
+        }, BlockingExecutor.EXECUTOR));
+        continue;
+      }
+      try {
+        systemEntry.execute(update.start, update.budget);
+      } catch(final Throwable throwable) {
+        update.errors.add(throwable);
+      }
+    }
+  }
+
+  // 4. Sanitize
+  private void sanitize(final @NonNull Update update) {
+    Universe.checkActive(this);
+    for(final SystemEntry systemEntry : update.systems) {
+      final System system = systemEntry.left();
+      try {
+        if(system.initialized() && systemEntry.due(update.time)) system.sanitize();
+      } catch(final Throwable throwable) {
+        update.errors.add(throwable);
       }
-      // 4. Sanitize
-      for(final SystemEntry systemEntry : systems) {
-        final System system = systemEntry.left();
+    }
+    this.sanitize();
+  }
+
+  // 5. Notify
+  private @NonNull Tick complete(final @NonNull Update update) {
+    synchronized(this.lock) {
+      final Tick tick = new TickImpl(update.time, update.errors);
+      for(final UniverseListener listener : this.listeners) {
         try {
-          if(system.initialized()) system.sanitize();
+          listener.tickCompleted(tick);
         } catch(final Throwable throwable) {
-          errors.add(throwable);
+          update.errors.add(throwable);
         }
       }
-      this.sanitize();
-      return new TickImpl(time, errors);
+      return tick;
     }
   }
 
@@ -563,19 +1246,98 @@ public final class UniverseImpl implements Universe {
       final IntIntPair pair = this.entityComponentRemovals.dequeue();
       this.destroyComponent(pair.firstInt(), pair.secondInt());
     }
-    while(!this.entityRemovals.isEmpty()) {
-      this.destroyEntity(this.entityRemovals.pollFirst());
+    if(!this.typeRemovals.isEmpty()) {
+      final IndexSet types = this.typeRemovals.copy();
+      this.typeRemovals.removeAll(types);
+      for(final IntIterator iterator = types.iterator(); iterator.hasNext(); ) {
+        final int type = iterator.nextInt();
+        final IndexSet members = this.typeMembers.get(type).copy();
+        for(final IntIterator entities = members.iterator(); entities.hasNext(); ) this.destroyComponent(entities.nextInt(), type);
+      }
+    }
+    // Destroying an entity may queue further removals, such as cascading
+    // relations, so the queues are drained until both are empty.
+    while(!this.entityRemovals.isEmpty() || !this.entityBulkRemovals.isEmpty()) {
+      while(!this.entityRemovals.isEmpty()) {
+        final int entity = this.entityRemovals.pollFirst();
+        if(this.destroy(entity)) this.entityDestroyed.add(entity);
+      }
+      if(!this.entityBulkRemovals.isEmpty()) {
+        final IndexSet removals = this.entityBulkRemovals.copy();
+        this.entityBulkRemovals.removeAll(removals);
+        for(final IntIterator iterator = removals.iterator(); iterator.hasNext(); ) {
+          final int entity = iterator.nextInt();
+          if(this.destroy(entity)) this.entityDestroyed.add(entity);
+        }
+      }
+    }
+    this.purge();
+  }
+
+  private void purge() {
+    // Stashes are purged of the destroyed entities in bulk, rather than
+    // per entity and stash.
+    if(!this.entityDestroyed.isEmpty()) {
+      for(final Consumer<IndexSet> purge : this.stashes.values()) purge.accept(this.entityDestroyed);
+      this.entityDestroyed.clear();
     }
   }
 
   private @NonNull Object createInstance(final @NonNull Class<?> componentClass) {
+    return this.createInstance(this.constructor(componentClass));
+  }
+
+  private @NonNull Object createInstance(final @NonNull Constructor<?> constructor) {
     try {
-      return componentClass.getDeclaredConstructor().newInstance();
+      return constructor.newInstance();
     } catch(final Throwable exception) {
       throw new IllegalStateException("Unable to instantiate component.", exception);
     }
   }
 
+  private @NonNull Constructor<?> constructor(final @NonNull Class<?> componentClass) {
+    try {
+      return componentClass.getDeclaredConstructor();
+    } catch(final Throwable exception) {
+      throw new IllegalStateException("Unable to instantiate component.", exception);
+    }
+  }
+
+  /* package */ static final class Update {
+    private final List<SystemEntry> systems;
+    private final List<Throwable> errors = new ArrayList<>();
+    private final List<CompletableFuture<Throwable>> blocking = new ArrayList<>();
+    private final List<SystemEntry> pending = new ArrayList<>();
+    private final int time;
+    private final long start;
+    private final long budget;
+
+    /* package */ Update(final @NonNull List<SystemEntry> systems, final @NonNegative int time, final long start, final @NonNegative long budget) {
+      this.systems = systems;
+      this.time = time;
+      this.start = start;
+      this.budget = budget;
+    }
+
+    public void error(final @Nullable Throwable throwable) {
+      if(throwable != null) this.errors.add(throwable);
+    }
+
+    public void await(final @NonNull SystemEntry system) {
+      // Errors are collected once the blocking systems are joined.
+      for(int i = 0; i < this.pending.size(); i++) {
+        if(this.pending.get(i).conflicts(system)) this.blocking.get(i).join();
+      }
+    }
+
+    public @NonNull CompletableFuture<Update> joined() {
+      return CompletableFuture.allOf(this.blocking.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+        for(final CompletableFuture<Throwable> future : this.blocking) this.error(future.join());
+        return this;
+      });
+    }
+  }
+
   /* package */ static final class TickImpl implements Tick {
     private final int time;
     private final Collection<Throwable> errors;
@@ -599,8 +1361,58 @@ public final class UniverseImpl implements Universe {
   /* package */ static class SystemEntry extends ObjectObjectImmutablePair<System, InjectionStructure> implements Comparable<SystemEntry> {
     private static final long serialVersionUID = 0L;
 
-    public SystemEntry(final @NonNull System left, final @Nullable InjectionStructure right) {
+    private final transient List<EntityStash> queries;
+    private final int offset;
+    private int cursor;
+
+    public SystemEntry(final @NonNull System left, final @Nullable InjectionStructure right, final @NonNull List<EntityStash> queries,
+                       final @NonNegative int offset) {
       super(left, right);
+      this.queries = queries;
+      this.offset = offset;
+    }
+
+    public void execute(final long start, final @NonNegative long budget) throws Throwable {
+      if(this.left instanceof SlicedSystem) {
+        this.slice((SlicedSystem) this.left, start, budget);
+      } else {
+        this.left.execute();
+      }
+    }
+
+    private void slice(final @NonNull SlicedSystem system, final long start, final @NonNegative long budget) throws Throwable {
+      final long now = java.lang.System.nanoTime();
+      // The slice runs for the smaller of the system budget and the
+      // remaining tick budget. Elapsed time is compared against a duration,
+      // as a deadline overflows for large budgets.
+      long limit = system.budget();
+      if(budget > 0) limit = Math.min(limit, Math.max(start + budget - now, 0));
+      do {
+        if(!system.process(this.cursor)) {
+          this.cursor = 0;
+          return;
+        }
+        this.cursor++;
+      } while(java.lang.System.nanoTime() - now < limit);
+    }
+
+    public boolean due(final @NonNegative int time) {
+      final int interval = this.left.interval();
+      return interval <= 1 || Math.floorMod(time + this.offset, interval) == 0;
+    }
+
+    public boolean conflicts(final @NonNull SystemEntry other) {
+      if(this.right == null || other.right() == null) return false;
+      for(final InjectionStructure.ResourceEntry entry : this.right.resources()) {
+        for(final InjectionStructure.ResourceEntry otherEntry : other.right().resources()) {
+          if(entry.type() == otherEntry.type() && (entry.write() || otherEntry.write())) return true;
+        }
+      }
+      return false;
+    }
+
+    public void close() {
+      for(final EntityStash query : this.queries) query.close();
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+
+/**
+ * Represents a listener of structural changes in a {@link Universe}.
+ *
+ * <p>Listeners are called on the thread that caused the change, so
+ * implementations should be cheap and thread-safe.</p>
+ *
+ * @since 0.3.0
+ */
+public interface UniverseListener {
+  /**
+   * Called when an {@link Entity} has been created.
+   *
+   * @param entity the entity
+   * @since 0.3.0
+   */
+  default void entityCreated(final @NonNull Entity entity) {}
+
+  /**
+   * Called when the entity with the specified {@code int} index has
+   * been destroyed.
+   *
+   * <p>Each of the entity components will have been passed to
+   * {@link UniverseListener#componentRemoved(int, ComponentType, Object)}
+   * beforehand.</p>
+   *
+   * @param entity the entity index
+   * @since 0.3.0
+   */
+  default void entityDestroyed(final @NonNegative int entity) {}
+
+  /**
+   * Called when the entity with the specified {@code int} index has
+   * been marked for removal.
+   *
+   * @param entity the entity index
+   * @since 0.3.0
+   */
+  default void entityRemovalQueued(final @NonNegative int entity) {}
+
+  /**
+   * Called when a component has been added to the entity with the
+   * specified {@code int} index.
+   *
+   * @param entity the entity index
+   * @param type the component type
+   * @param component the component instance
+   * @since 0.3.0
+   */
+  default void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {}
+
+  /**
+   * Called when a component has been marked as changed on the entity
+   * with the specified {@code int} index.
+   *
+   * @param entity the entity index
+   * @param type the component type
+   * @param component the component instance
+   * @since 0.3.0
+   */
+  default void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {}
+
+  /**
+   * Called when a component has been removed from the entity with the
+   * specified {@code int} index.
+   *
+   * @param entity the entity index
+   * @param type the component type
+   * @param component the component instance
+   * @since 0.3.0
+   */
+  default void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {}
+
+  /**
+   * Called when the component for the specified {@link ComponentType} has
+   * been marked for removal from the entity with the specified {@code int}
+   * index.
+   *
+   * @param entity the entity index
+   * @param type the component type
+   * @since 0.3.0
+   */
+  default void componentRemovalQueued(final @NonNegative int entity, final @NonNull ComponentType type) {}
+
+  /**
+   * Called at the start of a tick, before any of the systems have
+   * been processed.
+   *
+   * @param time the tick time
+   * @since 0.3.0
+   */
+  default void tickStarted(final @NonNegative int time) {}
+
+  /**
+   * Called at the end of a tick, after the universe has been sanitized.
+   *
+   * <p>Any exception thrown will be added to the {@link Universe.Tick#errors()}.</p>
+   *
+   * @param tick the tick result
+   * @throws Throwable when there is an issue processing
+   * @since 0.3.0
+   */
+  default void tickCompleted(final Universe.@NonNull Tick tick) throws Throwable {}
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents a scheduler that ticks a set of {@link Universe}s in
+ * parallel, at a target rate.
+ *
+ * <p>A universe that is still ticking when its next tick is due is
+ * skipped for that round and counted as skipped, so a slow universe
+ * never delays the others.</p>
+ *
+ * @since 0.3.0
+ */
+public interface UniverseScheduler extends AutoCloseable {
+  /**
+   * Returns a new {@link UniverseScheduler} with the specified {@code int}
+   * number of threads and {@code long} tick period in the
+   * {@link TimeUnit}.
+   *
+   * @param threads the number of threads
+   * @param period the tick period
+   * @param unit the tick period unit
+   * @return a new universe scheduler
+   * @since 0.3.0
+   */
+  static @NonNull UniverseScheduler create(final @NonNegative int threads, final @NonNegative long period, final @NonNull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    if(threads < 1) throw new IllegalArgumentException("Threads must be positive!");
+    return new UniverseSchedulerImpl(Executors.newFixedThreadPool(threads, UniverseSchedulerImpl.factory("inertia-universe-")), true, unit.toNanos(period));
+  }
+
+  /**
+   * Returns a new {@link UniverseScheduler} for the specified
+   * {@link ExecutorService} and {@code long} tick period in the
+   * {@link TimeUnit}.
+   *
+   * <p>The executor is not shut down when the scheduler is closed.</p>
+   *
+   * @param executor the executor
+   * @param period the tick period
+   * @param unit the tick period unit
+   * @return a new universe scheduler
+   * @since 0.3.0
+   */
+  static @NonNull UniverseScheduler create(final @NonNull ExecutorService executor, final @NonNegative long period, final @NonNull TimeUnit unit) {
+    requireNonNull(executor, "executor");
+    requireNonNull(unit, "unit");
+    return new UniverseSchedulerImpl(executor, false, unit.toNanos(period));
+  }
+
+  /**
+   * Adds the specified {@link Universe} to this scheduler.
+   *
+   * @param universe the universe
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void add(final @NonNull Universe universe);
+
+  /**
+   * Removes the specified {@link Universe} from this scheduler.
+   *
+   * <p>Universes are also removed once they are no longer active.</p>
+   *
+   * @param universe the universe
+   * @since 0.3.0
+   */
+  void remove(final @NonNull Universe universe);
+
+  /**
+   * Sets the handler for the errors of scheduled ticks, or {@code null}
+   * to only count them.
+   *
+   * <p>The handler receives every error collected by a {@link Universe.Tick},
+   * as well as any exception thrown by the tick itself, along with the
+   * {@link Universe} that reported it. It is called on the thread that ran
+   * the tick. Ticks rejected by the executor are counted as skipped and
+   * their {@link java.util.concurrent.RejectedExecutionException} is passed
+   * to the handler on the submitting thread. Exceptions thrown by the
+   * handler are ignored, so they never stop the scheduler.</p>
+   *
+   * @param handler the error handler
+   * @since 0.3.0
+   */
+  void errors(final @Nullable BiConsumer<Universe, Throwable> handler);
+
+  /**
+   * Ticks every {@link Universe} once in parallel, waits for them to
+   * complete and returns a {@link Report} of the round.
+   *
+   * @return the round report
+   * @throws InterruptedException if interrupted while waiting
+   * @since 0.3.0
+   */
+  @NonNull Report tick() throws InterruptedException;
+
+  /**
+   * Starts ticking the {@link Universe}s at the target rate, until this
+   * scheduler is closed.
+   *
+   * @since 0.3.0
+   */
+  void start();
+
+  /**
+   * Returns {@code true} if this scheduler has been started and is not
+   * closed, otherwise {@code false}.
+   *
+   * @return whether the scheduler is running
+   * @since 0.3.0
+   */
+  boolean running();
+
+  /**
+   * Returns a {@link Report} aggregated over every tick run by this
+   * scheduler.
+   *
+   * @return the aggregated report
+   * @since 0.3.0
+   */
+  @NonNull Report report();
+
+  /**
+   * Returns a {@link Report} aggregated over every tick of the specified
+   * {@link Universe} run by this scheduler if it is scheduled, otherwise
+   * {@code null}.
+   *
+   * @param universe the universe
+   * @return the universe report, if present
+   * @since 0.3.0
+   */
+  @Nullable Report report(final @NonNull Universe universe);
+
+  /**
+   * Stops this scheduler, waiting for any ticks in progress.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+
+  /**
+   * Represents the statistics of scheduled ticks.
+   *
+   * @since 0.3.0
+   */
+  interface Report {
+    /**
+     * Returns the {@code long} number of ticks run.
+     *
+     * @return the number of ticks
+     * @since 0.3.0
+     */
+    @NonNegative long ticks();
+
+    /**
+     * Returns the {@code long} number of ticks that took longer than the
+     * tick period.
+     *
+     * @return the number of overrun ticks
+     * @since 0.3.0
+     */
+    @NonNegative long overruns();
+
+    /**
+     * Returns the {@code long} number of ticks skipped because the
+     * previous tick was still running, or the executor rejected them.
+     *
+     * @return the number of skipped ticks
+     * @since 0.3.0
+     */
+    @NonNegative long skipped();
+
+    /**
+     * Returns the {@code long} number of errors reported by the ticks,
+     * including exceptions thrown by the ticks themselves.
+     *
+     * @return the number of errors
+     * @see UniverseScheduler#errors(BiConsumer)
+     * @since 0.3.0
+     */
+    @NonNegative long errors();
+
+    /**
+     * Returns the {@code long} total time spent ticking, in nanoseconds.
+     *
+     * @return the total tick time
+     * @since 0.3.0
+     */
+    @NonNegative long totalTime();
+
+    /**
+     * Returns the {@code long} longest time spent on a tick, in
+     * nanoseconds.
+     *
+     * @return the longest tick time
+     * @since 0.3.0
+     */
+    @NonNegative long maxTime();
+  }
+}
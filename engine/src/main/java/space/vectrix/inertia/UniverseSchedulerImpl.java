@@ -0,0 +1,316 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.flare.SyncMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class UniverseSchedulerImpl implements UniverseScheduler {
+  private final Map<Universe, Slot> slots = SyncMap.of(IdentityHashMap::new, 20);
+  private final Stats stats = new Stats();
+  private final ExecutorService executor;
+  private final boolean owned;
+  private final long period;
+  private final Object lock = new Object();
+
+  private volatile @Nullable ScheduledExecutorService timer;
+  private volatile @Nullable BiConsumer<Universe, Throwable> handler;
+  private volatile boolean closed;
+
+  /* package */ UniverseSchedulerImpl(final @NonNull ExecutorService executor, final boolean owned, final @NonNegative long period) {
+    if(period <= 0) throw new IllegalArgumentException("Period must be positive!");
+    this.executor = executor;
+    this.owned = owned;
+    this.period = period;
+  }
+
+  /* package */ static @NonNull ThreadFactory factory(final @NonNull String prefix) {
+    final AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      final Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  @Override
+  public void add(final @NonNull Universe universe) {
+    Universe.checkActive(universe);
+    this.slots.putIfAbsent(universe, new Slot(universe));
+  }
+
+  @Override
+  public void remove(final @NonNull Universe universe) {
+    requireNonNull(universe, "universe");
+    this.slots.remove(universe);
+  }
+
+  @Override
+  public void errors(final @Nullable BiConsumer<Universe, Throwable> handler) {
+    this.handler = handler;
+  }
+
+  @Override
+  public @NonNull Report tick() throws InterruptedException {
+    if(this.closed) throw new IllegalStateException("Scheduler is closed!");
+    final Stats round = new Stats();
+    final List<Slot> slots = this.schedule();
+    final CountDownLatch latch = new CountDownLatch(slots.size());
+    for(final Slot slot : slots) this.submit(slot, round, latch);
+    latch.await();
+    return round.report();
+  }
+
+  @Override
+  public void start() {
+    synchronized(this.lock) {
+      if(this.closed) throw new IllegalStateException("Scheduler is closed!");
+      if(this.timer != null) return;
+      this.timer = Executors.newSingleThreadScheduledExecutor(UniverseSchedulerImpl.factory("inertia-scheduler-"));
+      this.timer.scheduleAtFixedRate(() -> {
+        for(final Slot slot : this.schedule()) this.submit(slot, null, null);
+      }, 0, this.period, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public boolean running() {
+    return this.timer != null && !this.closed;
+  }
+
+  @Override
+  public @NonNull Report report() {
+    return this.stats.report();
+  }
+
+  @Override
+  public @Nullable Report report(final @NonNull Universe universe) {
+    requireNonNull(universe, "universe");
+    final Slot slot = this.slots.get(universe);
+    return slot != null ? slot.stats.report() : null;
+  }
+
+  @Override
+  public void close() {
+    synchronized(this.lock) {
+      if(this.closed) return;
+      this.closed = true;
+      if(this.timer != null) this.timer.shutdownNow();
+      if(this.owned) {
+        this.executor.shutdown();
+        try {
+          this.executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch(final InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private @NonNull List<Slot> schedule() {
+    final List<Slot> slots = new ArrayList<>(this.slots.values());
+    // The longest running universes are submitted first, so they do not
+    // trail the rest of the round.
+    slots.sort((first, second) -> Long.compare(second.last, first.last));
+    return slots;
+  }
+
+  private void submit(final @NonNull Slot slot, final @Nullable Stats round, final @Nullable CountDownLatch latch) {
+    if(!slot.running.compareAndSet(false, true)) {
+      slot.skip(round, this.stats);
+      if(latch != null) latch.countDown();
+      return;
+    }
+    try {
+      this.executor.execute(() -> {
+        try {
+          this.run(slot, round);
+        } finally {
+          slot.running.set(false);
+          if(latch != null) latch.countDown();
+        }
+      });
+    } catch(final RejectedExecutionException exception) {
+      // A rejected tick never ran, so it is counted as skipped.
+      slot.running.set(false);
+      slot.skip(round, this.stats);
+      if(latch != null) latch.countDown();
+      this.handle(slot.universe, exception);
+    }
+  }
+
+  private void run(final @NonNull Slot slot, final @Nullable Stats round) {
+    final Universe universe = slot.universe;
+    if(!universe.active()) {
+      this.slots.remove(universe);
+      return;
+    }
+    final long start = System.nanoTime();
+    Collection<Throwable> errors;
+    try {
+      errors = universe.tick().errors();
+    } catch(final InactiveUniverseException exception) {
+      this.slots.remove(universe);
+      return;
+    } catch(final Throwable throwable) {
+      errors = Collections.singletonList(throwable);
+    }
+    final long time = System.nanoTime() - start;
+    slot.last = time;
+    final boolean overrun = time > this.period;
+    slot.stats.record(time, overrun, errors.size());
+    this.stats.record(time, overrun, errors.size());
+    if(round != null) round.record(time, overrun, errors.size());
+    for(final Throwable throwable : errors) this.handle(universe, throwable);
+  }
+
+  private void handle(final @NonNull Universe universe, final @NonNull Throwable throwable) {
+    final BiConsumer<Universe, Throwable> handler = this.handler;
+    if(handler == null) return;
+    try {
+      handler.accept(universe, throwable);
+    } catch(final Throwable ignored) {
+      // A failing handler must not stop the scheduler, such as by
+      // cancelling the timer task a rejection is handled on.
+    }
+  }
+
+  /* package */ static final class Slot {
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Stats stats = new Stats();
+    private final Universe universe;
+    private volatile long last;
+
+    /* package */ Slot(final @NonNull Universe universe) {
+      this.universe = universe;
+    }
+
+    /* package */ void skip(final @Nullable Stats round, final @NonNull Stats total) {
+      this.stats.skipped.increment();
+      total.skipped.increment();
+      if(round != null) round.skipped.increment();
+    }
+  }
+
+  /* package */ static final class Stats {
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    /* package */ void record(final @NonNegative long time, final boolean overrun, final @NonNegative int errors) {
+      this.ticks.increment();
+      if(overrun) this.overruns.increment();
+      this.errors.add(errors);
+      this.totalTime.add(time);
+      this.maxTime.accumulateAndGet(time, Math::max);
+    }
+
+    /* package */ @NonNull Report report() {
+      return new ReportImpl(this.ticks.sum(), this.overruns.sum(), this.skipped.sum(), this.errors.sum(), this.totalTime.sum(), this.maxTime.get());
+    }
+  }
+
+  /* package */ static final class ReportImpl implements Report {
+    private final long ticks;
+    private final long overruns;
+    private final long skipped;
+    private final long errors;
+    private final long totalTime;
+    private final long maxTime;
+
+    /* package */ ReportImpl(final @NonNegative long ticks, final @NonNegative long overruns, final @NonNegative long skipped,
+                             final @NonNegative long errors, final @NonNegative long totalTime, final @NonNegative long maxTime) {
+      this.ticks = ticks;
+      this.overruns = overruns;
+      this.skipped = skipped;
+      this.errors = errors;
+      this.totalTime = totalTime;
+      this.maxTime = maxTime;
+    }
+
+    @Override
+    public @NonNegative long ticks() {
+      return this.ticks;
+    }
+
+    @Override
+    public @NonNegative long overruns() {
+      return this.overruns;
+    }
+
+    @Override
+    public @NonNegative long skipped() {
+      return this.skipped;
+    }
+
+    @Override
+    public @NonNegative long errors() {
+      return this.errors;
+    }
+
+    @Override
+    public @NonNegative long totalTime() {
+      return this.totalTime;
+    }
+
+    @Override
+    public @NonNegative long maxTime() {
+      return this.maxTime;
+    }
+
+    @Override
+    public @NonNull String toString() {
+      return "Report{ticks=" + this.ticks + ", overruns=" + this.overruns
+        + ", skipped=" + this.skipped + ", errors=" + this.errors
+        + ", totalTime=" + this.totalTime + ", maxTime=" + this.maxTime + "}";
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import space.vectrix.flare.fastutil.Int2ObjectSyncMap;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
 import space.vectrix.inertia.util.IndexCounter;
 
 import java.util.Iterator;
@@ -38,8 +39,8 @@ import java.util.NoSuchElementException;
   private static final Int2ObjectMap<UniverseImpl> UNIVERSES = Int2ObjectSyncMap.hashmap();
   private static final IndexCounter UNIVERSE_COUNTER = IndexCounter.counter("universes", Universes.UNIVERSES);
 
-  /* package */ static @NonNull Universe create() {
-    return Universes.UNIVERSE_COUNTER.next(index -> Universes.UNIVERSES.computeIfAbsent(index, UniverseImpl::new));
+  /* package */ static @NonNull Universe create(final @Nullable ComponentTypeRegistry registry) {
+    return Universes.UNIVERSE_COUNTER.next(index -> Universes.UNIVERSES.computeIfAbsent(index, key -> new UniverseImpl(key, registry)));
   }
 
   /* package */ static @Nullable Universe get(final @NonNegative int index) {
@@ -54,4 +54,16 @@ public @interface Component {
    * @since 0.3.0
    */
   @NonNull String name();
+
+  /**
+   * Whether the component is a tag.
+   *
+   * <p>Tag components carry no state, so they are stored only as
+   * membership bits. A single instance is shared by every entity with
+   * the tag.</p>
+   *
+   * @return whether the component is a tag
+   * @since 0.3.0
+   */
+  boolean tag() default false;
 }
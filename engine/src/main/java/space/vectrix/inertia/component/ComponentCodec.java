@@ -0,0 +1,61 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.component;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Represents a codec for writing and reading the state of a component.
+ *
+ * @param <T> the component type
+ * @since 0.3.0
+ */
+public interface ComponentCodec<T> {
+  /**
+   * Writes the state of the specified {@code T} component to the
+   * {@link DataOutput}.
+   *
+   * @param component the component
+   * @param output the output
+   * @throws IOException if the component could not be written
+   * @since 0.3.0
+   */
+  void encode(final @NonNull T component, final @NonNull DataOutput output) throws IOException;
+
+  /**
+   * Reads the state from the {@link DataInput} into the specified {@code T}
+   * component.
+   *
+   * @param component the component
+   * @param input the input
+   * @throws IOException if the component could not be read
+   * @since 0.3.0
+   */
+  void decode(final @NonNull T component, final @NonNull DataInput input) throws IOException;
+}
@@ -84,4 +84,13 @@ public interface ComponentType {
    * @since 0.3.0
    */
   @NonNull Class<?> type();
+
+  /**
+   * Returns {@code true} if this component type is a tag, otherwise
+   * {@code false}.
+   *
+   * @return whether the component type is a tag
+   * @since 0.3.0
+   */
+  boolean tag();
 }
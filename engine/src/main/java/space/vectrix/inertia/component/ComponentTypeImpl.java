@@ -35,15 +35,18 @@ import java.util.Objects;
   private final String id;
   private final String name;
   private final Class<?> type;
+  private final boolean tag;
 
   /* package */ ComponentTypeImpl(final @NonNegative int index,
                                   final @NonNull String id,
                                   final @NonNull String name,
-                                  final @NonNull Class<?> type) {
+                                  final @NonNull Class<?> type,
+                                  final boolean tag) {
     this.index = index;
     this.id = id;
     this.name = name;
     this.type = type;
+    this.tag = tag;
   }
 
   @Override
@@ -66,6 +69,11 @@ import java.util.Objects;
     return this.type;
   }
 
+  @Override
+  public boolean tag() {
+    return this.tag;
+  }
+
   @Override
   public int hashCode() {
     return Objects.hash(this.index(), this.id(), this.name(), this.type());
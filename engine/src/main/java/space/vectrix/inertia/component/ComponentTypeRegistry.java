@@ -0,0 +1,108 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.component;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Represents a registry of {@link ComponentType}s that may be shared by
+ * multiple universes.
+ *
+ * <p>Each component class is resolved once, and keeps the same index in
+ * every universe using the registry. Lookups do not block.</p>
+ *
+ * @since 0.3.0
+ */
+public interface ComponentTypeRegistry {
+  /**
+   * Returns the process-wide {@link ComponentTypeRegistry}.
+   *
+   * @return the global registry
+   * @since 0.3.0
+   */
+  static @NonNull ComponentTypeRegistry global() {
+    return ComponentTypeRegistryImpl.GLOBAL;
+  }
+
+  /**
+   * Returns a new {@link ComponentTypeRegistry}.
+   *
+   * @return a new registry
+   * @since 0.3.0
+   */
+  static @NonNull ComponentTypeRegistry create() {
+    return new ComponentTypeRegistryImpl();
+  }
+
+  /**
+   * Returns the existing {@link ComponentType} for the specified
+   * {@link Class} target, otherwise creates a new one.
+   *
+   * @param target the target component
+   * @return the component type
+   * @since 0.3.0
+   */
+  @NonNull ComponentType resolve(final @NonNull Class<?> target);
+
+  /**
+   * Returns the {@link ComponentType} with the specified {@code int}
+   * index if it exists, otherwise {@code null}.
+   *
+   * @param index the component type index
+   * @return the component type, if present
+   * @since 0.3.0
+   */
+  @Nullable ComponentType get(final @NonNegative int index);
+
+  /**
+   * Returns the {@link ComponentType} with the specified {@link String}
+   * identifier if it exists, otherwise {@code null}.
+   *
+   * @param id the component type identifier
+   * @return the component type, if present
+   * @since 0.3.0
+   */
+  @Nullable ComponentType get(final @NonNull String id);
+
+  /**
+   * Returns the {@link ComponentType} for the specified {@link Class}
+   * target if it exists, otherwise {@code null}.
+   *
+   * @param target the target component
+   * @return the component type, if present
+   * @since 0.3.0
+   */
+  @Nullable ComponentType get(final @NonNull Class<?> target);
+
+  /**
+   * Returns the {@code int} number of component types in this registry.
+   *
+   * @return the number of component types
+   * @since 0.3.0
+   */
+  @NonNegative int size();
+}
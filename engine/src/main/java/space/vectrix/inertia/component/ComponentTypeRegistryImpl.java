@@ -0,0 +1,89 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.component;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.flare.SyncMap;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class ComponentTypeRegistryImpl implements ComponentTypeRegistry {
+  /* package */ static final ComponentTypeRegistry GLOBAL = new ComponentTypeRegistryImpl();
+
+  private final Map<Class<?>, ComponentType> typeClasses = SyncMap.of(IdentityHashMap::new, 50);
+  private final Map<String, ComponentType> typeNamed = SyncMap.hashmap(50);
+  private volatile ComponentType[] types = new ComponentType[16];
+  private volatile int size;
+
+  @Override
+  public @NonNull ComponentType resolve(final @NonNull Class<?> target) {
+    requireNonNull(target, "target");
+    final ComponentType existing = this.typeClasses.get(target);
+    if(existing != null) return existing;
+    synchronized(this) {
+      final ComponentType present = this.typeClasses.get(target);
+      if(present != null) return present;
+      final ComponentType type = ComponentTypes.create(this.size, target);
+      if(this.typeNamed.containsKey(type.id())) throw new IllegalArgumentException("Component type '" + type.id() + "' is already registered!");
+      // Copied on write, so readers never need to synchronize.
+      final ComponentType[] types = Arrays.copyOf(this.types, type.index() < this.types.length ? this.types.length : this.types.length << 1);
+      types[type.index()] = type;
+      this.types = types;
+      this.typeNamed.put(type.id(), type);
+      this.typeClasses.put(target, type);
+      this.size++;
+      return type;
+    }
+  }
+
+  @Override
+  public @Nullable ComponentType get(final @NonNegative int index) {
+    final ComponentType[] types = this.types;
+    return index >= 0 && index < types.length ? types[index] : null;
+  }
+
+  @Override
+  public @Nullable ComponentType get(final @NonNull String id) {
+    requireNonNull(id, "id");
+    return this.typeNamed.get(id);
+  }
+
+  @Override
+  public @Nullable ComponentType get(final @NonNull Class<?> target) {
+    requireNonNull(target, "target");
+    return this.typeClasses.get(target);
+  }
+
+  @Override
+  public @NonNegative int size() {
+    return this.size;
+  }
+}
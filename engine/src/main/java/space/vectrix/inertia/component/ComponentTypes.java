@@ -40,6 +40,6 @@ import static java.util.Objects.requireNonNull;
   /* package */ static @NonNull ComponentType create(final @NonNegative int index, final @NonNull Class<?> target) {
     final Component annotation = target.getAnnotation(Component.class);
     if(annotation == null) throw new IllegalArgumentException("Target class '" + target.getSimpleName() + "' must have an @Component annotation!");
-    return new ComponentTypeImpl(index, requireNonNull(annotation.id(), "id"), requireNonNull(annotation.name(), "name"), target);
+    return new ComponentTypeImpl(index, requireNonNull(annotation.id(), "id"), requireNonNull(annotation.name(), "name"), target, annotation.tag());
   }
 }
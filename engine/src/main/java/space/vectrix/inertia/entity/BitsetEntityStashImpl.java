@@ -0,0 +1,166 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.util.CustomIterator;
+import space.vectrix.inertia.util.IndexSet;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class BitsetEntityStashImpl implements EntityStash {
+  /* package */ final IndexSet stash = new IndexSet();
+  private final UniverseImpl universe;
+
+  /* package */ BitsetEntityStashImpl(final @NonNull UniverseImpl universe) {
+    this.universe = universe;
+  }
+
+  @Override
+  public @NonNegative int size() {
+    return this.stash.size();
+  }
+
+  @Override
+  public boolean contains(final @NonNegative int index) {
+    return this.stash.contains(index);
+  }
+
+  @Override
+  public @Nullable Entity get(final @NonNegative int index) {
+    if(!this.stash.contains(index)) return null;
+    return this.universe.getEntity(index);
+  }
+
+  @Override
+  public <T extends Entity> @Nullable T get(final @NonNegative int index, final @NonNull Class<T> target) {
+    if(!this.stash.contains(index)) return null;
+    return this.universe.getEntity(index, target);
+  }
+
+  @Override
+  public boolean add(final @NonNegative int index) {
+    return this.stash.add(index);
+  }
+
+  @Override
+  public boolean remove(final @NonNegative int index) {
+    return this.stash.remove(index);
+  }
+
+  @Override
+  public void addAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IndexSet indexes = BitsetEntityStashImpl.indexes(other);
+    if(indexes != null) {
+      this.stash.addAll(indexes);
+    } else {
+      EntityStash.super.addAll(other);
+    }
+  }
+
+  @Override
+  public void retainAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IndexSet indexes = BitsetEntityStashImpl.indexes(other);
+    if(indexes != null) {
+      this.stash.retainAll(indexes);
+    } else {
+      EntityStash.super.retainAll(other);
+    }
+  }
+
+  @Override
+  public void removeAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IndexSet indexes = BitsetEntityStashImpl.indexes(other);
+    if(indexes != null) {
+      this.stash.removeAll(indexes);
+    } else {
+      EntityStash.super.removeAll(other);
+    }
+  }
+
+  @Override
+  public void retainAll(final @NonNull ComponentType type) {
+    requireNonNull(type, "type");
+    this.stash.retainAll(this.universe.members(type));
+  }
+
+  @Override
+  public void removeAll(final @NonNull ComponentType type) {
+    requireNonNull(type, "type");
+    this.stash.removeAll(this.universe.members(type));
+  }
+
+  @Override
+  public void clear() {
+    this.stash.clear();
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeStash(this);
+    this.stash.clear();
+  }
+
+  @Override
+  public @NonNull IntIterator indexes() {
+    return this.stash.iterator();
+  }
+
+  @Override
+  public @NonNull <T extends Entity> CustomIterator<T> iterator(final @NonNull Class<? super T> type) {
+    return CustomIterator.of(
+      this.stash.iterator(),
+      index -> this.universe.getEntity(index, type),
+      entity -> this.remove(entity.index())
+    );
+  }
+
+  @Override
+  public @NonNull CustomIterator<Entity> iterator() {
+    return CustomIterator.of(
+      this.stash.iterator(),
+      this.universe::getEntity,
+      entity -> this.remove(entity.index())
+    );
+  }
+
+  /* package */ void purge(final @NonNull IndexSet destroyed) {
+    this.stash.removeAll(destroyed);
+  }
+
+  private static @Nullable IndexSet indexes(final @NonNull EntityStash stash) {
+    if(stash instanceof BitsetEntityStashImpl) return ((BitsetEntityStashImpl) stash).stash;
+    if(stash instanceof FilteredEntityStashImpl) return ((FilteredEntityStashImpl) stash).stash;
+    return null;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A filter of entities by the component types they have.
+ *
+ * <p>Filters are immutable, every modifying method returns a new
+ * filter.</p>
+ *
+ * @since 0.3.0
+ */
+public interface EntityFilter {
+  /**
+   * Returns a new entity filter that matches every entity.
+   *
+   * @return a new entity filter
+   * @since 0.3.0
+   */
+  static @NonNull EntityFilter any() {
+    return EntityFilterImpl.ANY;
+  }
+
+  /**
+   * Returns a new entity filter that matches entities with all the
+   * specified {@link ComponentType}s.
+   *
+   * @param types the component types
+   * @return a new entity filter
+   * @since 0.3.0
+   */
+  static @NonNull EntityFilter all(final @NonNull ComponentType @NonNull ... types) {
+    requireNonNull(types, "types");
+    return EntityFilterImpl.ANY.with(types);
+  }
+
+  /**
+   * Returns a new entity filter that also requires all the specified
+   * {@link ComponentType}s.
+   *
+   * @param types the component types
+   * @return a new entity filter
+   * @since 0.3.0
+   */
+  @NonNull EntityFilter with(final @NonNull ComponentType @NonNull ... types);
+
+  /**
+   * Returns a new entity filter that also requires none of the specified
+   * {@link ComponentType}s.
+   *
+   * @param types the component types
+   * @return a new entity filter
+   * @since 0.3.0
+   */
+  @NonNull EntityFilter without(final @NonNull ComponentType @NonNull ... types);
+
+  /**
+   * Returns a {@link Collection} of the {@link ComponentType}s an entity
+   * must have to match this filter.
+   *
+   * @return the required component types
+   * @since 0.3.0
+   */
+  @NonNull Collection<ComponentType> required();
+
+  /**
+   * Returns a {@link Collection} of the {@link ComponentType}s an entity
+   * must not have to match this filter.
+   *
+   * @return the excluded component types
+   * @since 0.3.0
+   */
+  @NonNull Collection<ComponentType> excluded();
+
+  /**
+   * Returns {@code true} if the entity at the specified index in the
+   * specified {@link Universe} matches this filter, otherwise
+   * {@code false}.
+   *
+   * @param universe the universe
+   * @param index the entity index
+   * @return whether the entity matches
+   * @since 0.3.0
+   */
+  boolean test(final @NonNull Universe universe, final @NonNegative int index);
+}
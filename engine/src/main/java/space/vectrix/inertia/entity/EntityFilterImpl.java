@@ -0,0 +1,98 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class EntityFilterImpl implements EntityFilter {
+  /* package */ static final EntityFilterImpl ANY = new EntityFilterImpl(Collections.emptyList(), Collections.emptyList());
+
+  private final List<ComponentType> required;
+  private final List<ComponentType> excluded;
+
+  /* package */ EntityFilterImpl(final @NonNull List<ComponentType> required, final @NonNull List<ComponentType> excluded) {
+    this.required = required;
+    this.excluded = excluded;
+  }
+
+  @Override
+  public @NonNull EntityFilter with(final @NonNull ComponentType @NonNull ... types) {
+    requireNonNull(types, "types");
+    return new EntityFilterImpl(EntityFilterImpl.append(this.required, types), this.excluded);
+  }
+
+  @Override
+  public @NonNull EntityFilter without(final @NonNull ComponentType @NonNull ... types) {
+    requireNonNull(types, "types");
+    return new EntityFilterImpl(this.required, EntityFilterImpl.append(this.excluded, types));
+  }
+
+  @Override
+  public @NonNull Collection<ComponentType> required() {
+    return this.required;
+  }
+
+  @Override
+  public @NonNull Collection<ComponentType> excluded() {
+    return this.excluded;
+  }
+
+  @Override
+  public boolean test(final @NonNull Universe universe, final @NonNegative int index) {
+    requireNonNull(universe, "universe");
+    if(universe.getEntity(index) == null) return false;
+    for(final ComponentType type : this.required) {
+      if(!universe.hasComponent(index, type)) return false;
+    }
+    for(final ComponentType type : this.excluded) {
+      if(universe.hasComponent(index, type)) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "EntityFilter{required=" + this.required + ", excluded=" + this.excluded + "}";
+  }
+
+  private static @NonNull List<ComponentType> append(final @NonNull List<ComponentType> existing, final @NonNull ComponentType @NonNull [] types) {
+    final List<ComponentType> result = new ArrayList<>(existing);
+    for(final ComponentType type : types) {
+      requireNonNull(type, "type");
+      if(!result.contains(type)) result.add(type);
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
@@ -24,11 +24,13 @@
  */
 package space.vectrix.inertia.entity;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import space.vectrix.inertia.Universe;
 import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.component.ComponentType;
 import space.vectrix.inertia.util.CustomIterator;
 
 import static java.util.Objects.requireNonNull;
@@ -36,9 +38,12 @@ import static java.util.Objects.requireNonNull;
 /**
  * A stash of entities.
  *
+ * <p>Stashes are tracked by the universe until they are closed, so should
+ * be closed when they are no longer used.</p>
+ *
  * @since 0.3.0
  */
-public interface EntityStash extends Iterable<Entity> {
+public interface EntityStash extends Iterable<Entity>, AutoCloseable {
   /**
    * Returns a new entity stash for the specified universe.
    *
@@ -49,9 +54,55 @@ public interface EntityStash extends Iterable<Entity> {
   static @NonNull EntityStash create(final @NonNull Universe universe) {
     requireNonNull(universe, "universe");
     final UniverseImpl internal = (UniverseImpl) universe;
-    return internal.addStash(new EntityStashImpl(universe));
+    final EntityStashImpl stash = new EntityStashImpl(internal);
+    return internal.addStash(stash, stash::purge);
+  }
+
+  /**
+   * Returns a new entity stash for the specified universe, backed by a
+   * bitset of entity indexes.
+   *
+   * <p>Bitset stashes are best suited to large stashes, and support fast
+   * set operations with other bitset stashes and component types.</p>
+   *
+   * @param universe the universe
+   * @return a new entity stash
+   * @since 0.3.0
+   */
+  static @NonNull EntityStash bitset(final @NonNull Universe universe) {
+    requireNonNull(universe, "universe");
+    final UniverseImpl internal = (UniverseImpl) universe;
+    final BitsetEntityStashImpl stash = new BitsetEntityStashImpl(internal);
+    return internal.addStash(stash, stash::purge);
+  }
+
+  /**
+   * Returns a new entity stash for the specified universe, containing the
+   * entities that match the specified {@link EntityFilter}.
+   *
+   * <p>The stash is kept up to date by the universe as entities and
+   * components are created and destroyed, and cannot be modified
+   * directly.</p>
+   *
+   * @param universe the universe
+   * @param filter the entity filter
+   * @return a new entity stash
+   * @since 0.3.0
+   */
+  static @NonNull EntityStash filtered(final @NonNull Universe universe, final @NonNull EntityFilter filter) {
+    requireNonNull(universe, "universe");
+    requireNonNull(filter, "filter");
+    return FilteredEntityStashImpl.create((UniverseImpl) universe, filter);
   }
 
+  /**
+   * Returns the {@code int} number of entities in this stash.
+   *
+   * @return the number of entities
+   * @since 0.3.0
+   */
+  @NonNegative int size();
+
   /**
    * Returns {@code true} if the specified entity index is present in this
    * stash, otherwise {@code false}.
@@ -142,6 +193,65 @@ public interface EntityStash extends Iterable<Entity> {
    */
   boolean remove(final @NonNegative int index);
 
+  /**
+   * Adds all the entities in the specified {@link EntityStash} to this
+   * stash.
+   *
+   * @param other the other stash
+   * @since 0.3.0
+   */
+  default void addAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IntIterator iterator = other.indexes();
+    while(iterator.hasNext()) this.add(iterator.nextInt());
+  }
+
+  /**
+   * Retains only the entities in this stash that are also in the specified
+   * {@link EntityStash}.
+   *
+   * @param other the other stash
+   * @since 0.3.0
+   */
+  default void retainAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IntIterator iterator = this.indexes();
+    while(iterator.hasNext()) {
+      if(!other.contains(iterator.nextInt())) iterator.remove();
+    }
+  }
+
+  /**
+   * Removes all the entities in this stash that are in the specified
+   * {@link EntityStash}.
+   *
+   * @param other the other stash
+   * @since 0.3.0
+   */
+  default void removeAll(final @NonNull EntityStash other) {
+    requireNonNull(other, "other");
+    final IntIterator iterator = other.indexes();
+    while(iterator.hasNext()) this.remove(iterator.nextInt());
+  }
+
+  /**
+   * Retains only the entities in this stash that have a component of the
+   * specified {@link ComponentType}.
+   *
+   * @param type the component type
+   * @since 0.3.0
+   */
+  void retainAll(final @NonNull ComponentType type);
+
+  /**
+   * Removes all the entities in this stash that have a component of the
+   * specified {@link ComponentType}.
+   *
+   * @param type the component type
+   * @since 0.3.0
+   */
+  void removeAll(final @NonNull ComponentType type);
+
   /**
    * Clears all the entities from this stash.
    *
@@ -149,6 +259,17 @@ public interface EntityStash extends Iterable<Entity> {
    */
   void clear();
 
+  /**
+   * Returns an {@link IntIterator} of the entity indexes in this stash.
+   *
+   * <p>Calling {@link IntIterator#remove()} will remove the entity
+   * from the stash and NOT the universe.</p>
+   *
+   * @return an iterator of entity indexes
+   * @since 0.3.0
+   */
+  @NonNull IntIterator indexes();
+
   /**
    * Returns a {@link CustomIterator} of {@link Entity}s of the specified
    * {@link Class} type in this universe.
@@ -174,4 +295,12 @@ public interface EntityStash extends Iterable<Entity> {
    */
   @Override
   @NonNull CustomIterator<Entity> iterator();
+
+  /**
+   * Closes this stash, clearing it and removing it from the universe.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
 }
@@ -24,22 +24,32 @@
  */
 package space.vectrix.inertia.entity;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import space.vectrix.flare.fastutil.Int2ObjectSyncMap;
-import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.component.ComponentType;
 import space.vectrix.inertia.util.CustomIterator;
+import space.vectrix.inertia.util.IndexSet;
+
+import static java.util.Objects.requireNonNull;
 
 /* package */ final class EntityStashImpl implements EntityStash {
   private final IntSet stash = Int2ObjectSyncMap.hashset();
-  private final Universe universe;
+  private final UniverseImpl universe;
 
-  /* package */ EntityStashImpl(final @NonNull Universe universe) {
+  /* package */ EntityStashImpl(final @NonNull UniverseImpl universe) {
     this.universe = universe;
   }
 
+  @Override
+  public @NonNegative int size() {
+    return this.stash.size();
+  }
+
   @Override
   public boolean contains(final @NonNegative int index) {
     return this.stash.contains(index);
@@ -67,11 +77,34 @@ import space.vectrix.inertia.util.CustomIterator;
     return this.stash.remove(index);
   }
 
+  @Override
+  public void retainAll(final @NonNull ComponentType type) {
+    requireNonNull(type, "type");
+    this.stash.removeIf(index -> !this.universe.hasComponent(index, type));
+  }
+
+  @Override
+  public void removeAll(final @NonNull ComponentType type) {
+    requireNonNull(type, "type");
+    this.stash.removeIf(index -> this.universe.hasComponent(index, type));
+  }
+
   @Override
   public void clear() {
     this.stash.clear();
   }
 
+  @Override
+  public void close() {
+    this.universe.removeStash(this);
+    this.stash.clear();
+  }
+
+  @Override
+  public @NonNull IntIterator indexes() {
+    return this.stash.iterator();
+  }
+
   @Override
   public @NonNull <T extends Entity> CustomIterator<T> iterator(final @NonNull Class<? super T> type) {
     return CustomIterator.of(
@@ -89,4 +122,16 @@ import space.vectrix.inertia.util.CustomIterator;
       entity -> this.remove(entity.index())
     );
   }
+
+  /* package */ void purge(final @NonNull IndexSet destroyed) {
+    if(this.stash.size() <= destroyed.size()) {
+      final IntIterator iterator = this.stash.iterator();
+      while(iterator.hasNext()) {
+        if(destroyed.contains(iterator.nextInt())) iterator.remove();
+      }
+    } else {
+      final IntIterator iterator = destroyed.iterator();
+      while(iterator.hasNext()) this.stash.remove(iterator.nextInt());
+    }
+  }
 }
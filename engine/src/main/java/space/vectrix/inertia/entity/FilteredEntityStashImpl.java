@@ -0,0 +1,196 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntIterators;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.util.CustomIterator;
+import space.vectrix.inertia.util.IndexSet;
+
+/* package */ final class FilteredEntityStashImpl implements EntityStash, UniverseListener {
+  /* package */ final IndexSet stash = new IndexSet();
+  private final UniverseImpl universe;
+  private final EntityFilter filter;
+  private final IndexSet[] required;
+  private final IndexSet[] excluded;
+  private final IndexSet types = new IndexSet();
+
+  /* package */ FilteredEntityStashImpl(final @NonNull UniverseImpl universe, final @NonNull EntityFilter filter) {
+    this.universe = universe;
+    this.filter = filter;
+    this.required = filter.required().stream().map(universe::members).toArray(IndexSet[]::new);
+    this.excluded = filter.excluded().stream().map(universe::members).toArray(IndexSet[]::new);
+    for(final ComponentType type : filter.required()) this.types.add(type.index());
+    for(final ComponentType type : filter.excluded()) this.types.add(type.index());
+  }
+
+  /* package */ static @NonNull EntityStash create(final @NonNull UniverseImpl universe, final @NonNull EntityFilter filter) {
+    Universe.checkActive(universe);
+    final FilteredEntityStashImpl stash = new FilteredEntityStashImpl(universe, filter);
+    universe.addListener(stash);
+    universe.addStash(stash, stash::purge);
+    stash.populate();
+    return stash;
+  }
+
+  @Override
+  public @NonNegative int size() {
+    return this.stash.size();
+  }
+
+  @Override
+  public boolean contains(final @NonNegative int index) {
+    return this.stash.contains(index);
+  }
+
+  @Override
+  public @Nullable Entity get(final @NonNegative int index) {
+    if(!this.stash.contains(index)) return null;
+    return this.universe.getEntity(index);
+  }
+
+  @Override
+  public <T extends Entity> @Nullable T get(final @NonNegative int index, final @NonNull Class<T> target) {
+    if(!this.stash.contains(index)) return null;
+    return this.universe.getEntity(index, target);
+  }
+
+  @Override
+  public boolean add(final @NonNegative int index) {
+    throw new UnsupportedOperationException("Filtered stashes are maintained by the universe!");
+  }
+
+  @Override
+  public boolean remove(final @NonNegative int index) {
+    throw new UnsupportedOperationException("Filtered stashes are maintained by the universe!");
+  }
+
+  @Override
+  public void retainAll(final @NonNull ComponentType type) {
+    throw new UnsupportedOperationException("Filtered stashes are maintained by the universe!");
+  }
+
+  @Override
+  public void removeAll(final @NonNull ComponentType type) {
+    throw new UnsupportedOperationException("Filtered stashes are maintained by the universe!");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Filtered stashes are maintained by the universe!");
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+    this.universe.removeStash(this);
+    this.stash.clear();
+  }
+
+  @Override
+  public @NonNull IntIterator indexes() {
+    return IntIterators.unmodifiable(this.stash.iterator());
+  }
+
+  @Override
+  public @NonNull <T extends Entity> CustomIterator<T> iterator(final @NonNull Class<? super T> type) {
+    return CustomIterator.of(
+      this.stash.iterator(),
+      index -> this.universe.getEntity(index, type)
+    );
+  }
+
+  @Override
+  public @NonNull CustomIterator<Entity> iterator() {
+    return CustomIterator.of(
+      this.stash.iterator(),
+      this.universe::getEntity
+    );
+  }
+
+  @Override
+  public void entityCreated(final @NonNull Entity entity) {
+    this.update(entity.index());
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(this.types.contains(type.index())) this.update(entity);
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    // Destroyed entities are purged in bulk by the universe.
+    if(this.types.contains(type.index()) && this.universe.getEntity(entity) != null) this.update(entity);
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "FilteredEntityStash{filter=" + this.filter + ", size=" + this.stash.size() + "}";
+  }
+
+  /* package */ void purge(final @NonNull IndexSet destroyed) {
+    this.stash.removeAll(destroyed);
+  }
+
+  private void populate() {
+    final IndexSet indexes = new IndexSet();
+    if(this.required.length > 0) {
+      indexes.addAll(this.required[0]);
+      for(int i = 1; i < this.required.length; i++) indexes.retainAll(this.required[i]);
+    } else {
+      final CustomIterator<Entity> iterator = this.universe.entities();
+      while(iterator.hasNext()) indexes.add(iterator.next().index());
+    }
+    for(final IndexSet excluded : this.excluded) indexes.removeAll(excluded);
+    this.stash.addAll(indexes);
+  }
+
+  private void update(final @NonNegative int entity) {
+    if(this.matches(entity)) {
+      this.stash.add(entity);
+    } else {
+      this.stash.remove(entity);
+    }
+  }
+
+  private boolean matches(final @NonNegative int entity) {
+    if(this.universe.getEntity(entity) == null) return false;
+    for(final IndexSet required : this.required) {
+      if(!required.contains(entity)) return false;
+    }
+    for(final IndexSet excluded : this.excluded) {
+      if(excluded.contains(entity)) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents a template for creating entities with the same components
+ * and initial component state.
+ *
+ * @since 0.3.0
+ */
+public interface Prefab {
+  /**
+   * Returns a new {@link Prefab} for the specified {@link Universe}, with
+   * the specified {@link ComponentType}s.
+   *
+   * @param universe the universe
+   * @param types the component types
+   * @return a new prefab
+   * @throws IllegalArgumentException if a component type is specified more than once
+   * @since 0.3.0
+   */
+  static @NonNull Prefab create(final @NonNull Universe universe, final @NonNull ComponentType @NonNull ... types) {
+    requireNonNull(universe, "universe");
+    requireNonNull(types, "types");
+    return new PrefabImpl((UniverseImpl) universe, types);
+  }
+
+  /**
+   * Returns an unmodifiable {@link List} of the {@link ComponentType}s for
+   * this prefab.
+   *
+   * @return the component types
+   * @since 0.3.0
+   */
+  @NonNull List<ComponentType> types();
+
+  /**
+   * Sets the initial state of the components for the specified
+   * {@link ComponentType} to the state of the specified {@code T}
+   * template, using the {@link ComponentCodec}.
+   *
+   * <p>The template is encoded once, then decoded into each created
+   * component. Tags have no state, so they cannot be templated.</p>
+   *
+   * @param type the component type
+   * @param codec the component codec
+   * @param template the template component
+   * @param <T> the component type
+   * @throws IOException if the template could not be encoded
+   * @throws IllegalArgumentException if the type is not part of this prefab or is a tag
+   * @since 0.3.0
+   */
+  <T> void template(final @NonNull ComponentType type, final @NonNull ComponentCodec<T> codec, final @NonNull T template) throws IOException;
+
+  /**
+   * Returns a new {@link Entity} created from this prefab.
+   *
+   * @return the new entity
+   * @throws IllegalStateException if a template could not be decoded
+   * @since 0.3.0
+   */
+  @NonNull Entity spawn();
+
+  /**
+   * Creates the specified {@code int} count of new entities from this
+   * prefab, and returns the {@code int} index of the first.
+   *
+   * <p>The entities are created with a contiguous range of indexes, from
+   * the returned index to the returned index plus the count, exclusive.
+   * If a template could not be decoded, no entity is created.</p>
+   *
+   * @param count the number of entities
+   * @return the first entity index
+   * @throws IllegalStateException if a template could not be decoded
+   * @since 0.3.0
+   */
+  @NonNegative int spawn(final @NonNegative int count);
+}
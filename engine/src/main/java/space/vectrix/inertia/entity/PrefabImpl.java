@@ -0,0 +1,133 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.entity;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class PrefabImpl implements Prefab {
+  private final UniverseImpl universe;
+  private final ComponentType[] types;
+  private final List<ComponentType> typeList;
+
+  private volatile @Nullable Template @NonNull [] templates;
+
+  /* package */ PrefabImpl(final @NonNull UniverseImpl universe, final @NonNull ComponentType @NonNull [] types) {
+    this.universe = universe;
+    this.types = types.clone();
+    for(int t = 0; t < this.types.length; t++) {
+      final ComponentType type = requireNonNull(this.types[t], "type");
+      universe.members(type);
+      for(int u = 0; u < t; u++) {
+        if(this.types[u].equals(type)) throw new IllegalArgumentException("Component type '" + type.id() + "' is specified more than once!");
+      }
+    }
+    this.typeList = Collections.unmodifiableList(Arrays.asList(this.types));
+    this.templates = new Template[this.types.length];
+  }
+
+  @Override
+  public @NonNull List<ComponentType> types() {
+    return this.typeList;
+  }
+
+  @Override
+  public synchronized <T> void template(final @NonNull ComponentType type, final @NonNull ComponentCodec<T> codec, final @NonNull T template) throws IOException {
+    requireNonNull(type, "type");
+    requireNonNull(codec, "codec");
+    requireNonNull(template, "template");
+    for(int i = 0; i < this.types.length; i++) {
+      if(!this.types[i].equals(type)) continue;
+      if(type.tag()) throw new IllegalArgumentException("Component type '" + type.id() + "' is a tag and has no state!");
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      codec.encode(template, new DataOutputStream(bytes));
+      // Templates are published as a new array, so spawning never observes
+      // a partially updated template.
+      final Template[] templates = this.templates.clone();
+      templates[i] = new Template(codec, bytes.toByteArray());
+      this.templates = templates;
+      return;
+    }
+    throw new IllegalArgumentException("Component type '" + type.id() + "' is not part of this prefab!");
+  }
+
+  @Override
+  public @NonNull Entity spawn() {
+    final Entity entity = this.universe.getEntity(this.spawn(1));
+    if(entity == null) throw new IllegalStateException("Spawned entity does not exist!");
+    return entity;
+  }
+
+  @Override
+  public @NonNegative int spawn(final @NonNegative int count) {
+    final Template[] templates = this.templates;
+    return this.universe.createEntities(count, Entity.simple(), this.types, (component, position) -> this.initialize(templates, component, position));
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "Prefab{types=" + this.typeList + "}";
+  }
+
+  private void initialize(final @Nullable Template @NonNull [] templates, final @NonNull Object component, final @NonNegative int position) {
+    final Template template = templates[position];
+    if(template == null) return;
+    try {
+      template.decode(component);
+    } catch(final IOException exception) {
+      throw new IllegalStateException("Unable to initialize component '" + this.types[position].id() + "'.", exception);
+    }
+  }
+
+  /* package */ static final class Template {
+    private final ComponentCodec<?> codec;
+    private final byte[] data;
+
+    /* package */ Template(final @NonNull ComponentCodec<?> codec, final byte @NonNull [] data) {
+      this.codec = codec;
+      this.data = data;
+    }
+
+    @SuppressWarnings("unchecked")
+    /* package */ void decode(final @NonNull Object component) throws IOException {
+      ((ComponentCodec<Object>) this.codec).decode(component, new DataInputStream(new ByteArrayInputStream(this.data)));
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.index;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A secondary index of the entities with a {@link ComponentType}, by a
+ * key extracted from the component.
+ *
+ * <p>The index is maintained incrementally, an entity is indexed when the
+ * component is added, re-keyed when the component is marked with
+ * {@link Universe#markChanged} and removed with the component or entity.
+ * Keys modified without marking the component can be updated with
+ * {@link #update(int)}. Components with a {@code null} key are not
+ * indexed.</p>
+ *
+ * @param <T> the component type
+ * @param <K> the key type
+ * @since 0.3.0
+ */
+public interface ComponentIndex<T, K> extends AutoCloseable {
+  /**
+   * Returns a new hashed {@link ComponentIndex} of the specified
+   * {@link ComponentType} in the {@link Universe}, by the key from the
+   * {@link Function}.
+   *
+   * <p>Lookups by key are {@code O(1)}.</p>
+   *
+   * @param universe the universe
+   * @param type the component type
+   * @param key the key function
+   * @param <T> the component type
+   * @param <K> the key type
+   * @return a new component index
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static <T, K> @NonNull ComponentIndex<T, K> hash(final @NonNull Universe universe, final @NonNull ComponentType type,
+                                                   final @NonNull Function<T, K> key) {
+    Universe.checkActive(universe);
+    requireNonNull(type, "type");
+    requireNonNull(key, "key");
+    return new ComponentIndexImpl<>(universe, type, key, new HashMap<>());
+  }
+
+  /**
+   * Returns a new sorted {@link ComponentIndex} of the specified
+   * {@link ComponentType} in the {@link Universe}, by the key from the
+   * {@link Function} ordered by the {@link Comparator}.
+   *
+   * <p>Lookups by key and range are {@code O(log n)}.</p>
+   *
+   * @param universe the universe
+   * @param type the component type
+   * @param key the key function
+   * @param comparator the key comparator
+   * @param <T> the component type
+   * @param <K> the key type
+   * @return a new sorted component index
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static <T, K> @NonNull Sorted<T, K> sorted(final @NonNull Universe universe, final @NonNull ComponentType type,
+                                             final @NonNull Function<T, K> key, final @NonNull Comparator<? super K> comparator) {
+    Universe.checkActive(universe);
+    requireNonNull(type, "type");
+    requireNonNull(key, "key");
+    requireNonNull(comparator, "comparator");
+    return new SortedComponentIndexImpl<>(new ComponentIndexImpl<>(universe, type, key, new TreeMap<>(comparator)));
+  }
+
+  /**
+   * Returns the {@link ComponentType} of this index.
+   *
+   * @return the component type
+   * @since 0.3.0
+   */
+  @NonNull ComponentType type();
+
+  /**
+   * Returns the {@code int} number of distinct keys in this index.
+   *
+   * @return the number of keys
+   * @since 0.3.0
+   */
+  @NonNegative int size();
+
+  /**
+   * Returns the {@code int} number of entities with the specified
+   * {@code K} key.
+   *
+   * @param key the key
+   * @return the number of entities
+   * @since 0.3.0
+   */
+  @NonNegative int count(final @NonNull K key);
+
+  /**
+   * Returns an {@code int} entity index with the specified {@code K} key,
+   * or {@code -1} if there are none.
+   *
+   * <p>When several entities share the key, which one is returned is
+   * unspecified, including for sorted indexes. Use
+   * {@link #forEach(Object, IntConsumer)} to visit all of them.</p>
+   *
+   * @param key the key
+   * @return an entity index, or -1
+   * @since 0.3.0
+   */
+  int first(final @NonNull K key);
+
+  /**
+   * Performs the {@link IntConsumer} for each entity index with the
+   * specified {@code K} key.
+   *
+   * <p>The entities are collected before the consumer is performed, so it
+   * may modify or re-key them.</p>
+   *
+   * @param key the key
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void forEach(final @NonNull K key, final @NonNull IntConsumer consumer);
+
+  /**
+   * Updates the key of the specified {@code int} entity index from its
+   * component, or removes it if it no longer has one.
+   *
+   * @param entity the entity index
+   * @since 0.3.0
+   */
+  void update(final @NonNegative int entity);
+
+  /**
+   * Stops maintaining this index.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+
+  /**
+   * A {@link ComponentIndex} ordered by key.
+   *
+   * @param <T> the component type
+   * @param <K> the key type
+   * @since 0.3.0
+   */
+  interface Sorted<T, K> extends ComponentIndex<T, K> {
+    /**
+     * Performs the {@link IntConsumer} for each entity index with a key
+     * from the {@code K} inclusive lower bound to the {@code K} exclusive
+     * upper bound, in key order.
+     *
+     * <p>The entities are collected before the consumer is performed, so it
+     * may modify or re-key them.</p>
+     *
+     * @param from the lower bound
+     * @param to the upper bound
+     * @param consumer the entity consumer
+     * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+     * @since 0.3.0
+     */
+    void range(final @NonNull K from, final @NonNull K to, final @NonNull IntConsumer consumer);
+  }
+}
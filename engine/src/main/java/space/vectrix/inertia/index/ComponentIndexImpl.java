@@ -0,0 +1,176 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.index;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class ComponentIndexImpl<T, K> implements ComponentIndex<T, K>, UniverseListener {
+  private final Universe universe;
+  private final ComponentType type;
+  private final Function<T, K> key;
+  private final Map<K, IntSet> entries;
+  private final Int2ObjectMap<K> keys = new Int2ObjectOpenHashMap<>();
+  private final Object lock = new Object();
+
+  /* package */ ComponentIndexImpl(final @NonNull Universe universe, final @NonNull ComponentType type, final @NonNull Function<T, K> key,
+                                   final @NonNull Map<K, IntSet> entries) {
+    this.universe = universe;
+    this.type = type;
+    this.key = key;
+    this.entries = entries;
+    for(final Iterator<Entity> iterator = universe.entities(); iterator.hasNext(); ) this.update(iterator.next().index());
+    universe.addListener(this);
+  }
+
+  @Override
+  public @NonNull ComponentType type() {
+    return this.type;
+  }
+
+  @Override
+  public @NonNegative int size() {
+    synchronized(this.lock) {
+      return this.entries.size();
+    }
+  }
+
+  @Override
+  public @NonNegative int count(final @NonNull K key) {
+    requireNonNull(key, "key");
+    synchronized(this.lock) {
+      final IntSet entities = this.entries.get(key);
+      return entities != null ? entities.size() : 0;
+    }
+  }
+
+  @Override
+  public int first(final @NonNull K key) {
+    requireNonNull(key, "key");
+    synchronized(this.lock) {
+      final IntSet entities = this.entries.get(key);
+      return entities != null ? entities.iterator().nextInt() : -1;
+    }
+  }
+
+  @Override
+  public void forEach(final @NonNull K key, final @NonNull IntConsumer consumer) {
+    requireNonNull(key, "key");
+    requireNonNull(consumer, "consumer");
+    // The matches are copied before the consumer is performed, as it may
+    // re-key them, which modifies the entries being iterated.
+    final int[] matches;
+    synchronized(this.lock) {
+      final IntSet entities = this.entries.get(key);
+      if(entities == null) return;
+      matches = entities.toIntArray();
+    }
+    for(final int entity : matches) consumer.accept(entity);
+  }
+
+  /* package */ void range(final @NonNull K from, final @NonNull K to, final @NonNull IntConsumer consumer) {
+    final IntArrayList matches = new IntArrayList();
+    synchronized(this.lock) {
+      // Only sorted indexes call this, which are always backed by a navigable map.
+      final NavigableMap<K, IntSet> entries = (NavigableMap<K, IntSet>) this.entries;
+      if(entries.comparator().compare(from, to) > 0) throw new IllegalArgumentException("Lower bound must not be greater than the upper bound!");
+      for(final IntSet entities : entries.subMap(from, true, to, false).values()) matches.addAll(entities);
+    }
+    matches.forEach(consumer);
+  }
+
+  @Override
+  public void update(final @NonNegative int entity) {
+    final T component = this.universe.getComponent(entity, this.type);
+    final K key = component != null ? this.key.apply(component) : null;
+    synchronized(this.lock) {
+      final K previous = this.keys.get(entity);
+      if(previous != null && Objects.equals(previous, key)) return;
+      if(previous != null) this.unlink(entity, previous);
+      if(key != null) {
+        this.keys.put(entity, key);
+        this.entries.computeIfAbsent(key, ignored -> new IntOpenHashSet(2)).add(entity);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    this.remove(entity);
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.update(entity);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.update(entity);
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.remove(entity);
+  }
+
+  private void remove(final @NonNegative int entity) {
+    synchronized(this.lock) {
+      final K previous = this.keys.get(entity);
+      if(previous != null) this.unlink(entity, previous);
+    }
+  }
+
+  private void unlink(final @NonNegative int entity, final @NonNull K key) {
+    this.keys.remove(entity);
+    final IntSet entities = this.entries.get(key);
+    if(entities == null) return;
+    entities.remove(entity);
+    if(entities.isEmpty()) this.entries.remove(key);
+  }
+}
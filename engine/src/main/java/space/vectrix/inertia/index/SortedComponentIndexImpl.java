@@ -0,0 +1,84 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.index;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class SortedComponentIndexImpl<T, K> implements ComponentIndex.Sorted<T, K> {
+  private final ComponentIndexImpl<T, K> index;
+
+  /* package */ SortedComponentIndexImpl(final @NonNull ComponentIndexImpl<T, K> index) {
+    this.index = index;
+  }
+
+  @Override
+  public @NonNull ComponentType type() {
+    return this.index.type();
+  }
+
+  @Override
+  public @NonNegative int size() {
+    return this.index.size();
+  }
+
+  @Override
+  public @NonNegative int count(final @NonNull K key) {
+    return this.index.count(key);
+  }
+
+  @Override
+  public int first(final @NonNull K key) {
+    return this.index.first(key);
+  }
+
+  @Override
+  public void forEach(final @NonNull K key, final @NonNull IntConsumer consumer) {
+    this.index.forEach(key, consumer);
+  }
+
+  @Override
+  public void range(final @NonNull K from, final @NonNull K to, final @NonNull IntConsumer consumer) {
+    requireNonNull(from, "from");
+    requireNonNull(to, "to");
+    requireNonNull(consumer, "consumer");
+    this.index.range(from, to, consumer);
+  }
+
+  @Override
+  public void update(final @NonNegative int entity) {
+    this.index.update(entity);
+  }
+
+  @Override
+  public void close() {
+    this.index.close();
+  }
+}
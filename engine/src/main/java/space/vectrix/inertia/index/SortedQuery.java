@@ -0,0 +1,131 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.index;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A query of the entities with a {@link ComponentType}, ordered by a key
+ * extracted from the component.
+ *
+ * <p>The order is maintained lazily. Entities whose component was added,
+ * marked with {@link Universe#markChanged} or removed are only re-sorted
+ * the next time the query is read, by sorting just those entities and
+ * merging them into the existing order. Entities with equal keys are
+ * ordered by entity index, so the order is stable across ticks.</p>
+ *
+ * <p>Keys are cached when an entity is sorted. Keys modified without
+ * marking the component can be refreshed with {@link #update(int)}.</p>
+ *
+ * @param <T> the component type
+ * @param <K> the key type
+ * @since 0.3.0
+ */
+public interface SortedQuery<T, K> extends AutoCloseable {
+  /**
+   * Returns a new {@link SortedQuery} of the specified {@link ComponentType}
+   * in the {@link Universe}, ordered by the key from the {@link Function}
+   * with the {@link Comparator}.
+   *
+   * @param universe the universe
+   * @param type the component type
+   * @param key the key function
+   * @param comparator the key comparator
+   * @param <T> the component type
+   * @param <K> the key type
+   * @return a new sorted query
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static <T, K> @NonNull SortedQuery<T, K> create(final @NonNull Universe universe, final @NonNull ComponentType type,
+                                                  final @NonNull Function<T, K> key, final @NonNull Comparator<? super K> comparator) {
+    Universe.checkActive(universe);
+    requireNonNull(type, "type");
+    requireNonNull(key, "key");
+    requireNonNull(comparator, "comparator");
+    return new SortedQueryImpl<>(universe, type, key, comparator);
+  }
+
+  /**
+   * Returns the {@link ComponentType} of this query.
+   *
+   * @return the component type
+   * @since 0.3.0
+   */
+  @NonNull ComponentType type();
+
+  /**
+   * Returns the {@code int} number of entities in this query.
+   *
+   * @return the number of entities
+   * @since 0.3.0
+   */
+  @NonNegative int size();
+
+  /**
+   * Performs the {@link IntConsumer} for each entity index in this query,
+   * in key order.
+   *
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void forEach(final @NonNull IntConsumer consumer);
+
+  /**
+   * Writes the entity indexes in this query into the {@code int} array,
+   * in key order, and returns the number written.
+   *
+   * @param output the output array
+   * @return the number of entities written
+   * @since 0.3.0
+   */
+  @NonNegative int entities(final int @NonNull [] output);
+
+  /**
+   * Marks the specified {@code int} entity index to be re-sorted by its
+   * current key on the next read.
+   *
+   * @param entity the entity index
+   * @since 0.3.0
+   */
+  void update(final @NonNegative int entity);
+
+  /**
+   * Stops maintaining this query.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+}
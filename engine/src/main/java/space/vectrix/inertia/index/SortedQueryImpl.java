@@ -0,0 +1,185 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.index;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class SortedQueryImpl<T, K> implements SortedQuery<T, K>, UniverseListener {
+  private final Universe universe;
+  private final ComponentType type;
+  private final Function<T, K> key;
+  private final Comparator<? super K> comparator;
+  private final Int2ObjectMap<K> keys = new Int2ObjectOpenHashMap<>();
+  private final IntSet dirty = new IntOpenHashSet();
+  private final Object lock = new Object();
+
+  private int[] order = new int[16];
+  private int[] scratch = new int[16];
+  private int size;
+
+  /* package */ SortedQueryImpl(final @NonNull Universe universe, final @NonNull ComponentType type, final @NonNull Function<T, K> key,
+                                final @NonNull Comparator<? super K> comparator) {
+    this.universe = universe;
+    this.type = type;
+    this.key = key;
+    this.comparator = comparator;
+    for(final Iterator<Entity> iterator = universe.entities(); iterator.hasNext(); ) {
+      final Entity entity = iterator.next();
+      if(universe.hasComponent(entity, type)) this.dirty.add(entity.index());
+    }
+    universe.addListener(this);
+  }
+
+  @Override
+  public @NonNull ComponentType type() {
+    return this.type;
+  }
+
+  @Override
+  public @NonNegative int size() {
+    synchronized(this.lock) {
+      this.sort();
+      return this.size;
+    }
+  }
+
+  @Override
+  public void forEach(final @NonNull IntConsumer consumer) {
+    requireNonNull(consumer, "consumer");
+    synchronized(this.lock) {
+      this.sort();
+      for(int i = 0; i < this.size; i++) consumer.accept(this.order[i]);
+    }
+  }
+
+  @Override
+  public @NonNegative int entities(final int @NonNull [] output) {
+    requireNonNull(output, "output");
+    synchronized(this.lock) {
+      this.sort();
+      final int count = Math.min(output.length, this.size);
+      System.arraycopy(this.order, 0, output, 0, count);
+      return count;
+    }
+  }
+
+  @Override
+  public void update(final @NonNegative int entity) {
+    synchronized(this.lock) {
+      this.dirty.add(entity);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    this.update(entity);
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.update(entity);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.update(entity);
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.update(entity);
+  }
+
+  private void sort() {
+    if(this.dirty.isEmpty()) return;
+    // 1. Remove the dirty entities from the order, keeping the rest sorted.
+    int kept = 0;
+    for(int i = 0; i < this.size; i++) {
+      final int entity = this.order[i];
+      if(!this.dirty.contains(entity)) this.order[kept++] = entity;
+    }
+    // 2. Re-key the dirty entities that are still present.
+    if(this.scratch.length < this.dirty.size()) this.scratch = new int[this.dirty.size()];
+    int changed = 0;
+    for(final IntIterator iterator = this.dirty.iterator(); iterator.hasNext(); ) {
+      final int entity = iterator.nextInt();
+      final T component = this.universe.getComponent(entity, this.type);
+      final K key = component != null ? this.key.apply(component) : null;
+      if(key == null) {
+        this.keys.remove(entity);
+        continue;
+      }
+      this.keys.put(entity, key);
+      this.scratch[changed++] = entity;
+    }
+    this.dirty.clear();
+    // 3. Sort only the dirty entities, then merge them into the order from
+    // the back, so no temporary array is needed.
+    IntArrays.quickSort(this.scratch, 0, changed, this::compare);
+    if(this.order.length < kept + changed) {
+      final int[] order = new int[Math.max(kept + changed, this.order.length * 2)];
+      System.arraycopy(this.order, 0, order, 0, kept);
+      this.order = order;
+    }
+    int left = kept - 1;
+    int right = changed - 1;
+    for(int i = kept + changed - 1; right >= 0; i--) {
+      if(left >= 0 && this.compare(this.order[left], this.scratch[right]) > 0) {
+        this.order[i] = this.order[left--];
+      } else {
+        this.order[i] = this.scratch[right--];
+      }
+    }
+    this.size = kept + changed;
+  }
+
+  private int compare(final int first, final int second) {
+    final int result = this.comparator.compare(this.keys.get(first), this.keys.get(second));
+    return result != 0 ? result : Integer.compare(first, second);
+  }
+}
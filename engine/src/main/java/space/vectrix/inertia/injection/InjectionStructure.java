@@ -26,7 +26,11 @@ package space.vectrix.inertia.injection;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -43,6 +47,26 @@ public interface InjectionStructure {
    */
   @NonNull Map<Class<?>, Entry> injectors();
 
+  /**
+   * Returns a {@link Collection} of query injectors.
+   *
+   * @return a collection of query injectors
+   * @since 0.3.0
+   */
+  default @NonNull Collection<QueryEntry> queries() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns a {@link Collection} of resource injectors.
+   *
+   * @return a collection of resource injectors
+   * @since 0.3.0
+   */
+  default @NonNull Collection<ResourceEntry> resources() {
+    return Collections.emptyList();
+  }
+
   /**
    * A dependency structure entry.
    *
@@ -66,6 +90,62 @@ public interface InjectionStructure {
     @NonNull InjectionTarget target();
   }
 
+  /**
+   * A query structure entry.
+   *
+   * @since 0.3.0
+   */
+  interface QueryEntry {
+    /**
+     * Returns the {@link Query} annotation.
+     *
+     * @return the query annotation
+     * @since 0.3.0
+     */
+    @NonNull Query annotation();
+
+    /**
+     * Returns the {@link InjectionTarget} for the query.
+     *
+     * @return the injection target
+     * @since 0.3.0
+     */
+    @NonNull InjectionTarget target();
+  }
+
+  /**
+   * A {@link Resource} structure entry.
+   *
+   * @since 0.3.0
+   */
+  interface ResourceEntry {
+    /**
+     * Returns the {@link Class} type of the resource.
+     *
+     * @return the resource type
+     * @since 0.3.0
+     */
+    @NonNull Class<?> type();
+
+    /**
+     * Returns {@code true} if the system writes the resource, otherwise
+     * {@code false}.
+     *
+     * @return whether the resource is written
+     * @see Resource#write()
+     * @since 0.3.0
+     */
+    boolean write();
+
+    /**
+     * Returns the {@link InjectionTarget} for the resource.
+     *
+     * @return the injection target
+     * @since 0.3.0
+     */
+    @NonNull InjectionTarget target();
+  }
+
   /**
    * The factory for creating {@link InjectionStructure}.
    *
@@ -0,0 +1,179 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.journal;
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFunction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A write-ahead journal of the structural changes in a {@link Universe}.
+ *
+ * <p>Entity creation and destruction, and component additions, removals and
+ * changes are appended to a local file in checksummed batches at the end of
+ * each tick. The journal is periodically compacted into a base snapshot, so
+ * the universe can be recovered after a crash by loading the snapshot and
+ * replaying the batches written since.</p>
+ *
+ * <p>Component state is only written for component classes with a registered
+ * {@link ComponentCodec}, otherwise only the presence of the component is
+ * journaled. Restored entities are created with the {@link EntityFunction}
+ * the journal was created with, {@link Entity#simple()} by default.</p>
+ *
+ * @since 0.3.0
+ */
+public interface Journal extends Closeable {
+  /**
+   * Returns a new journal for the specified {@link Universe}, stored in
+   * the specified {@link Path} directory.
+   *
+   * @param universe the universe
+   * @param directory the journal directory
+   * @return a new journal
+   * @since 0.3.0
+   */
+  static @NonNull Journal create(final @NonNull Universe universe, final @NonNull Path directory) {
+    return Journal.create(universe, directory, 1200);
+  }
+
+  /**
+   * Returns a new journal for the specified {@link Universe}, stored in
+   * the specified {@link Path} directory, compacted after the specified
+   * {@code int} number of ticks.
+   *
+   * @param universe the universe
+   * @param directory the journal directory
+   * @param compaction the ticks between compactions
+   * @return a new journal
+   * @since 0.3.0
+   */
+  static @NonNull Journal create(final @NonNull Universe universe, final @NonNull Path directory, final @Positive int compaction) {
+    return Journal.create(universe, directory, compaction, Entity.simple());
+  }
+
+  /**
+   * Returns a new journal for the specified {@link Universe}, stored in
+   * the specified {@link Path} directory, compacted after the specified
+   * {@code int} number of ticks, that restores entities with the specified
+   * {@link EntityFunction}.
+   *
+   * @param universe the universe
+   * @param directory the journal directory
+   * @param compaction the ticks between compactions
+   * @param function the entity function
+   * @return a new journal
+   * @since 0.3.0
+   */
+  static @NonNull Journal create(final @NonNull Universe universe, final @NonNull Path directory, final @Positive int compaction,
+                                 final @NonNull EntityFunction<?> function) {
+    requireNonNull(universe, "universe");
+    requireNonNull(directory, "directory");
+    requireNonNull(function, "function");
+    if(compaction <= 0) throw new IllegalArgumentException("Compaction interval must be positive!");
+    return new JournalImpl(universe, directory, compaction, function);
+  }
+
+  /**
+   * Registers the {@link ComponentCodec} used to journal the state of
+   * components of the specified {@link Class}.
+   *
+   * <p>Codecs should be registered before the journal is opened.</p>
+   *
+   * @param type the component class
+   * @param codec the component codec
+   * @param <T> the component type
+   * @since 0.3.0
+   */
+  <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec);
+
+  /**
+   * Opens this journal, restoring the universe from any existing snapshot
+   * and journaled batches, then begins recording structural changes.
+   *
+   * <p>Component types referenced by the journal that are not resolved in
+   * the universe are resolved by their {@link Component#id()} from its
+   * {@link ComponentTypeRegistry}, otherwise by the component class name
+   * journaled with them, so they need not be created beforehand.</p>
+   *
+   * @throws IOException if the journal could not be restored
+   * @throws IllegalStateException if the journal is already open
+   * @since 0.3.0
+   */
+  void open() throws IOException;
+
+  /**
+   * Returns {@code true} if this journal is recording structural changes,
+   * otherwise {@code false}.
+   *
+   * @return whether the journal is recording
+   * @since 0.3.0
+   */
+  boolean recording();
+
+  /**
+   * Writes the pending structural changes as a batch to the journal and
+   * forces it to the storage device.
+   *
+   * <p>This is called automatically at the end of every tick, so a failure
+   * to journal a change is reported in the {@link Universe.Tick#errors()}.
+   * The journal is compacted in place of an incomplete batch.</p>
+   *
+   * @throws IOException if the batch could not be written
+   * @since 0.3.0
+   */
+  void flush() throws IOException;
+
+  /**
+   * Writes the current state of the universe as the base snapshot and
+   * truncates the journaled batches.
+   *
+   * <p>This is called automatically at the configured tick interval, and
+   * should otherwise only be called between ticks.</p>
+   *
+   * @throws IOException if the snapshot could not be written
+   * @since 0.3.0
+   */
+  void compact() throws IOException;
+
+  /**
+   * Flushes the pending structural changes and stops recording.
+   *
+   * @throws IOException if the batch could not be written
+   * @since 0.3.0
+   */
+  @Override
+  void close() throws IOException;
+}
@@ -0,0 +1,438 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.journal;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.flare.SyncMap;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFunction;
+import space.vectrix.inertia.util.Blocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class JournalImpl implements Journal, UniverseListener {
+  private static final int BATCH_MAGIC = 0x494A424C;
+  private static final int SNAPSHOT_MAGIC = 0x494A534E;
+
+  private static final byte CREATE = 0;
+  private static final byte DESTROY = 1;
+  private static final byte ADD = 2;
+  private static final byte REMOVE = 3;
+  private static final byte DATA = 4;
+  private static final byte TYPE = 5;
+
+  private final Map<Class<?>, ComponentCodec<?>> codecs = SyncMap.hashmap();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+  private final DataOutputStream output = new DataOutputStream(this.buffer);
+  private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+  private final ByteArrayOutputStream block = new ByteArrayOutputStream(1024);
+  private final LongSet dirty = new LongLinkedOpenHashSet();
+  private final Set<String> definedTypes = new HashSet<>();
+  private final Object lock = new Object();
+  private final Universe universe;
+  private final JournalTarget target;
+  private final EntityFunction<?> function;
+  private final Path snapshotPath;
+  private final Path journalPath;
+  private final int compaction;
+
+  private @Nullable FileChannel channel;
+  private @Nullable IOException failure;
+  private long generation;
+  private int ticks;
+
+  /* package */ JournalImpl(final @NonNull Universe universe, final @NonNull Path directory, final @Positive int compaction,
+                            final @NonNull EntityFunction<?> function) {
+    this.universe = universe;
+    this.target = (JournalTarget) universe;
+    this.function = function;
+    this.snapshotPath = directory.resolve("snapshot.dat");
+    this.journalPath = directory.resolve("journal.dat");
+    this.compaction = compaction;
+  }
+
+  @Override
+  public <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec) {
+    requireNonNull(type, "type");
+    requireNonNull(codec, "codec");
+    this.codecs.put(type, codec);
+  }
+
+  @Override
+  public void open() throws IOException {
+    Universe.checkActive(this.universe);
+    synchronized(this.lock) {
+      if(this.channel != null) throw new IllegalStateException("Journal is already open!");
+      Files.createDirectories(this.journalPath.getParent());
+      if(Files.exists(this.snapshotPath)) this.readSnapshot();
+      this.channel = FileChannel.open(this.journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.replay(this.channel);
+      this.universe.addListener(this);
+      this.compact();
+    }
+  }
+
+  @Override
+  public boolean recording() {
+    return this.channel != null;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    synchronized(this.lock) {
+      final FileChannel channel = this.channel;
+      if(channel == null) return;
+      final IOException failure = this.failure;
+      if(failure != null) {
+        // The pending batch is incomplete, so the journal is brought back in
+        // line with the universe by compacting it instead.
+        this.failure = null;
+        this.compact();
+        throw failure;
+      }
+      final LongIterator iterator = this.dirty.iterator();
+      while(iterator.hasNext()) {
+        final long pair = iterator.nextLong();
+        this.writeData((int) (pair >>> 32), (int) pair);
+      }
+      this.dirty.clear();
+      if(this.buffer.size() == 0) return;
+      this.writeBlock(channel, BATCH_MAGIC, this.generation);
+      channel.force(false);
+    }
+  }
+
+  @Override
+  public void compact() throws IOException {
+    synchronized(this.lock) {
+      final FileChannel channel = this.channel;
+      if(channel == null) return;
+      this.buffer.reset();
+      this.dirty.clear();
+      this.definedTypes.clear();
+      this.writeSnapshot();
+      // The snapshot starts a new generation, so batches of the previous
+      // generation left behind by a crash before the truncation are skipped.
+      final long generation = this.generation + 1;
+      final Path temporary = this.snapshotPath.resolveSibling("snapshot.tmp");
+      try(final FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        this.writeBlock(snapshot, SNAPSHOT_MAGIC, generation);
+        snapshot.force(true);
+      }
+      Files.move(temporary, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      this.generation = generation;
+      channel.truncate(0);
+      channel.force(true);
+      this.ticks = 0;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized(this.lock) {
+      final FileChannel channel = this.channel;
+      if(channel == null) return;
+      this.universe.removeListener(this);
+      try {
+        this.flush();
+        channel.force(true);
+      } finally {
+        this.channel = null;
+        channel.close();
+      }
+    }
+  }
+
+  // Listener
+
+  @Override
+  public void entityCreated(final @NonNull Entity entity) {
+    this.write(CREATE, entity.index(), null);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    this.write(DESTROY, entity, null);
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    this.write(ADD, entity, type);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(!this.codecs.containsKey(type.type())) return;
+    synchronized(this.lock) {
+      if(this.channel != null) this.dirty.add(((long) entity << 32) | type.index());
+    }
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    this.write(REMOVE, entity, type);
+  }
+
+  @Override
+  public void tickCompleted(final Universe.@NonNull Tick tick) throws IOException {
+    this.flush();
+    if(++this.ticks >= this.compaction) this.compact();
+  }
+
+  // Writing
+
+  private void write(final byte operation, final @NonNegative int entity, final @Nullable ComponentType type) {
+    synchronized(this.lock) {
+      if(this.channel == null) return;
+      try {
+        if(type != null) this.define(type);
+        this.output.writeByte(operation);
+        this.output.writeInt(entity);
+        if(type != null) {
+          this.output.writeUTF(type.id());
+          if(operation == ADD && this.codecs.containsKey(type.type())) this.dirty.add(((long) entity << 32) | type.index());
+        }
+      } catch(final IOException exception) {
+        // Listeners cannot fail the operation, so the failure is reported
+        // when the batch is flushed.
+        if(this.failure == null) {
+          this.failure = exception;
+        } else {
+          this.failure.addSuppressed(exception);
+        }
+      }
+    }
+  }
+
+  private void writeData(final @NonNegative int entity, final @NonNegative int typeIndex) throws IOException {
+    final ComponentType type = this.universe.getType(typeIndex);
+    if(type == null) return;
+    final Object component = this.universe.getComponent(entity, type);
+    if(component == null) return;
+    if(!this.encode(type, component)) return;
+    this.define(type);
+    this.output.writeByte(DATA);
+    this.output.writeInt(entity);
+    this.output.writeUTF(type.id());
+    this.output.writeInt(this.scratch.size());
+    this.scratch.writeTo(this.output);
+  }
+
+  private void define(final @NonNull ComponentType type) throws IOException {
+    // Types are defined with their class name once per generation, so they
+    // are resolved on recovery without being created beforehand.
+    if(!this.definedTypes.add(type.id())) return;
+    this.output.writeByte(TYPE);
+    this.output.writeUTF(type.id());
+    this.output.writeUTF(type.type().getName());
+  }
+
+  private void writeSnapshot() throws IOException {
+    final List<ComponentType> defined = new ArrayList<>();
+    for(final Iterator<ComponentType> iterator = this.universe.types(); iterator.hasNext(); ) defined.add(iterator.next());
+    this.output.writeInt(defined.size());
+    for(final ComponentType type : defined) {
+      this.definedTypes.add(type.id());
+      this.output.writeUTF(type.id());
+      this.output.writeUTF(type.type().getName());
+    }
+    for(final Iterator<Entity> iterator = this.universe.entities(); iterator.hasNext(); ) {
+      final Entity entity = iterator.next();
+      final List<ComponentType> types = this.target.types(entity.index());
+      this.output.writeInt(entity.index());
+      this.output.writeInt(types.size());
+      for(final ComponentType type : types) {
+        this.output.writeUTF(type.id());
+        final Object component = this.universe.getComponent(entity, type);
+        if(component != null && this.encode(type, component)) {
+          this.output.writeInt(this.scratch.size());
+          this.scratch.writeTo(this.output);
+        } else {
+          this.output.writeInt(-1);
+        }
+      }
+    }
+    this.output.writeInt(-1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean encode(final @NonNull ComponentType type, final @NonNull Object component) throws IOException {
+    final ComponentCodec<Object> codec = (ComponentCodec<Object>) this.codecs.get(type.type());
+    if(codec == null) return false;
+    this.scratch.reset();
+    codec.encode(component, new DataOutputStream(this.scratch));
+    return true;
+  }
+
+  private void writeBlock(final @NonNull FileChannel channel, final int magic, final long generation) throws IOException {
+    this.block.reset();
+    new DataOutputStream(this.block).writeLong(generation);
+    this.buffer.writeTo(this.block);
+    this.buffer.reset();
+    channel.position(channel.size());
+    Blocks.write(channel, magic, this.block.toByteArray(), this.block.size());
+  }
+
+  // Reading
+
+  private void readSnapshot() throws IOException {
+    final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(this.snapshotPath));
+    final DataInputStream input = Blocks.read(data, SNAPSHOT_MAGIC);
+    if(input == null) throw new IOException("Journal snapshot '" + this.snapshotPath + "' is corrupt!");
+    this.generation = input.readLong();
+    final int types = input.readInt();
+    for(int i = 0; i < types; i++) this.define(input.readUTF(), input.readUTF());
+    int index;
+    while((index = input.readInt()) >= 0) {
+      final Entity entity = this.target.restoreEntity(index, this.function);
+      final int components = input.readInt();
+      for(int j = 0; j < components; j++) {
+        final ComponentType type = this.type(input.readUTF());
+        final Object component = this.universe.addComponent(entity, type);
+        final int length = input.readInt();
+        if(length >= 0) this.decode(type, component, input, length);
+      }
+    }
+  }
+
+  private void replay(final @NonNull FileChannel channel) throws IOException {
+    final ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+    while(data.hasRemaining() && channel.read(data, data.position()) >= 0) {
+      // Read the entire journal.
+    }
+    data.flip();
+    int valid = 0;
+    DataInputStream input;
+    while((input = Blocks.read(data, BATCH_MAGIC)) != null) {
+      final long generation = input.readLong();
+      if(generation > this.generation) throw new IOException("Journal batch of generation " + generation + " is newer than its snapshot!");
+      // Batches of earlier generations are already part of the snapshot.
+      if(generation == this.generation) {
+        while(input.available() > 0) this.apply(input);
+      }
+      valid = data.position();
+    }
+    // Discard any torn batch at the end of the journal.
+    channel.truncate(valid);
+  }
+
+  private void apply(final @NonNull DataInputStream input) throws IOException {
+    final byte operation = input.readByte();
+    if(operation == TYPE) {
+      this.define(input.readUTF(), input.readUTF());
+      return;
+    }
+    final int index = input.readInt();
+    switch(operation) {
+      case CREATE:
+        this.target.restoreEntity(index, this.function);
+        break;
+      case DESTROY:
+        this.target.restoreDestroy(index);
+        break;
+      case ADD:
+        this.universe.addComponent(this.entity(index), this.type(input.readUTF()));
+        break;
+      case REMOVE:
+        this.target.restoreRemove(index, this.type(input.readUTF()));
+        break;
+      case DATA:
+        final ComponentType type = this.type(input.readUTF());
+        final int length = input.readInt();
+        final Object component = this.universe.getComponent(index, type);
+        if(component == null) throw new IOException("Journal references missing component '" + type.id() + "' on entity " + index + "!");
+        this.decode(type, component, input, length);
+        break;
+      default:
+        throw new IOException("Unknown journal operation " + operation + "!");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void decode(final @NonNull ComponentType type, final @NonNull Object component, final @NonNull DataInputStream input, final @NonNegative int length) throws IOException {
+    final byte[] data = new byte[length];
+    input.readFully(data);
+    final ComponentCodec<Object> codec = (ComponentCodec<Object>) this.codecs.get(type.type());
+    if(codec != null) codec.decode(component, new DataInputStream(new ByteArrayInputStream(data)));
+  }
+
+  private @NonNull Entity entity(final @NonNegative int index) throws IOException {
+    final Entity entity = this.universe.getEntity(index);
+    if(entity == null) throw new IOException("Journal references missing entity " + index + "!");
+    return entity;
+  }
+
+  private void define(final @NonNull String id, final @NonNull String className) throws IOException {
+    if(this.universe.getType(id) != null) return;
+    // Types not yet resolved in the universe are resolved from the shared
+    // registry by their component id, otherwise by their class name.
+    final ComponentTypeRegistry registry = this.universe.registry();
+    final ComponentType shared = registry != null ? registry.get(id) : null;
+    if(shared != null) {
+      ComponentType.create(this.universe, shared.type());
+      return;
+    }
+    try {
+      ComponentType.create(this.universe, Class.forName(className, false, Thread.currentThread().getContextClassLoader()));
+    } catch(final ClassNotFoundException exception) {
+      throw new IOException("Journal references unknown component class '" + className + "'!", exception);
+    }
+  }
+
+  private @NonNull ComponentType type(final @NonNull String id) throws IOException {
+    final ComponentType type = this.universe.getType(id);
+    if(type == null) throw new IOException("Journal references undefined component type '" + id + "'!");
+    return type;
+  }
+}
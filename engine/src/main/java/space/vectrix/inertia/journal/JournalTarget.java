@@ -0,0 +1,88 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.journal;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFunction;
+
+import java.util.List;
+
+/**
+ * The structural operations a {@link Journal} needs to write and restore
+ * a universe, which are not part of the universe API.
+ *
+ * <p>Unlike their deferred equivalents, these apply immediately under the
+ * universe lock.</p>
+ *
+ * @since 0.3.0
+ */
+public interface JournalTarget {
+  /**
+   * Returns the {@link ComponentType}s of the specified {@code int} entity
+   * index, including its tags.
+   *
+   * @param entity the entity index
+   * @return the component types
+   * @since 0.3.0
+   */
+  @NonNull List<ComponentType> types(final @NonNegative int entity);
+
+  /**
+   * Creates an entity at the specified {@code int} entity index, using the
+   * specified {@link EntityFunction}.
+   *
+   * @param index the entity index
+   * @param function the entity function
+   * @param <T> the entity type
+   * @return the restored entity
+   * @throws IllegalArgumentException if the entity already exists
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  <T extends Entity> @NonNull T restoreEntity(final @NonNegative int index, final @NonNull EntityFunction<T> function);
+
+  /**
+   * Destroys the entity at the specified {@code int} entity index.
+   *
+   * @param entity the entity index
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void restoreDestroy(final @NonNegative int entity);
+
+  /**
+   * Removes the specified {@link ComponentType} from the entity at the
+   * specified {@code int} entity index.
+   *
+   * @param entity the entity index
+   * @param type the component type
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  void restoreRemove(final @NonNegative int entity, final @NonNull ComponentType type);
+}
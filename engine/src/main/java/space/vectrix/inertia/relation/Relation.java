@@ -0,0 +1,191 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.relation;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.entity.EntityFilter;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A relationship between pairs of entities in a {@link Universe}, such as
+ * child of or owned by, from a source entity to a target entity.
+ *
+ * <p>The sources and targets of each entity are stored in dense adjacency
+ * lists, so traversal does not resolve entities per hop. The pairs of an
+ * entity are dropped when it is destroyed.</p>
+ *
+ * <p>A cascading relation also queues the sources of a destroyed target
+ * for removal, so they are destroyed in the same sanitization stage. For
+ * example destroying a parent destroys its children, and their children
+ * in turn. Transferring an entity to another universe destroys it in this
+ * universe, so a cascading relation destroys its sources as well, unless
+ * they are transferred along with it.</p>
+ *
+ * <p>The entities are collected before a consumer is performed, so the
+ * consumer may modify the relation, such as removing the pairs it
+ * visits.</p>
+ *
+ * @since 0.3.0
+ */
+public interface Relation extends AutoCloseable {
+  /**
+   * Returns a new {@link Relation} in the specified {@link Universe}.
+   *
+   * @param universe the universe
+   * @param cascade whether destroying a target destroys its sources
+   * @return a new relation
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static @NonNull Relation create(final @NonNull Universe universe, final boolean cascade) {
+    Universe.checkActive(universe);
+    return new RelationImpl(universe, cascade);
+  }
+
+  /**
+   * Returns {@code true} if destroying a target destroys its sources,
+   * otherwise {@code false}.
+   *
+   * @return whether the relation cascades
+   * @since 0.3.0
+   */
+  boolean cascade();
+
+  /**
+   * Relates the specified {@code int} source entity index to the
+   * {@code int} target entity index and returns {@code true}, otherwise
+   * returns {@code false} if they are already related.
+   *
+   * @param source the source entity index
+   * @param target the target entity index
+   * @return whether the pair was added
+   * @throws IllegalArgumentException if either entity does not exist
+   * @since 0.3.0
+   */
+  boolean add(final @NonNegative int source, final @NonNegative int target);
+
+  /**
+   * Removes the relation from the specified {@code int} source entity
+   * index to the {@code int} target entity index and returns {@code true},
+   * otherwise returns {@code false} if they are not related.
+   *
+   * @param source the source entity index
+   * @param target the target entity index
+   * @return whether the pair was removed
+   * @since 0.3.0
+   */
+  boolean remove(final @NonNegative int source, final @NonNegative int target);
+
+  /**
+   * Returns {@code true} if the specified {@code int} source entity index
+   * is related to the {@code int} target entity index, otherwise
+   * {@code false}.
+   *
+   * @param source the source entity index
+   * @param target the target entity index
+   * @return whether the pair exists
+   * @since 0.3.0
+   */
+  boolean has(final @NonNegative int source, final @NonNegative int target);
+
+  /**
+   * Returns the first {@code int} target entity index of the specified
+   * {@code int} source entity index, or {@code -1} if it has none.
+   *
+   * <p>This is useful for relations with a single target, such as a
+   * parent.</p>
+   *
+   * @param source the source entity index
+   * @return the target entity index, or -1
+   * @since 0.3.0
+   */
+  int target(final @NonNegative int source);
+
+  /**
+   * Performs the {@link IntConsumer} for each target entity index of the
+   * specified {@code int} source entity index.
+   *
+   * @param source the source entity index
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void targets(final @NonNegative int source, final @NonNull IntConsumer consumer);
+
+  /**
+   * Returns the {@code int} number of source entities of the specified
+   * {@code int} target entity index.
+   *
+   * @param target the target entity index
+   * @return the number of sources
+   * @since 0.3.0
+   */
+  @NonNegative int count(final @NonNegative int target);
+
+  /**
+   * Performs the {@link IntConsumer} for each source entity index of the
+   * specified {@code int} target entity index.
+   *
+   * @param target the target entity index
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void sources(final @NonNegative int target, final @NonNull IntConsumer consumer);
+
+  /**
+   * Performs the {@link IntConsumer} for each source entity index of the
+   * specified {@code int} target entity index that matches the
+   * {@link EntityFilter}.
+   *
+   * @param target the target entity index
+   * @param filter the entity filter
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void sources(final @NonNegative int target, final @NonNull EntityFilter filter, final @NonNull IntConsumer consumer);
+
+  /**
+   * Performs the {@link IntConsumer} for each transitive source entity
+   * index of the specified {@code int} target entity index, breadth
+   * first.
+   *
+   * <p>Each entity is visited once, even if the relation has cycles.</p>
+   *
+   * @param target the target entity index
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void descendants(final @NonNegative int target, final @NonNull IntConsumer consumer);
+
+  /**
+   * Stops maintaining this relation.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,213 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.relation;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.entity.EntityFilter;
+import space.vectrix.inertia.util.IndexSet;
+
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class RelationImpl implements Relation, UniverseListener {
+  private final Universe universe;
+  private final boolean cascade;
+  private final Int2ObjectMap<IntArrayList> targets = new Int2ObjectOpenHashMap<>();
+  private final Int2ObjectMap<IntArrayList> sources = new Int2ObjectOpenHashMap<>();
+  private final Object lock = new Object();
+
+  /* package */ RelationImpl(final @NonNull Universe universe, final boolean cascade) {
+    this.universe = universe;
+    this.cascade = cascade;
+    universe.addListener(this);
+  }
+
+  @Override
+  public boolean cascade() {
+    return this.cascade;
+  }
+
+  @Override
+  public boolean add(final @NonNegative int source, final @NonNegative int target) {
+    if(this.universe.getEntity(source) == null) throw new IllegalArgumentException("Entity " + source + " does not exist!");
+    if(this.universe.getEntity(target) == null) throw new IllegalArgumentException("Entity " + target + " does not exist!");
+    synchronized(this.lock) {
+      final IntArrayList targets = this.targets.get(source);
+      if(targets != null && targets.contains(target)) return false;
+      RelationImpl.link(this.targets, source, target);
+      RelationImpl.link(this.sources, target, source);
+      // Entities are removed from the universe before they are destroyed
+      // here, so an entity destroyed since the check above is missing now,
+      // and its edge would not be unlinked by the destruction.
+      final int missing = this.universe.getEntity(source) == null ? source : this.universe.getEntity(target) == null ? target : -1;
+      if(missing >= 0) {
+        RelationImpl.unlink(this.targets, source, target);
+        RelationImpl.unlink(this.sources, target, source);
+        throw new IllegalArgumentException("Entity " + missing + " does not exist!");
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public boolean remove(final @NonNegative int source, final @NonNegative int target) {
+    synchronized(this.lock) {
+      if(!RelationImpl.unlink(this.targets, source, target)) return false;
+      RelationImpl.unlink(this.sources, target, source);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean has(final @NonNegative int source, final @NonNegative int target) {
+    synchronized(this.lock) {
+      final IntArrayList targets = this.targets.get(source);
+      return targets != null && targets.contains(target);
+    }
+  }
+
+  @Override
+  public int target(final @NonNegative int source) {
+    synchronized(this.lock) {
+      final IntArrayList targets = this.targets.get(source);
+      return targets != null ? targets.getInt(0) : -1;
+    }
+  }
+
+  @Override
+  public void targets(final @NonNegative int source, final @NonNull IntConsumer consumer) {
+    requireNonNull(consumer, "consumer");
+    RelationImpl.forEach(this.copy(this.targets, source), consumer);
+  }
+
+  @Override
+  public @NonNegative int count(final @NonNegative int target) {
+    synchronized(this.lock) {
+      final IntArrayList sources = this.sources.get(target);
+      return sources != null ? sources.size() : 0;
+    }
+  }
+
+  @Override
+  public void sources(final @NonNegative int target, final @NonNull IntConsumer consumer) {
+    requireNonNull(consumer, "consumer");
+    RelationImpl.forEach(this.copy(this.sources, target), consumer);
+  }
+
+  @Override
+  public void sources(final @NonNegative int target, final @NonNull EntityFilter filter, final @NonNull IntConsumer consumer) {
+    requireNonNull(filter, "filter");
+    requireNonNull(consumer, "consumer");
+    this.sources(target, source -> {
+      if(filter.test(this.universe, source)) consumer.accept(source);
+    });
+  }
+
+  @Override
+  public void descendants(final @NonNegative int target, final @NonNull IntConsumer consumer) {
+    requireNonNull(consumer, "consumer");
+    final IntArrayList queue = new IntArrayList();
+    synchronized(this.lock) {
+      final IndexSet visited = new IndexSet();
+      visited.add(target);
+      queue.add(target);
+      for(int i = 0; i < queue.size(); i++) {
+        final IntArrayList sources = this.sources.get(queue.getInt(i));
+        if(sources == null) continue;
+        for(int j = 0; j < sources.size(); j++) {
+          final int source = sources.getInt(j);
+          if(visited.add(source)) queue.add(source);
+        }
+      }
+    }
+    for(int i = 1; i < queue.size(); i++) consumer.accept(queue.getInt(i));
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    final IntArrayList sources;
+    synchronized(this.lock) {
+      final IntArrayList targets = this.targets.remove(entity);
+      if(targets != null) {
+        for(int i = 0; i < targets.size(); i++) RelationImpl.unlink(this.sources, targets.getInt(i), entity);
+      }
+      sources = this.sources.remove(entity);
+      if(sources != null) {
+        for(int i = 0; i < sources.size(); i++) RelationImpl.unlink(this.targets, sources.getInt(i), entity);
+      }
+    }
+    // The sources are destroyed later in the same sanitization stage, as
+    // the removal queue is drained until it is empty.
+    if(this.cascade && sources != null) sources.forEach((IntConsumer) this.universe::removeEntity);
+  }
+
+  private int @Nullable [] copy(final @NonNull Int2ObjectMap<IntArrayList> adjacency, final @NonNegative int entity) {
+    // The adjacency is copied before the consumer is performed, as it may
+    // modify the relation, which swaps entries of the list being iterated.
+    synchronized(this.lock) {
+      final IntArrayList list = adjacency.get(entity);
+      return list != null ? list.toIntArray() : null;
+    }
+  }
+
+  private static void forEach(final int @Nullable [] entities, final @NonNull IntConsumer consumer) {
+    if(entities != null) {
+      for(final int entity : entities) consumer.accept(entity);
+    }
+  }
+
+  private static void link(final @NonNull Int2ObjectMap<IntArrayList> adjacency, final @NonNegative int from, final @NonNegative int to) {
+    IntArrayList list = adjacency.get(from);
+    if(list == null) adjacency.put(from, list = new IntArrayList(2));
+    list.add(to);
+  }
+
+  private static boolean unlink(final @NonNull Int2ObjectMap<IntArrayList> adjacency, final @NonNegative int from, final @NonNegative int to) {
+    final IntArrayList list = adjacency.get(from);
+    if(list == null) return false;
+    final int position = list.indexOf(to);
+    if(position < 0) return false;
+    // Order of the adjacency does not matter, so the last entry is swapped
+    // into the removed position.
+    final int last = list.size() - 1;
+    list.set(position, list.getInt(last));
+    list.removeInt(last);
+    if(list.isEmpty()) adjacency.remove(from);
+    return true;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.replay;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A recorder of the structural commands and external inputs applied to
+ * a {@link Universe} before each tick.
+ *
+ * <p>Commands issued by systems are not recorded, as they will be issued
+ * again by the same systems when replayed, including those issued by
+ * blocking systems or asynchronous tick stages on other threads. Commands
+ * issued by other threads are recorded against the next tick, including
+ * those issued while an asynchronous tick is in progress.</p>
+ *
+ * <p>Component state is only recorded for component classes with a registered
+ * {@link ComponentCodec}, and is captured as it is at the start of the tick
+ * the commands are recorded against.</p>
+ *
+ * @since 0.3.0
+ */
+public interface Recorder extends Closeable {
+  /**
+   * Returns a new recorder for the specified {@link Universe}, writing to
+   * the specified {@link Path} file.
+   *
+   * @param universe the universe
+   * @param path the recording file
+   * @return a new recorder
+   * @since 0.3.0
+   */
+  static @NonNull Recorder create(final @NonNull Universe universe, final @NonNull Path path) {
+    requireNonNull(universe, "universe");
+    requireNonNull(path, "path");
+    return new RecorderImpl(universe, path);
+  }
+
+  /**
+   * Registers the {@link ComponentCodec} used to record the state of
+   * components of the specified {@link Class}.
+   *
+   * @param type the component class
+   * @param codec the component codec
+   * @param <T> the component type
+   * @since 0.3.0
+   */
+  <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec);
+
+  /**
+   * Starts recording to the file, replacing any existing recording.
+   *
+   * @throws IOException if the recording could not be started
+   * @throws IllegalStateException if the recorder is already recording
+   * @since 0.3.0
+   */
+  void start() throws IOException;
+
+  /**
+   * Returns {@code true} if this recorder is recording, otherwise
+   * {@code false}.
+   *
+   * @return whether the recorder is recording
+   * @since 0.3.0
+   */
+  boolean recording();
+
+  /**
+   * Records the specified external input against the next tick.
+   *
+   * @param input the input data
+   * @since 0.3.0
+   */
+  void input(final byte @NonNull [] input);
+
+  /**
+   * Stops recording, writing any commands recorded since the last tick.
+   *
+   * <p>These commands are applied once the replay reaches the end of the
+   * recording, without ticking the universe again.</p>
+   *
+   * @throws IOException if the recording could not be closed
+   * @since 0.3.0
+   */
+  @Override
+  void close() throws IOException;
+}
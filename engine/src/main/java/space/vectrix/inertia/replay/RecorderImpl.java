@@ -0,0 +1,252 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.replay;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.flare.SyncMap;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseImpl;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.util.Blocks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class RecorderImpl implements Recorder, UniverseListener {
+  /* package */ static final int HEADER_MAGIC = 0x49524844;
+  /* package */ static final int FRAME_MAGIC = 0x49524652;
+  /* package */ static final int VERSION = 1;
+
+  /* package */ static final byte TYPE = 0;
+  /* package */ static final byte CREATE = 1;
+  /* package */ static final byte ADD = 2;
+  /* package */ static final byte DATA = 3;
+  /* package */ static final byte REMOVE_ENTITY = 4;
+  /* package */ static final byte REMOVE_COMPONENT = 5;
+  /* package */ static final byte INPUT = 6;
+
+  private final Map<Class<?>, ComponentCodec<?>> codecs = SyncMap.hashmap();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+  private final DataOutputStream output = new DataOutputStream(this.buffer);
+  private final ByteArrayOutputStream frame = new ByteArrayOutputStream(1024);
+  private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+  private final LongSet dirty = new LongLinkedOpenHashSet();
+  private final Set<String> definedTypes = new HashSet<>();
+  private final Object lock = new Object();
+  private final UniverseImpl universe;
+  private final Path path;
+
+  private @Nullable FileChannel channel;
+
+  /* package */ RecorderImpl(final @NonNull Universe universe, final @NonNull Path path) {
+    this.universe = (UniverseImpl) universe;
+    this.path = path;
+  }
+
+  @Override
+  public <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec) {
+    requireNonNull(type, "type");
+    requireNonNull(codec, "codec");
+    this.codecs.put(type, codec);
+  }
+
+  @Override
+  public void start() throws IOException {
+    Universe.checkActive(this.universe);
+    synchronized(this.lock) {
+      if(this.channel != null) throw new IllegalStateException("Recorder is already recording!");
+      final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      this.output.writeInt(VERSION);
+      Blocks.write(channel, HEADER_MAGIC, this.buffer.toByteArray(), this.buffer.size());
+      this.buffer.reset();
+      this.channel = channel;
+      this.universe.addListener(this);
+    }
+  }
+
+  @Override
+  public boolean recording() {
+    return this.channel != null;
+  }
+
+  @Override
+  public void input(final byte @NonNull [] input) {
+    requireNonNull(input, "input");
+    synchronized(this.lock) {
+      if(this.channel == null) return;
+      try {
+        this.output.writeByte(INPUT);
+        this.output.writeInt(input.length);
+        this.output.write(input);
+      } catch(final IOException exception) {
+        throw new IllegalStateException("Unable to record input.", exception);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized(this.lock) {
+      final FileChannel channel = this.channel;
+      if(channel == null) return;
+      this.universe.removeListener(this);
+      try {
+        // The commands since the last tick are written as a final frame
+        // that is not followed by a tick.
+        if(this.buffer.size() > 0 || !this.dirty.isEmpty()) this.writeFrame(channel, -1);
+      } finally {
+        this.channel = null;
+        this.buffer.reset();
+        this.dirty.clear();
+        this.definedTypes.clear();
+        channel.close();
+      }
+    }
+  }
+
+  // Listener
+
+  @Override
+  public void entityCreated(final @NonNull Entity entity) {
+    if(this.external()) this.write(CREATE, entity.index(), null);
+  }
+
+  @Override
+  public void entityRemovalQueued(final @NonNegative int entity) {
+    if(this.external()) this.write(REMOVE_ENTITY, entity, null);
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(this.external()) this.write(ADD, entity, type);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(!this.external() || !this.codecs.containsKey(type.type())) return;
+    synchronized(this.lock) {
+      if(this.channel != null) this.dirty.add(((long) entity << 32) | type.index());
+    }
+  }
+
+  @Override
+  public void componentRemovalQueued(final @NonNegative int entity, final @NonNull ComponentType type) {
+    if(this.external()) this.write(REMOVE_COMPONENT, entity, type);
+  }
+
+  @Override
+  public void tickStarted(final @NonNegative int time) {
+    synchronized(this.lock) {
+      final FileChannel channel = this.channel;
+      if(channel == null) return;
+      try {
+        this.writeFrame(channel, time);
+      } catch(final IOException exception) {
+        throw new IllegalStateException("Unable to record tick " + time + ".", exception);
+      }
+    }
+  }
+
+  // Writing
+
+  private boolean external() {
+    // Commands issued on a thread running the tick phases or blocking systems
+    // come from the systems and are issued again when replayed. Commands
+    // from other threads are recorded, even while a tick is in progress.
+    return !this.universe.updating();
+  }
+
+  private void writeFrame(final @NonNull FileChannel channel, final int time) throws IOException {
+    final LongIterator iterator = this.dirty.iterator();
+    while(iterator.hasNext()) {
+      final long pair = iterator.nextLong();
+      this.writeData((int) (pair >>> 32), (int) pair);
+    }
+    this.dirty.clear();
+    this.frame.reset();
+    new DataOutputStream(this.frame).writeInt(time);
+    this.buffer.writeTo(this.frame);
+    this.buffer.reset();
+    Blocks.write(channel, FRAME_MAGIC, this.frame.toByteArray(), this.frame.size());
+  }
+
+  private void write(final byte operation, final @NonNegative int entity, final @Nullable ComponentType type) {
+    synchronized(this.lock) {
+      if(this.channel == null) return;
+      try {
+        if(type != null) this.define(type);
+        this.output.writeByte(operation);
+        this.output.writeInt(entity);
+        if(type != null) {
+          this.output.writeUTF(type.id());
+          if(operation == ADD && this.codecs.containsKey(type.type())) this.dirty.add(((long) entity << 32) | type.index());
+        }
+      } catch(final IOException exception) {
+        throw new IllegalStateException("Unable to record operation.", exception);
+      }
+    }
+  }
+
+  private void define(final @NonNull ComponentType type) throws IOException {
+    if(!this.definedTypes.add(type.id())) return;
+    this.output.writeByte(TYPE);
+    this.output.writeUTF(type.id());
+    this.output.writeUTF(type.type().getName());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeData(final @NonNegative int entity, final @NonNegative int typeIndex) throws IOException {
+    final ComponentType type = this.universe.getType(typeIndex);
+    if(type == null) return;
+    final Object component = this.universe.getComponent(entity, type);
+    final ComponentCodec<Object> codec = (ComponentCodec<Object>) this.codecs.get(type.type());
+    if(component == null || codec == null) return;
+    this.scratch.reset();
+    codec.encode(component, new DataOutputStream(this.scratch));
+    this.define(type);
+    this.output.writeByte(DATA);
+    this.output.writeInt(entity);
+    this.output.writeUTF(type.id());
+    this.output.writeInt(this.scratch.size());
+    this.scratch.writeTo(this.output);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.replay;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+
+/**
+ * The per-tick timing of a replay.
+ *
+ * @since 0.3.0
+ */
+public interface ReplayReport {
+  /**
+   * Returns the {@code int} number of ticks replayed.
+   *
+   * @return the number of ticks
+   * @since 0.3.0
+   */
+  @NonNegative int ticks();
+
+  /**
+   * Returns the {@code long} nanoseconds {@link Universe#tick()} took for
+   * the specified replayed tick.
+   *
+   * @param tick the replayed tick
+   * @return the tick duration in nanoseconds
+   * @since 0.3.0
+   */
+  @NonNegative long time(final @NonNegative int tick);
+
+  /**
+   * Returns the {@code long} total nanoseconds spent ticking.
+   *
+   * @return the total duration in nanoseconds
+   * @since 0.3.0
+   */
+  @NonNegative long totalTime();
+
+  /**
+   * Returns the {@code long} nanoseconds of the tick at the specified
+   * percentile, between {@code 0} and {@code 100}.
+   *
+   * @param percentile the percentile
+   * @return the tick duration in nanoseconds
+   * @since 0.3.0
+   */
+  @NonNegative long percentile(final double percentile);
+
+  /**
+   * Returns the {@code int} number of errors reported by the replayed
+   * ticks.
+   *
+   * @return the number of errors
+   * @since 0.3.0
+   */
+  @NonNegative int errors();
+
+  /**
+   * Returns a {@link String} summary of this report.
+   *
+   * @return the summary
+   * @since 0.3.0
+   */
+  @NonNull String summary();
+}
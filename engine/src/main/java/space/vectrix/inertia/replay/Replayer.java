@@ -0,0 +1,95 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.replay;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.InactiveUniverseException;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentCodec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A replayer of a recording made by a {@link Recorder}.
+ *
+ * <p>The recorded commands and inputs are applied to the universe before
+ * each tick, and the universe is ticked as fast as possible. Recorded entity
+ * indexes are remapped to the entities created in the universe.</p>
+ *
+ * @since 0.3.0
+ */
+public interface Replayer {
+  /**
+   * Returns a new replayer for the specified {@link Universe}, reading from
+   * the specified {@link Path} file.
+   *
+   * <p>The universe should be freshly created, with the systems under
+   * test added to it.</p>
+   *
+   * @param universe the universe
+   * @param path the recording file
+   * @return a new replayer
+   * @since 0.3.0
+   */
+  static @NonNull Replayer create(final @NonNull Universe universe, final @NonNull Path path) {
+    requireNonNull(universe, "universe");
+    requireNonNull(path, "path");
+    return new ReplayerImpl(universe, path);
+  }
+
+  /**
+   * Registers the {@link ComponentCodec} used to read the state of
+   * components of the specified {@link Class}.
+   *
+   * @param type the component class
+   * @param codec the component codec
+   * @param <T> the component type
+   * @since 0.3.0
+   */
+  <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec);
+
+  /**
+   * Sets the {@link Consumer} that recorded external inputs are passed to.
+   *
+   * @param handler the input handler
+   * @since 0.3.0
+   */
+  void input(final @Nullable Consumer<byte @NonNull []> handler);
+
+  /**
+   * Replays the recording and returns the {@link ReplayReport}.
+   *
+   * @return the replay report
+   * @throws IOException if the recording could not be read
+   * @throws InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  @NonNull ReplayReport run() throws IOException;
+}
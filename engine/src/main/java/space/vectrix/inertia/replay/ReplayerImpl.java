@@ -0,0 +1,232 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.replay;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.flare.SyncMap;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.util.Blocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class ReplayerImpl implements Replayer {
+  private final Map<Class<?>, ComponentCodec<?>> codecs = SyncMap.hashmap();
+  private final Map<String, ComponentType> types = new HashMap<>();
+  private final Int2IntMap entities = new Int2IntOpenHashMap();
+  private final Universe universe;
+  private final Path path;
+
+  private @Nullable Consumer<byte[]> handler;
+
+  /* package */ ReplayerImpl(final @NonNull Universe universe, final @NonNull Path path) {
+    this.universe = universe;
+    this.path = path;
+    this.entities.defaultReturnValue(-1);
+  }
+
+  @Override
+  public <T> void codec(final @NonNull Class<T> type, final @NonNull ComponentCodec<T> codec) {
+    requireNonNull(type, "type");
+    requireNonNull(codec, "codec");
+    this.codecs.put(type, codec);
+  }
+
+  @Override
+  public void input(final @Nullable Consumer<byte @NonNull []> handler) {
+    this.handler = handler;
+  }
+
+  @Override
+  public @NonNull ReplayReport run() throws IOException {
+    Universe.checkActive(this.universe);
+    final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(this.path));
+    final DataInputStream header = Blocks.read(data, RecorderImpl.HEADER_MAGIC);
+    if(header == null) throw new IOException("Recording '" + this.path + "' is corrupt!");
+    final int version = header.readInt();
+    if(version != RecorderImpl.VERSION) throw new IOException("Recording '" + this.path + "' has unsupported version " + version + "!");
+    final LongArrayList times = new LongArrayList();
+    int errors = 0;
+    DataInputStream input;
+    while((input = Blocks.read(data, RecorderImpl.FRAME_MAGIC)) != null) {
+      final int time = input.readInt();
+      while(input.available() > 0) this.apply(input);
+      // The final frame holds the commands recorded after the last tick.
+      if(time < 0) break;
+      final long start = System.nanoTime();
+      final Universe.Tick tick = this.universe.tick();
+      times.add(System.nanoTime() - start);
+      errors += tick.errors().size();
+    }
+    return new ReplayReportImpl(times.toLongArray(), errors);
+  }
+
+  private void apply(final @NonNull DataInputStream input) throws IOException {
+    final byte operation = input.readByte();
+    if(operation == RecorderImpl.TYPE) {
+      this.define(input.readUTF(), input.readUTF());
+      return;
+    }
+    final int index = input.readInt();
+    switch(operation) {
+      case RecorderImpl.CREATE:
+        this.entities.put(index, this.universe.createEntity().index());
+        break;
+      case RecorderImpl.ADD:
+        this.universe.addComponent(this.entity(index), this.type(input.readUTF()));
+        break;
+      case RecorderImpl.DATA:
+        this.decode(index, this.type(input.readUTF()), input);
+        break;
+      case RecorderImpl.REMOVE_ENTITY:
+        this.universe.removeEntity(this.entity(index));
+        break;
+      case RecorderImpl.REMOVE_COMPONENT:
+        this.universe.removeComponent(this.entity(index), this.type(input.readUTF()));
+        break;
+      case RecorderImpl.INPUT:
+        final byte[] bytes = new byte[index];
+        input.readFully(bytes);
+        if(this.handler != null) this.handler.accept(bytes);
+        break;
+      default:
+        throw new IOException("Unknown recording operation " + operation + "!");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void decode(final @NonNegative int index, final @NonNull ComponentType type, final @NonNull DataInputStream input) throws IOException {
+    final byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    final Object component = this.universe.getComponent(this.entity(index), type);
+    final ComponentCodec<Object> codec = (ComponentCodec<Object>) this.codecs.get(type.type());
+    if(component != null && codec != null) codec.decode(component, new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  private void define(final @NonNull String id, final @NonNull String className) throws IOException {
+    ComponentType type = this.universe.getType(id);
+    if(type == null) {
+      try {
+        type = ComponentType.create(this.universe, Class.forName(className, false, Thread.currentThread().getContextClassLoader()));
+      } catch(final ClassNotFoundException exception) {
+        throw new IOException("Recording references unknown component class '" + className + "'!", exception);
+      }
+    }
+    this.types.put(id, type);
+  }
+
+  private @NonNull Entity entity(final @NonNegative int index) throws IOException {
+    // Entities created by systems are not recorded, so are expected to be
+    // created at the same index when replayed.
+    final int mapped = this.entities.get(index);
+    final Entity entity = this.universe.getEntity(mapped >= 0 ? mapped : index);
+    if(entity == null) throw new IOException("Recording references missing entity " + index + "!");
+    return entity;
+  }
+
+  private @NonNull ComponentType type(final @NonNull String id) throws IOException {
+    final ComponentType type = this.types.get(id);
+    if(type == null) throw new IOException("Recording references undefined component type '" + id + "'!");
+    return type;
+  }
+
+  /* package */ static final class ReplayReportImpl implements ReplayReport {
+    private final long[] times;
+    private final long[] sorted;
+    private final int errors;
+
+    /* package */ ReplayReportImpl(final long @NonNull [] times, final @NonNegative int errors) {
+      this.times = times;
+      this.sorted = times.clone();
+      this.errors = errors;
+      Arrays.sort(this.sorted);
+    }
+
+    @Override
+    public @NonNegative int ticks() {
+      return this.times.length;
+    }
+
+    @Override
+    public @NonNegative long time(final @NonNegative int tick) {
+      return this.times[tick];
+    }
+
+    @Override
+    public @NonNegative long totalTime() {
+      long total = 0;
+      for(final long time : this.times) total += time;
+      return total;
+    }
+
+    @Override
+    public @NonNegative long percentile(final double percentile) {
+      if(percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be between 0 and 100!");
+      if(this.sorted.length == 0) return 0;
+      final int index = (int) Math.ceil(percentile / 100 * this.sorted.length) - 1;
+      return this.sorted[Math.max(0, index)];
+    }
+
+    @Override
+    public @NonNegative int errors() {
+      return this.errors;
+    }
+
+    @Override
+    public @NonNull String summary() {
+      final int ticks = this.ticks();
+      return "ReplayReport{ticks=" + ticks +
+        ", total=" + this.totalTime() + "ns" +
+        ", mean=" + (ticks == 0 ? 0 : this.totalTime() / ticks) + "ns" +
+        ", p50=" + this.percentile(50) + "ns" +
+        ", p99=" + this.percentile(99) + "ns" +
+        ", max=" + this.percentile(100) + "ns" +
+        ", errors=" + this.errors + "}";
+    }
+
+    @Override
+    public @NonNull String toString() {
+      return this.summary();
+    }
+  }
+}
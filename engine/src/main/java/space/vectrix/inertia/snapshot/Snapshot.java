@@ -0,0 +1,148 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.snapshot;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-only snapshot of the components of a {@link ComponentType},
+ * published at the end of each tick of a {@link Universe}.
+ *
+ * <p>Each published {@link Frame} is immutable and can be read by any
+ * thread without locking, while the universe continues to tick. Components
+ * are copied into the frame, so readers never observe a component while a
+ * system is modifying it.</p>
+ *
+ * <p>Frames are copy-on-write per chunk of entities, only the chunks with
+ * components that were added, changed or removed since the previous frame
+ * are copied. A modified component must be marked with
+ * {@link Universe#markChanged} to be copied again.</p>
+ *
+ * @param <T> the component type
+ * @since 0.3.0
+ */
+public interface Snapshot<T> extends AutoCloseable {
+  /**
+   * Returns a new {@link Snapshot} of the specified {@link ComponentType}
+   * in the {@link Universe}, copying the components with the
+   * {@link UnaryOperator}.
+   *
+   * <p>The snapshot is published from the end of the next tick.</p>
+   *
+   * @param universe the universe
+   * @param type the component type
+   * @param copier the component copier
+   * @param <T> the component type
+   * @return a new snapshot
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static <T> @NonNull Snapshot<T> create(final @NonNull Universe universe, final @NonNull ComponentType type, final @NonNull UnaryOperator<T> copier) {
+    Universe.checkActive(universe);
+    requireNonNull(type, "type");
+    requireNonNull(copier, "copier");
+    return new SnapshotImpl<>(universe, type, copier);
+  }
+
+  /**
+   * Returns the {@link ComponentType} of this snapshot.
+   *
+   * @return the component type
+   * @since 0.3.0
+   */
+  @NonNull ComponentType type();
+
+  /**
+   * Returns the latest published {@link Frame}.
+   *
+   * <p>Reads that must be consistent with each other should be made from
+   * the same frame.</p>
+   *
+   * @return the latest frame
+   * @since 0.3.0
+   */
+  @NonNull Frame<T> frame();
+
+  /**
+   * Stops publishing this snapshot.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+
+  /**
+   * Represents the components of a {@link Snapshot} at the end of a tick.
+   *
+   * @param <T> the component type
+   * @since 0.3.0
+   */
+  interface Frame<T> {
+    /**
+     * Returns the {@code int} time of the tick this frame was published
+     * on, or {@code -1} if no tick has completed yet.
+     *
+     * @return the tick time
+     * @since 0.3.0
+     */
+    int time();
+
+    /**
+     * Returns the {@code int} number of components in this frame.
+     *
+     * @return the number of components
+     * @since 0.3.0
+     */
+    @NonNegative int size();
+
+    /**
+     * Returns the {@code T} component copy for the specified {@code int}
+     * entity index if it is present, otherwise returns {@code null}.
+     *
+     * @param entity the entity index
+     * @return the component copy, if present
+     * @since 0.3.0
+     */
+    @Nullable T get(final @NonNegative int entity);
+
+    /**
+     * Performs the {@link ObjIntConsumer} for each component copy and
+     * entity index in this frame.
+     *
+     * @param consumer the consumer
+     * @since 0.3.0
+     */
+    void forEach(final @NonNull ObjIntConsumer<? super T> consumer);
+  }
+}
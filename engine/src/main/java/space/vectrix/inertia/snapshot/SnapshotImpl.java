@@ -0,0 +1,202 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.snapshot;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class SnapshotImpl<T> implements Snapshot<T>, UniverseListener {
+  private static final int CHUNK_SHIFT = 8;
+  private static final int CHUNK_SIZE = 1 << SnapshotImpl.CHUNK_SHIFT;
+  private static final int CHUNK_MASK = SnapshotImpl.CHUNK_SIZE - 1;
+
+  private final Universe universe;
+  private final ComponentType type;
+  private final UnaryOperator<T> copier;
+  private final IntSet dirty = new IntOpenHashSet();
+  private final Object lock = new Object();
+
+  private volatile FrameImpl<T> frame = new FrameImpl<>(-1, new Object[0][], 0);
+
+  /* package */ SnapshotImpl(final @NonNull Universe universe, final @NonNull ComponentType type, final @NonNull UnaryOperator<T> copier) {
+    this.universe = universe;
+    this.type = type;
+    this.copier = copier;
+    for(final Iterator<Entity> iterator = universe.entities(); iterator.hasNext(); ) {
+      final Entity entity = iterator.next();
+      if(universe.hasComponent(entity, type)) this.dirty.add(entity.index());
+    }
+    universe.addListener(this);
+  }
+
+  @Override
+  public @NonNull ComponentType type() {
+    return this.type;
+  }
+
+  @Override
+  public @NonNull Frame<T> frame() {
+    return this.frame;
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    this.mark(entity);
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.mark(entity);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.mark(entity);
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.mark(entity);
+  }
+
+  @Override
+  public void tickCompleted(final Universe.@NonNull Tick tick) {
+    synchronized(this.lock) {
+      this.publish(tick.time());
+    }
+  }
+
+  private void mark(final @NonNegative int entity) {
+    synchronized(this.lock) {
+      this.dirty.add(entity);
+    }
+  }
+
+  private void publish(final int time) {
+    final FrameImpl<T> previous = this.frame;
+    if(this.dirty.isEmpty()) {
+      this.frame = new FrameImpl<>(time, previous.chunks, previous.size);
+      return;
+    }
+    int max = -1;
+    for(final IntIterator iterator = this.dirty.iterator(); iterator.hasNext(); ) max = Math.max(max, iterator.nextInt());
+    final Object[][] chunks = Arrays.copyOf(previous.chunks, Math.max(previous.chunks.length, (max >>> SnapshotImpl.CHUNK_SHIFT) + 1));
+    // Only the chunks touched by this tick are copied, the rest are shared
+    // with the previous frame.
+    final IntSet copied = new IntOpenHashSet();
+    int size = previous.size;
+    for(final IntIterator iterator = this.dirty.iterator(); iterator.hasNext(); ) {
+      final int entity = iterator.nextInt();
+      final int chunk = entity >>> SnapshotImpl.CHUNK_SHIFT;
+      if(copied.add(chunk)) chunks[chunk] = chunks[chunk] != null ? chunks[chunk].clone() : new Object[SnapshotImpl.CHUNK_SIZE];
+      final T component = this.universe.getComponent(entity, this.type);
+      final Object copy = component != null ? requireNonNull(this.copier.apply(component), "copy") : null;
+      final Object existing = chunks[chunk][entity & SnapshotImpl.CHUNK_MASK];
+      if(existing == null && copy != null) size++;
+      if(existing != null && copy == null) size--;
+      chunks[chunk][entity & SnapshotImpl.CHUNK_MASK] = copy;
+    }
+    // Chunks left empty are released, so frames do not keep the space of
+    // destroyed entities.
+    int length = chunks.length;
+    for(final IntIterator iterator = copied.iterator(); iterator.hasNext(); ) {
+      final int chunk = iterator.nextInt();
+      if(SnapshotImpl.empty(chunks[chunk])) chunks[chunk] = null;
+    }
+    while(length > 0 && chunks[length - 1] == null) length--;
+    this.dirty.clear();
+    this.frame = new FrameImpl<>(time, length < chunks.length ? Arrays.copyOf(chunks, length) : chunks, size);
+  }
+
+  private static boolean empty(final Object @NonNull [] chunk) {
+    for(final Object component : chunk) {
+      if(component != null) return false;
+    }
+    return true;
+  }
+
+  /* package */ static final class FrameImpl<T> implements Frame<T> {
+    private final int time;
+    private final Object[][] chunks;
+    private final int size;
+
+    /* package */ FrameImpl(final int time, final Object @NonNull [] @NonNull [] chunks, final @NonNegative int size) {
+      this.time = time;
+      this.chunks = chunks;
+      this.size = size;
+    }
+
+    @Override
+    public int time() {
+      return this.time;
+    }
+
+    @Override
+    public @NonNegative int size() {
+      return this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(final @NonNegative int entity) {
+      final int chunk = entity >>> SnapshotImpl.CHUNK_SHIFT;
+      if(entity < 0 || chunk >= this.chunks.length || this.chunks[chunk] == null) return null;
+      return (T) this.chunks[chunk][entity & SnapshotImpl.CHUNK_MASK];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final @NonNull ObjIntConsumer<? super T> consumer) {
+      requireNonNull(consumer, "consumer");
+      for(int chunk = 0; chunk < this.chunks.length; chunk++) {
+        final Object[] components = this.chunks[chunk];
+        if(components == null) continue;
+        for(int slot = 0; slot < components.length; slot++) {
+          if(components[slot] != null) consumer.accept((T) components[slot], (chunk << SnapshotImpl.CHUNK_SHIFT) | slot);
+        }
+      }
+    }
+  }
+}
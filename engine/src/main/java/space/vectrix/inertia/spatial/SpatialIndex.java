@@ -0,0 +1,176 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.spatial;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A spatial index of the entities with a position {@link ComponentType},
+ * backed by a uniform grid.
+ *
+ * <p>The index is maintained incrementally, an entity is indexed when the
+ * component is added, moved when the component is marked with
+ * {@link Universe#markChanged} and removed with the component or entity.
+ * Positions modified without marking the component can be updated with
+ * {@link #move(int)}.</p>
+ *
+ * <p>Queries write entity indexes into caller supplied arrays or
+ * consumers and do not allocate.</p>
+ *
+ * @param <T> the component type
+ * @since 0.3.0
+ */
+public interface SpatialIndex<T> extends AutoCloseable {
+  /**
+   * Returns a new {@link SpatialIndex} of the specified position
+   * {@link ComponentType} in the {@link Universe}, with the specified
+   * {@code double} grid cell size and {@link ToDoubleFunction} position
+   * coordinates.
+   *
+   * <p>The cell size should be about the radius of the most common range
+   * queries.</p>
+   *
+   * @param universe the universe
+   * @param type the position component type
+   * @param cellSize the grid cell size
+   * @param x the x coordinate function
+   * @param y the y coordinate function
+   * @param <T> the component type
+   * @return a new spatial index
+   * @throws space.vectrix.inertia.InactiveUniverseException if the universe is not active
+   * @since 0.3.0
+   */
+  static <T> @NonNull SpatialIndex<T> create(final @NonNull Universe universe, final @NonNull ComponentType type, final double cellSize,
+                                             final @NonNull ToDoubleFunction<T> x, final @NonNull ToDoubleFunction<T> y) {
+    Universe.checkActive(universe);
+    requireNonNull(type, "type");
+    requireNonNull(x, "x");
+    requireNonNull(y, "y");
+    if(!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive!");
+    return new SpatialIndexImpl<>(universe, type, cellSize, x, y);
+  }
+
+  /**
+   * Returns the position {@link ComponentType} of this index.
+   *
+   * @return the component type
+   * @since 0.3.0
+   */
+  @NonNull ComponentType type();
+
+  /**
+   * Returns the {@code int} number of entities in this index.
+   *
+   * @return the number of entities
+   * @since 0.3.0
+   */
+  @NonNegative int size();
+
+  /**
+   * Updates the position of the specified {@code int} entity index from
+   * its position component, or removes it if it no longer has one.
+   *
+   * @param entity the entity index
+   * @since 0.3.0
+   */
+  void move(final @NonNegative int entity);
+
+  /**
+   * Moves the specified {@code int} entity index to the {@code double}
+   * position, if it is in this index.
+   *
+   * <p>This does not modify the position component.</p>
+   *
+   * @param entity the entity index
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @since 0.3.0
+   */
+  void move(final @NonNegative int entity, final double x, final double y);
+
+  /**
+   * Performs the {@link IntConsumer} for each entity index within the
+   * {@code double} radius of the position.
+   *
+   * <p>The consumer is performed while the grid cells are iterated, so it
+   * must not modify this index, such as by moving, adding or removing the
+   * positions of entities. Use {@link #range(double, double, double, int[])}
+   * to collect the entities first instead.</p>
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param radius the radius
+   * @param consumer the entity consumer
+   * @since 0.3.0
+   */
+  void range(final double x, final double y, final double radius, final @NonNull IntConsumer consumer);
+
+  /**
+   * Writes the entity indexes within the {@code double} radius of the
+   * position into the {@code int} array and returns the number of
+   * entities found.
+   *
+   * <p>If more entities are found than fit in the array, only the first
+   * are written, while the total number found is still returned.</p>
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param radius the radius
+   * @param output the output array
+   * @return the number of entities found
+   * @since 0.3.0
+   */
+  @NonNegative int range(final double x, final double y, final double radius, final int @NonNull [] output);
+
+  /**
+   * Writes the entity indexes nearest to the position into the
+   * {@code int} array, nearest first, and returns the number written.
+   *
+   * <p>Up to the length of the array entities are written.</p>
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param output the output array
+   * @return the number of entities written
+   * @since 0.3.0
+   */
+  @NonNegative int nearest(final double x, final double y, final int @NonNull [] output);
+
+  /**
+   * Stops maintaining this index.
+   *
+   * @since 0.3.0
+   */
+  @Override
+  void close();
+}
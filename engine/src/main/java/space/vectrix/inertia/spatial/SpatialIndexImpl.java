@@ -0,0 +1,341 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.spatial;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.UniverseListener;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.util.IndexSet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/* package */ final class SpatialIndexImpl<T> implements SpatialIndex<T>, UniverseListener {
+  private final Universe universe;
+  private final ComponentType type;
+  private final double cellSize;
+  private final ToDoubleFunction<T> x;
+  private final ToDoubleFunction<T> y;
+  private final Long2ObjectMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+  private final IndexSet members = new IndexSet();
+  private final Object lock = new Object();
+
+  // Positions are stored with the cells, so memory follows the indexed
+  // entities rather than the largest entity index.
+  private final Int2LongMap keys = new Int2LongOpenHashMap();
+  private double[] distances = new double[0];
+
+  /* package */ SpatialIndexImpl(final @NonNull Universe universe, final @NonNull ComponentType type, final double cellSize,
+                                 final @NonNull ToDoubleFunction<T> x, final @NonNull ToDoubleFunction<T> y) {
+    this.universe = universe;
+    this.type = type;
+    this.cellSize = cellSize;
+    this.x = x;
+    this.y = y;
+    for(final Iterator<Entity> iterator = universe.entities(); iterator.hasNext(); ) this.move(iterator.next().index());
+    universe.addListener(this);
+  }
+
+  @Override
+  public @NonNull ComponentType type() {
+    return this.type;
+  }
+
+  @Override
+  public @NonNegative int size() {
+    return this.members.size();
+  }
+
+  @Override
+  public void move(final @NonNegative int entity) {
+    final T component = this.universe.getComponent(entity, this.type);
+    synchronized(this.lock) {
+      if(component != null) {
+        this.insert(entity, this.x.applyAsDouble(component), this.y.applyAsDouble(component));
+      } else {
+        this.remove(entity);
+      }
+    }
+  }
+
+  @Override
+  public void move(final @NonNegative int entity, final double x, final double y) {
+    synchronized(this.lock) {
+      if(this.members.contains(entity)) this.insert(entity, x, y);
+    }
+  }
+
+  @Override
+  public void range(final double x, final double y, final double radius, final @NonNull IntConsumer consumer) {
+    requireNonNull(consumer, "consumer");
+    this.range(x, y, radius, consumer, null);
+  }
+
+  @Override
+  public @NonNegative int range(final double x, final double y, final double radius, final int @NonNull [] output) {
+    requireNonNull(output, "output");
+    return this.range(x, y, radius, null, output);
+  }
+
+  @Override
+  public @NonNegative int nearest(final double x, final double y, final int @NonNull [] output) {
+    requireNonNull(output, "output");
+    synchronized(this.lock) {
+      final int limit = Math.min(output.length, this.members.size());
+      if(limit == 0) return 0;
+      if(this.distances.length < limit) this.distances = new double[limit];
+      final int centerX = this.cell(x);
+      final int centerY = this.cell(y);
+      int count = 0;
+      int visited = 0;
+      // Rings of cells around the center are visited until the nearest
+      // unvisited cell is further than the furthest entity found.
+      for(int ring = 0; visited < this.members.size(); ring++) {
+        if((long) (2 * ring + 1) * (2 * ring + 1) > 4L * this.cells.size()) {
+          count = 0;
+          for(final Cell cell : this.cells.values()) count = this.nearest(cell, x, y, output, limit, count);
+          return count;
+        }
+        for(long cellX = (long) centerX - ring; cellX <= (long) centerX + ring; cellX++) {
+          final boolean edge = cellX == (long) centerX - ring || cellX == (long) centerX + ring;
+          for(long cellY = (long) centerY - ring; cellY <= (long) centerY + ring; cellY += edge ? 1 : 2 * ring) {
+            // Rings around the edge of the grid extend past the cell range.
+            if(cellX != (int) cellX || cellY != (int) cellY) continue;
+            final Cell cell = this.cells.get(SpatialIndexImpl.key((int) cellX, (int) cellY));
+            if(cell == null) continue;
+            visited += cell.size;
+            count = this.nearest(cell, x, y, output, limit, count);
+          }
+        }
+        if(count == limit) {
+          final double boundary = Math.min(
+            Math.min(x - ((long) centerX - ring) * this.cellSize, ((long) centerX + ring + 1) * this.cellSize - x),
+            Math.min(y - ((long) centerY - ring) * this.cellSize, ((long) centerY + ring + 1) * this.cellSize - y)
+          );
+          if(this.distances[limit - 1] <= boundary * boundary) break;
+        }
+      }
+      return count;
+    }
+  }
+
+  @Override
+  public void close() {
+    this.universe.removeListener(this);
+  }
+
+  @Override
+  public void entityDestroyed(final @NonNegative int entity) {
+    synchronized(this.lock) {
+      this.remove(entity);
+    }
+  }
+
+  @Override
+  public void componentAdded(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.move(entity);
+  }
+
+  @Override
+  public void componentChanged(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) this.move(entity);
+  }
+
+  @Override
+  public void componentRemoved(final @NonNegative int entity, final @NonNull ComponentType type, final @NonNull Object component) {
+    if(type.equals(this.type)) {
+      synchronized(this.lock) {
+        this.remove(entity);
+      }
+    }
+  }
+
+  private int range(final double x, final double y, final double radius, final @Nullable IntConsumer consumer, final int @Nullable [] output) {
+    synchronized(this.lock) {
+      final double squared = radius * radius;
+      final int minX = this.cell(x - radius);
+      final int maxX = this.cell(x + radius);
+      final int minY = this.cell(y - radius);
+      final int maxY = this.cell(y + radius);
+      int count = 0;
+      // Large ranges visit the occupied cells rather than every cell they
+      // cover.
+      final long width = (long) maxX - minX + 1;
+      final long height = (long) maxY - minY + 1;
+      final int occupied = this.cells.size();
+      if(width > occupied || height > occupied || width * height > occupied) {
+        for(final Cell cell : this.cells.values()) count = this.range(cell, x, y, squared, consumer, output, count);
+        return count;
+      }
+      // The cells are counted in longs, as the range may end at the largest
+      // cell coordinate.
+      for(long cellX = minX; cellX <= maxX; cellX++) {
+        for(long cellY = minY; cellY <= maxY; cellY++) {
+          final Cell cell = this.cells.get(SpatialIndexImpl.key((int) cellX, (int) cellY));
+          if(cell != null) count = this.range(cell, x, y, squared, consumer, output, count);
+        }
+      }
+      return count;
+    }
+  }
+
+  private int range(final @NonNull Cell cell, final double x, final double y, final double squared,
+                    final @Nullable IntConsumer consumer, final int @Nullable [] output, final int from) {
+    int count = from;
+    for(int i = 0; i < cell.size; i++) {
+      if(cell.distance(i, x, y) > squared) continue;
+      final int entity = cell.entities[i];
+      // The consumer must not modify the index, as the cell is iterated in
+      // place so queries do not allocate.
+      if(consumer != null) consumer.accept(entity);
+      if(output != null && count < output.length) output[count] = entity;
+      count++;
+    }
+    return count;
+  }
+
+  private int nearest(final @NonNull Cell cell, final double x, final double y, final int @NonNull [] output, final int limit, final int from) {
+    int count = from;
+    for(int i = 0; i < cell.size; i++) {
+      final double distance = cell.distance(i, x, y);
+      if(count == limit && distance >= this.distances[limit - 1]) continue;
+      // Insertion into the sorted results, dropping the furthest when full.
+      int position = count < limit ? count++ : limit - 1;
+      while(position > 0 && this.distances[position - 1] > distance) {
+        this.distances[position] = this.distances[position - 1];
+        output[position] = output[position - 1];
+        position--;
+      }
+      this.distances[position] = distance;
+      output[position] = cell.entities[i];
+    }
+    return count;
+  }
+
+  private void insert(final @NonNegative int entity, final double x, final double y) {
+    final long key = SpatialIndexImpl.key(this.cell(x), this.cell(y));
+    if(this.members.contains(entity)) {
+      final long previous = this.keys.get(entity);
+      if(previous == key) {
+        this.cells.get(key).set(entity, x, y);
+        return;
+      }
+      this.unlink(entity, previous);
+    } else {
+      this.members.add(entity);
+    }
+    this.link(entity, key, x, y);
+  }
+
+  private void remove(final @NonNegative int entity) {
+    if(!this.members.remove(entity)) return;
+    this.unlink(entity, this.keys.remove(entity));
+  }
+
+  private void link(final @NonNegative int entity, final long key, final double x, final double y) {
+    Cell cell = this.cells.get(key);
+    if(cell == null) this.cells.put(key, cell = new Cell());
+    cell.add(entity, x, y);
+    this.keys.put(entity, key);
+  }
+
+  private void unlink(final @NonNegative int entity, final long key) {
+    final Cell cell = this.cells.get(key);
+    if(cell == null) return;
+    cell.remove(entity);
+    if(cell.size == 0) this.cells.remove(key);
+  }
+
+  private int cell(final double coordinate) {
+    return (int) Math.floor(coordinate / this.cellSize);
+  }
+
+  private static long key(final int x, final int y) {
+    return ((long) x << 32) | (y & 0xFFFFFFFFL);
+  }
+
+  /* package */ static final class Cell {
+    private int[] entities = new int[4];
+    private double[] xs = new double[4];
+    private double[] ys = new double[4];
+    private int size;
+
+    /* package */ void add(final @NonNegative int entity, final double x, final double y) {
+      if(this.size == this.entities.length) {
+        final int length = this.size << 1;
+        this.entities = Arrays.copyOf(this.entities, length);
+        this.xs = Arrays.copyOf(this.xs, length);
+        this.ys = Arrays.copyOf(this.ys, length);
+      }
+      this.entities[this.size] = entity;
+      this.xs[this.size] = x;
+      this.ys[this.size] = y;
+      this.size++;
+    }
+
+    /* package */ void set(final @NonNegative int entity, final double x, final double y) {
+      final int position = this.indexOf(entity);
+      if(position < 0) return;
+      this.xs[position] = x;
+      this.ys[position] = y;
+    }
+
+    /* package */ void remove(final @NonNegative int entity) {
+      final int position = this.indexOf(entity);
+      if(position < 0) return;
+      // Order within a cell does not matter, so the last entity is swapped
+      // into the removed position.
+      final int last = --this.size;
+      this.entities[position] = this.entities[last];
+      this.xs[position] = this.xs[last];
+      this.ys[position] = this.ys[last];
+    }
+
+    /* package */ double distance(final int position, final double x, final double y) {
+      final double deltaX = this.xs[position] - x;
+      final double deltaY = this.ys[position] - y;
+      return deltaX * deltaX + deltaY * deltaY;
+    }
+
+    private int indexOf(final @NonNegative int entity) {
+      for(int i = 0; i < this.size; i++) {
+        if(this.entities[i] == entity) return i;
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.system;
+
+import space.vectrix.inertia.entity.EntityFilter;
+import space.vectrix.inertia.entity.EntityStash;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Represents an {@link EntityStash} query to be injected for a
+ * {@link System}.
+ *
+ * <p>The injected stash is created once when the system is added, and is
+ * kept up to date by the universe, as if created with
+ * {@link EntityStash#filtered(space.vectrix.inertia.Universe, EntityFilter)}.
+ * It is closed when the system is removed.</p>
+ *
+ * @since 0.3.0
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Query {
+  /**
+   * Returns the component {@link Class}es an entity must have to be
+   * present in the query.
+   *
+   * @return the required component classes
+   * @since 0.3.0
+   */
+  Class<?>[] value() default {};
+
+  /**
+   * Returns the component {@link Class}es an entity must not have to be
+   * present in the query.
+   *
+   * @return the excluded component classes
+   * @since 0.3.0
+   */
+  Class<?>[] without() default {};
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.system;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import space.vectrix.inertia.Universe;
+
+/**
+ * Represents a {@link System} that processes its work incrementally,
+ * within a time budget per tick.
+ *
+ * <p>In the execution stage the universe processes the work from a
+ * cursor, until either the pass is complete, the {@link #budget()} of
+ * the system is spent or the remaining {@link Universe#budget()} of the
+ * tick is spent. The next tick resumes from the cursor it stopped at.</p>
+ *
+ * <p>At least one unit of work is processed per tick, so the system
+ * always makes progress.</p>
+ *
+ * @since 0.3.0
+ */
+public interface SlicedSystem extends System {
+  /**
+   * Returns the {@code long} time budget per tick of this system, in
+   * nanoseconds.
+   *
+   * @return the time budget
+   * @since 0.3.0
+   */
+  @NonNegative long budget();
+
+  /**
+   * Processes the unit of work at the specified {@code int} cursor and
+   * returns {@code true}, otherwise returns {@code false} if the cursor
+   * is past the end of the work and the pass is complete.
+   *
+   * <p>Once a pass completes the cursor restarts from {@code 0} on the
+   * next tick.</p>
+   *
+   * @param cursor the work cursor
+   * @return whether work was processed
+   * @throws Throwable when there is an issue processing
+   * @since 0.3.0
+   */
+  boolean process(final @NonNegative int cursor) throws Throwable;
+
+  /**
+   * Processes a complete pass of the work, ignoring the budget.
+   *
+   * <p>The universe does not call this, it slices the work with
+   * {@link #process(int)} instead.</p>
+   *
+   * @throws Throwable when there is an issue processing
+   * @since 0.3.0
+   */
+  @Override
+  default void execute() throws Throwable {
+    for(int cursor = 0; this.process(cursor); cursor++);
+  }
+}
@@ -25,6 +25,9 @@
 package space.vectrix.inertia.system;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.Universe;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
 
 import static java.util.Objects.requireNonNull;
 
@@ -45,6 +48,52 @@ public interface System extends Comparable<System> {
     return 0;
   }
 
+  /**
+   * Returns the {@code int} tick interval of this system.
+   *
+   * <p>A system with an interval of {@code n} is prepared, executed and
+   * sanitized every {@code n}th tick. Systems sharing an interval are
+   * staggered across ticks, so their load is spread out rather than
+   * landing on the same tick.</p>
+   *
+   * @return the tick interval
+   * @since 0.3.0
+   */
+  default int interval() {
+    return 1;
+  }
+
+  /**
+   * Returns {@code true} if this system may block in
+   * {@link System#execute()}, otherwise returns {@code false}.
+   *
+   * <p>Blocking systems are executed on virtual threads where available,
+   * otherwise on a shared thread pool, concurrently with the rest of the
+   * execution stage. The tick joins them before the sanitization stage
+   * and collects their errors, so they must only touch state that is
+   * safe to access concurrently, other than {@link Resource}s they
+   * declare, which are ordered by {@link Resource#write()}.</p>
+   *
+   * <p>{@link Universe#tick()} keeps the universe locked while blocking
+   * systems run, whereas {@link Universe#tickAsync(java.util.concurrent.Executor)}
+   * releases the lock once the execution stage has started them and takes
+   * it again for sanitization. On either path they make structural changes
+   * through the removal queues, such as {@link Universe#removeEntity(Entity)}
+   * and {@link Universe#removeComponent(Entity, ComponentType)}, which are
+   * applied on sanitization, and are rejected with an
+   * {@link IllegalStateException} when they transfer entities or destroy
+   * the universe.</p>
+   *
+   * <p>By default a system is blocking if it is annotated with
+   * {@link Blocking}.</p>
+   *
+   * @return whether this system is blocking
+   * @since 0.3.0
+   */
+  default boolean blocking() {
+    return this.getClass().isAnnotationPresent(Blocking.class);
+  }
+
   /**
    * Returns {@code true} if this system has been initialized, otherwise
    * returns {@code false}.
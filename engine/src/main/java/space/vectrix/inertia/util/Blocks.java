@@ -0,0 +1,108 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.util;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Utilities for writing and reading checksummed blocks of data.
+ *
+ * <p>Each block is written as a magic {@code int}, the payload length as an
+ * {@code int}, the CRC32 checksum of the payload as a {@code long}, followed
+ * by the payload itself.</p>
+ *
+ * @since 0.3.0
+ */
+public final class Blocks {
+  private static final int HEADER_SIZE = 16;
+
+  private Blocks() {
+  }
+
+  /**
+   * Writes the specified payload as a block to the {@link WritableByteChannel}
+   * at its current position.
+   *
+   * @param channel the channel
+   * @param magic the block magic
+   * @param payload the payload
+   * @param length the payload length
+   * @throws IOException if the block could not be written
+   * @since 0.3.0
+   */
+  public static void write(final @NonNull WritableByteChannel channel, final int magic, final byte @NonNull [] payload, final @NonNegative int length) throws IOException {
+    requireNonNull(channel, "channel");
+    requireNonNull(payload, "payload");
+    final CRC32 checksum = new CRC32();
+    checksum.update(payload, 0, length);
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(magic).putInt(length).putLong(checksum.getValue()).flip();
+    final ByteBuffer body = ByteBuffer.wrap(payload, 0, length);
+    while(header.hasRemaining()) channel.write(header);
+    while(body.hasRemaining()) channel.write(body);
+  }
+
+  /**
+   * Returns a {@link DataInputStream} of the payload of the next block in
+   * the array backed {@link ByteBuffer} and advances past it, otherwise
+   * returns {@code null} if the next block is incomplete or corrupt.
+   *
+   * @param data the data
+   * @param magic the block magic
+   * @return the block payload, if valid
+   * @since 0.3.0
+   */
+  public static @Nullable DataInputStream read(final @NonNull ByteBuffer data, final int magic) {
+    requireNonNull(data, "data");
+    if(data.remaining() < HEADER_SIZE) return null;
+    final int start = data.position();
+    final int length;
+    if(data.getInt() != magic || (length = data.getInt()) < 0 || data.remaining() - Long.BYTES < length) {
+      data.position(start);
+      return null;
+    }
+    final long checksum = data.getLong();
+    final CRC32 crc = new CRC32();
+    crc.update(data.array(), data.arrayOffset() + data.position(), length);
+    if(crc.getValue() != checksum) {
+      data.position(start);
+      return null;
+    }
+    final DataInputStream input = new DataInputStream(new ByteArrayInputStream(data.array(), data.arrayOffset() + data.position(), length));
+    data.position(data.position() + length);
+    return input;
+  }
+}
@@ -102,4 +102,23 @@ public interface IndexCounter {
    * @since 0.3.0
    */
   <T> @NonNull T next(final @NonNull IntFunction<T> consumer) throws UnavailableIndexException;
+
+  /**
+   * Retrieves the first index of the next contiguous range of the specified
+   * {@code int} count of available indexes for this counter and passes it
+   * to the {@link IntFunction} and returns the {@code T}, otherwise throws
+   * a {@link UnavailableIndexException}.
+   *
+   * <p>The consumer will be run while inside a lock, which should then be
+   * used to update the backing unavailable index set for the whole
+   * range.</p>
+   *
+   * @param count the number of indexes
+   * @param consumer the first index consumer
+   * @param <T> the return type
+   * @return an object
+   * @throws UnavailableIndexException when there is no available range
+   * @since 0.3.0
+   */
+  <T> @NonNull T next(final @NonNegative int count, final @NonNull IntFunction<T> consumer) throws UnavailableIndexException;
 }
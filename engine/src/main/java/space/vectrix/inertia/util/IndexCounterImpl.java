@@ -79,4 +79,29 @@ import static java.util.Objects.requireNonNull;
       }
     }
   }
+
+  @Override
+  public <T> @NonNull T next(final @NonNegative int count, final @NonNull IntFunction<T> consumer) throws UnavailableIndexException {
+    requireNonNull(consumer, "consumer");
+    if(count < 0) throw new IllegalArgumentException("Count must not be negative!");
+    synchronized(this.lock) {
+      int lap = 0;
+      int start = this.counter().get();
+      for(; ; ) {
+        if(start < 0 || start > Integer.MAX_VALUE - count) {
+          if(lap++ > 0) throw new UnavailableIndexException("Reached maximum index space for counter '" + this.identifier + "'!");
+          start = 0;
+          continue;
+        }
+        int end = start;
+        while(end < start + count && !this.indexes.contains(end)) end++;
+        if(end == start + count) {
+          this.counter().set(end);
+          return consumer.apply(start);
+        }
+        // Skip past the unavailable index and search again from there.
+        start = end + 1;
+      }
+    }
+  }
 }
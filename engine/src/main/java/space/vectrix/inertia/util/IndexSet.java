@@ -0,0 +1,384 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.util;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A set of {@code int} indexes backed by a paged bitset.
+ *
+ * <p>Pages are allocated as indexes are added and released once they are
+ * empty, so memory follows the live indexes rather than the largest index
+ * ever added.</p>
+ *
+ * <p>Modifications are synchronized, while reads and iteration are weakly
+ * consistent and never block.</p>
+ *
+ * @since 0.3.0
+ */
+public final class IndexSet {
+  private static final int PAGE_SHIFT = 6;
+  private static final int PAGE_WORDS = 1 << IndexSet.PAGE_SHIFT;
+  private static final int PAGE_MASK = IndexSet.PAGE_WORDS - 1;
+
+  private volatile long[][] pages;
+  private volatile int size;
+
+  /**
+   * Creates a new empty index set.
+   *
+   * @since 0.3.0
+   */
+  public IndexSet() {
+    this(64);
+  }
+
+  /**
+   * Creates a new empty index set, sized to hold indexes up to the
+   * specified {@code int} capacity without resizing.
+   *
+   * @param capacity the initial capacity
+   * @since 0.3.0
+   */
+  public IndexSet(final @NonNegative int capacity) {
+    this.pages = new long[IndexSet.pageIndex(IndexSet.wordIndex(Math.max(capacity, 1) - 1)) + 1][];
+  }
+
+  /**
+   * Returns the {@code int} number of indexes in this set.
+   *
+   * @return the number of indexes
+   * @since 0.3.0
+   */
+  public @NonNegative int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns {@code true} if this set contains no indexes, otherwise
+   * {@code false}.
+   *
+   * @return whether the set is empty
+   * @since 0.3.0
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns {@code true} if this set contains the specified {@code int}
+   * index, otherwise {@code false}.
+   *
+   * @param index the index
+   * @return whether the index is present
+   * @since 0.3.0
+   */
+  public boolean contains(final int index) {
+    if(index < 0) return false;
+    final long[][] pages = this.pages;
+    final int word = IndexSet.wordIndex(index);
+    final int page = IndexSet.pageIndex(word);
+    if(page >= pages.length) return false;
+    final long[] words = pages[page];
+    return words != null && (words[word & IndexSet.PAGE_MASK] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the next {@code int} index in this set at or after the
+   * specified index, otherwise {@code -1}.
+   *
+   * @param from the index to search from
+   * @return the next index, or -1
+   * @since 0.3.0
+   */
+  public int next(final @NonNegative int from) {
+    final long[][] pages = this.pages;
+    int word = IndexSet.wordIndex(from);
+    long mask = -1L << from;
+    // Released pages are skipped whole.
+    for(int page = IndexSet.pageIndex(word); page < pages.length; page++, word = page << IndexSet.PAGE_SHIFT, mask = -1L) {
+      final long[] words = pages[page];
+      if(words == null) continue;
+      for(int slot = word & IndexSet.PAGE_MASK; slot < IndexSet.PAGE_WORDS; slot++, mask = -1L) {
+        final long bits = words[slot] & mask;
+        if(bits != 0) return (((page << IndexSet.PAGE_SHIFT) | slot) << 6) + Long.numberOfTrailingZeros(bits);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns {@code true} if the specified {@code int} index was added to
+   * this set, otherwise {@code false}.
+   *
+   * @param index the index
+   * @return whether the index was added
+   * @since 0.3.0
+   */
+  public synchronized boolean add(final @NonNegative int index) {
+    if(index < 0) throw new IllegalArgumentException("Index must not be negative!");
+    final int word = IndexSet.wordIndex(index);
+    final long[] words = this.page(IndexSet.pageIndex(word));
+    final int slot = word & IndexSet.PAGE_MASK;
+    final long bit = 1L << index;
+    final long value = words[slot];
+    if((value & bit) != 0) return false;
+    words[slot] = value | bit;
+    this.size++;
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if the specified {@code int} index was removed
+   * from this set, otherwise {@code false}.
+   *
+   * @param index the index
+   * @return whether the index was removed
+   * @since 0.3.0
+   */
+  public synchronized boolean remove(final int index) {
+    if(index < 0) return false;
+    final int word = IndexSet.wordIndex(index);
+    final int page = IndexSet.pageIndex(word);
+    if(page >= this.pages.length) return false;
+    final long[] words = this.pages[page];
+    if(words == null) return false;
+    final int slot = word & IndexSet.PAGE_MASK;
+    final long bit = 1L << index;
+    final long value = words[slot];
+    if((value & bit) == 0) return false;
+    words[slot] = value & ~bit;
+    this.size--;
+    if(words[slot] == 0) this.release(page);
+    return true;
+  }
+
+  /**
+   * Adds all the indexes from the specified {@code int} index inclusive,
+   * to the specified {@code int} index exclusive, to this set.
+   *
+   * @param from the first index
+   * @param to the index after the last
+   * @since 0.3.0
+   */
+  public synchronized void addRange(final @NonNegative int from, final @NonNegative int to) {
+    if(from < 0 || to < from) throw new IllegalArgumentException("Range must not be negative!");
+    if(from == to) return;
+    final int first = IndexSet.wordIndex(from);
+    final int last = IndexSet.wordIndex(to - 1);
+    int added = 0;
+    for(int word = first; word <= last; word++) {
+      final long[] words = this.page(IndexSet.pageIndex(word));
+      final int slot = word & IndexSet.PAGE_MASK;
+      long mask = -1L;
+      if(word == first) mask &= -1L << from;
+      if(word == last) mask &= -1L >>> -to;
+      added += Long.bitCount(mask & ~words[slot]);
+      words[slot] |= mask;
+    }
+    this.size += added;
+  }
+
+  /**
+   * Adds all the indexes in the specified {@link IndexSet} to this set.
+   *
+   * @param other the other set
+   * @since 0.3.0
+   */
+  public void addAll(final @NonNull IndexSet other) {
+    requireNonNull(other, "other");
+    final long[][] pages = other.pages();
+    synchronized(this) {
+      int added = 0;
+      for(int page = 0; page < pages.length; page++) {
+        final long[] words = pages[page];
+        if(words == null) continue;
+        final long[] current = this.page(page);
+        for(int slot = 0; slot < IndexSet.PAGE_WORDS; slot++) {
+          added += Long.bitCount(words[slot] & ~current[slot]);
+          current[slot] |= words[slot];
+        }
+      }
+      this.size += added;
+    }
+  }
+
+  /**
+   * Retains only the indexes in this set that are also in the specified
+   * {@link IndexSet}.
+   *
+   * @param other the other set
+   * @since 0.3.0
+   */
+  public void retainAll(final @NonNull IndexSet other) {
+    requireNonNull(other, "other");
+    final long[][] pages = other.pages();
+    synchronized(this) {
+      final long[][] current = this.pages;
+      int removed = 0;
+      for(int page = 0; page < current.length; page++) {
+        final long[] words = current[page];
+        if(words == null) continue;
+        final long[] retained = page < pages.length ? pages[page] : null;
+        for(int slot = 0; slot < IndexSet.PAGE_WORDS; slot++) {
+          final long mask = retained != null ? retained[slot] : 0L;
+          removed += Long.bitCount(words[slot] & ~mask);
+          words[slot] &= mask;
+        }
+        this.release(page);
+      }
+      this.size -= removed;
+    }
+  }
+
+  /**
+   * Removes all the indexes in this set that are in the specified
+   * {@link IndexSet}.
+   *
+   * @param other the other set
+   * @since 0.3.0
+   */
+  public void removeAll(final @NonNull IndexSet other) {
+    requireNonNull(other, "other");
+    final long[][] pages = other.pages();
+    synchronized(this) {
+      final long[][] current = this.pages;
+      final int length = Math.min(current.length, pages.length);
+      int removed = 0;
+      for(int page = 0; page < length; page++) {
+        final long[] words = current[page];
+        final long[] masks = pages[page];
+        if(words == null || masks == null) continue;
+        for(int slot = 0; slot < IndexSet.PAGE_WORDS; slot++) {
+          removed += Long.bitCount(words[slot] & masks[slot]);
+          words[slot] &= ~masks[slot];
+        }
+        this.release(page);
+      }
+      this.size -= removed;
+    }
+  }
+
+  /**
+   * Removes all the indexes from this set.
+   *
+   * @since 0.3.0
+   */
+  public synchronized void clear() {
+    Arrays.fill(this.pages, null);
+    this.size = 0;
+  }
+
+  /**
+   * Returns a copy of this set.
+   *
+   * @return a copy of this set
+   * @since 0.3.0
+   */
+  public @NonNull IndexSet copy() {
+    final IndexSet copy = new IndexSet(0);
+    synchronized(this) {
+      copy.pages = this.pages();
+      copy.size = this.size;
+    }
+    return copy;
+  }
+
+  /**
+   * Returns an {@link IntIterator} of the indexes in this set, in
+   * ascending order.
+   *
+   * <p>Calling {@link IntIterator#remove()} will remove the index
+   * from this set.</p>
+   *
+   * @return an iterator of indexes
+   * @since 0.3.0
+   */
+  public @NonNull IntIterator iterator() {
+    return new IndexIterator();
+  }
+
+  private synchronized long @NonNull [] @NonNull [] pages() {
+    final long[][] pages = this.pages.clone();
+    for(int page = 0; page < pages.length; page++) {
+      if(pages[page] != null) pages[page] = pages[page].clone();
+    }
+    return pages;
+  }
+
+  private long @NonNull [] page(final @NonNegative int page) {
+    if(page >= this.pages.length) this.pages = Arrays.copyOf(this.pages, Math.max(page + 1, this.pages.length << 1));
+    final long[] words = this.pages[page];
+    if(words != null) return words;
+    return this.pages[page] = new long[IndexSet.PAGE_WORDS];
+  }
+
+  private void release(final @NonNegative int page) {
+    final long[] words = this.pages[page];
+    for(int slot = 0; slot < IndexSet.PAGE_WORDS; slot++) {
+      if(words[slot] != 0) return;
+    }
+    this.pages[page] = null;
+  }
+
+  private static int wordIndex(final @NonNegative int index) {
+    return index >>> 6;
+  }
+
+  private static int pageIndex(final @NonNegative int word) {
+    return word >>> IndexSet.PAGE_SHIFT;
+  }
+
+  /* package */ final class IndexIterator implements IntIterator {
+    private int next = IndexSet.this.next(0);
+    private int current = -1;
+
+    @Override
+    public boolean hasNext() {
+      return this.next >= 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if((this.current = this.next) < 0) throw new NoSuchElementException();
+      this.next = this.current == Integer.MAX_VALUE ? -1 : IndexSet.this.next(this.current + 1);
+      return this.current;
+    }
+
+    @Override
+    public void remove() {
+      if(this.current < 0) throw new IllegalStateException();
+      IndexSet.this.remove(this.current);
+      this.current = -1;
+    }
+  }
+}
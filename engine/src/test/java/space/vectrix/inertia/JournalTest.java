@@ -0,0 +1,257 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.AbstractEntity;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.journal.Journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTest {
+  @Test
+  public void testRestoreJournal(final @TempDir Path directory) throws IOException {
+    final Universe universe = Universe.create();
+    final ComponentType valueType = ComponentType.create(universe, ValueExample.class);
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+
+    final Journal journal = Journal.create(universe, directory, 100);
+    journal.codec(ValueExample.class, new ValueCodec());
+    assertDoesNotThrow(journal::open, "Journal opening should not throw an exception.");
+    assertTrue(journal.recording(), "Journal should be recording.");
+
+    final Entity firstEntity = universe.createEntity();
+    final Entity secondEntity = universe.createEntity();
+    final ValueExample firstValue = universe.addComponent(firstEntity, valueType);
+    firstValue.value = 5;
+    universe.addComponent(secondEntity, markerType);
+    universe.tick();
+
+    firstValue.value = 10;
+    universe.markChanged(firstEntity, valueType);
+    universe.removeEntity(secondEntity);
+    universe.tick();
+    journal.close();
+    assertFalse(journal.recording(), "Journal should not be recording.");
+
+    final Universe restored = Universe.create();
+    final ComponentType restoredValueType = ComponentType.create(restored, ValueExample.class);
+    ComponentType.create(restored, MarkerExample.class);
+    final Journal restoredJournal = Journal.create(restored, directory, 100);
+    restoredJournal.codec(ValueExample.class, new ValueCodec());
+    assertDoesNotThrow(restoredJournal::open, "Journal restoring should not throw an exception.");
+
+    final ValueExample restoredValue = restored.getComponent(firstEntity.index(), restoredValueType);
+    assertNotNull(restoredValue, "Component should be restored.");
+    assertEquals(10, restoredValue.value, "Component value should be restored.");
+    assertNull(restored.getEntity(secondEntity.index()), "Destroyed entity should not be restored.");
+    restoredJournal.close();
+  }
+
+  @Test
+  public void testRestoreEntityFunction(final @TempDir Path directory) throws IOException {
+    final Universe universe = Universe.create();
+    final Journal journal = Journal.create(universe, directory, 100);
+    journal.open();
+
+    final Entity firstEntity = universe.createEntity(EntityExample::new);
+    journal.compact();
+    final Entity secondEntity = universe.createEntity(EntityExample::new);
+    universe.tick();
+    journal.close();
+
+    final Universe restored = Universe.create();
+    final Journal restoredJournal = Journal.create(restored, directory, 100, EntityExample::new);
+    assertDoesNotThrow(restoredJournal::open, "Journal restoring should not throw an exception.");
+    assertNotNull(restored.getEntity(firstEntity.index(), EntityExample.class), "Snapshot entity should be restored with the entity function.");
+    assertNotNull(restored.getEntity(secondEntity.index(), EntityExample.class), "Journaled entity should be restored with the entity function.");
+    restoredJournal.close();
+  }
+
+  @Test
+  public void testTornJournal(final @TempDir Path directory) throws IOException {
+    final Universe universe = Universe.create();
+    final ComponentType valueType = ComponentType.create(universe, ValueExample.class);
+    final Journal journal = Journal.create(universe, directory, 100);
+    journal.open();
+
+    final Entity entity = universe.createEntity();
+    universe.addComponent(entity, valueType);
+    universe.tick();
+    journal.close();
+
+    Files.write(directory.resolve("journal.dat"), new byte[] {0x49, 0x4A, 0x42}, StandardOpenOption.APPEND);
+
+    final Universe restored = Universe.create();
+    final ComponentType restoredValueType = ComponentType.create(restored, ValueExample.class);
+    final Journal restoredJournal = Journal.create(restored, directory, 100);
+    assertDoesNotThrow(restoredJournal::open, "Journal restoring should not throw an exception.");
+    assertTrue(restored.hasComponent(entity.index(), restoredValueType), "Component should be restored.");
+    restoredJournal.close();
+  }
+
+  @Test
+  public void testCompactionCrash(final @TempDir Path directory) throws IOException {
+    final Universe universe = Universe.create();
+    final ComponentType valueType = ComponentType.create(universe, ValueExample.class);
+    final Journal journal = Journal.create(universe, directory, 100);
+    journal.codec(ValueExample.class, new ValueCodec());
+    journal.open();
+
+    final Entity entity = universe.createEntity();
+    universe.<ValueExample>addComponent(entity, valueType).value = 5;
+    universe.markChanged(entity, valueType);
+    universe.tick();
+    final byte[] batches = Files.readAllBytes(directory.resolve("journal.dat"));
+    universe.<ValueExample>getComponent(entity, valueType).value = 8;
+    journal.compact();
+    journal.close();
+
+    // Simulates a crash after the snapshot was replaced, but before the
+    // journal was truncated.
+    Files.write(directory.resolve("journal.dat"), batches);
+
+    final Universe restored = Universe.create();
+    final ComponentType restoredValueType = ComponentType.create(restored, ValueExample.class);
+    final Journal restoredJournal = Journal.create(restored, directory, 100);
+    restoredJournal.codec(ValueExample.class, new ValueCodec());
+    assertDoesNotThrow(restoredJournal::open, "Journal restoring should not throw an exception.");
+    assertEquals(8, restored.<ValueExample>getComponent(entity.index(), restoredValueType).value, "Batches covered by the snapshot should not be replayed.");
+    restoredJournal.close();
+  }
+
+  @Test
+  public void testRestoreUnresolvedTypes(final @TempDir Path directory) throws IOException {
+    final UniverseImpl universe = (UniverseImpl) Universe.create();
+    final ComponentType baseType = ComponentType.create(universe, BaseExample.class);
+    final Journal journal = Journal.create(universe, directory, 100);
+    journal.codec(BaseExample.class, new BaseCodec());
+    journal.open();
+
+    final Entity firstEntity = universe.createEntity();
+    final DerivedExample derived = new DerivedExample();
+    derived.value = 5;
+    universe.attachComponent(firstEntity.index(), baseType, derived);
+    universe.addComponent(firstEntity, ComponentType.create(universe, MarkerExample.class));
+    journal.compact();
+
+    final Entity secondEntity = universe.createEntity();
+    universe.<BaseExample>addComponent(secondEntity, baseType).value = 10;
+    universe.markChanged(secondEntity, baseType);
+    universe.addComponent(secondEntity, ComponentType.create(universe, PresenceExample.class));
+    universe.tick();
+    journal.close();
+
+    final Universe restored = Universe.create();
+    final Journal restoredJournal = Journal.create(restored, directory, 100);
+    restoredJournal.codec(BaseExample.class, new BaseCodec());
+    assertDoesNotThrow(restoredJournal::open, "Journal restoring should not throw an exception.");
+
+    final ComponentType restoredType = restored.getType(BaseExample.class);
+    assertNotNull(restoredType, "Component type should be resolved by its id.");
+    assertEquals(5, restored.<BaseExample>getComponent(firstEntity.index(), restoredType).value, "Snapshot should contain the derived component.");
+    assertEquals(10, restored.<BaseExample>getComponent(secondEntity.index(), restoredType).value, "Journal should contain the component.");
+    final ComponentType markerType = restored.getType(MarkerExample.class);
+    final ComponentType presenceType = restored.getType(PresenceExample.class);
+    assertNotNull(markerType, "Component type without a codec should be resolved by its class from the snapshot.");
+    assertNotNull(presenceType, "Component type without a codec should be resolved by its class from the journal.");
+    assertTrue(restored.hasComponent(restored.getEntity(firstEntity.index()), markerType), "Snapshot should contain the component without a codec.");
+    assertTrue(restored.hasComponent(restored.getEntity(secondEntity.index()), presenceType), "Journal should contain the component without a codec.");
+    restoredJournal.close();
+  }
+
+  @Component(id = "value_example", name = "Value Example")
+  static final class ValueExample {
+    private int value;
+  }
+
+  @Component(id = "marker_example", name = "Marker Example")
+  static final class MarkerExample {
+    // No-op
+  }
+
+  @Component(id = "presence_example", name = "Presence Example")
+  static final class PresenceExample {
+    // No-op
+  }
+
+  static final class EntityExample extends AbstractEntity {
+    private EntityExample(final @NonNull Universe universe, final @NonNegative int index) {
+      super(universe, index);
+    }
+  }
+
+  @Component(id = "base_example", name = "Base Example")
+  static class BaseExample {
+    protected int value;
+  }
+
+  static final class DerivedExample extends BaseExample {
+    // No-op
+  }
+
+  static final class BaseCodec implements ComponentCodec<BaseExample> {
+    @Override
+    public void encode(final BaseExample component, final DataOutput output) throws IOException {
+      output.writeInt(component.value);
+    }
+
+    @Override
+    public void decode(final BaseExample component, final DataInput input) throws IOException {
+      component.value = input.readInt();
+    }
+  }
+
+  static final class ValueCodec implements ComponentCodec<ValueExample> {
+    @Override
+    public void encode(final ValueExample component, final DataOutput output) throws IOException {
+      output.writeInt(component.value);
+    }
+
+    @Override
+    public void decode(final ValueExample component, final DataInput input) throws IOException {
+      component.value = input.readInt();
+    }
+  }
+}
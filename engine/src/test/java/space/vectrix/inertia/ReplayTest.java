@@ -0,0 +1,221 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentCodec;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.replay.Recorder;
+import space.vectrix.inertia.replay.ReplayReport;
+import space.vectrix.inertia.replay.Replayer;
+import space.vectrix.inertia.system.System;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+  @Test
+  public void testRecordReplay(final @TempDir Path directory) throws IOException {
+    final Path path = directory.resolve("recording.dat");
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, CounterExample.class);
+    universe.addSystem(new CounterSystem(universe, type));
+
+    final Recorder recorder = Recorder.create(universe, path);
+    recorder.codec(CounterExample.class, new CounterCodec());
+    assertDoesNotThrow(recorder::start, "Recorder starting should not throw an exception.");
+
+    final Entity firstEntity = universe.createEntity();
+    final CounterExample counter = universe.addComponent(firstEntity, type);
+    counter.count = 5;
+    recorder.input(new byte[] {1, 2, 3});
+    universe.tick();
+
+    final Entity secondEntity = universe.createEntity();
+    universe.addComponent(secondEntity, type);
+    universe.tick();
+
+    universe.removeEntity(firstEntity);
+    universe.tick();
+
+    final Entity thirdEntity = universe.createEntity();
+    universe.<CounterExample>addComponent(thirdEntity, type).count = 7;
+    recorder.close();
+
+    final Universe replayed = Universe.create();
+    final ComponentType replayedType = ComponentType.create(replayed, CounterExample.class);
+    replayed.addSystem(new CounterSystem(replayed, replayedType));
+
+    final List<byte[]> inputs = new ArrayList<>();
+    final Replayer replayer = Replayer.create(replayed, path);
+    replayer.codec(CounterExample.class, new CounterCodec());
+    replayer.input(inputs::add);
+    final ReplayReport report = assertDoesNotThrow(replayer::run, "Replaying should not throw an exception.");
+
+    assertEquals(3, report.ticks(), "Report should contain 3 ticks.");
+    assertEquals(0, report.errors(), "Report should not contain any errors.");
+    assertEquals(1, inputs.size(), "Replay should contain 1 input.");
+    assertArrayEquals(new byte[] {1, 2, 3}, inputs.get(0), "Replay input should equal the recorded input.");
+    assertEquals(universe.getEntity(firstEntity.index()) != null, replayed.getEntity(firstEntity.index()) != null, "Replayed entity should match the recorded entity.");
+
+    final CounterExample replayedCounter = replayed.getComponent(secondEntity.index(), replayedType);
+    assertNotNull(replayedCounter, "Replayed component should exist.");
+    assertEquals(universe.<CounterExample>getComponent(secondEntity, type).count, replayedCounter.count, "Replayed component should equal the recorded component.");
+
+    final CounterExample trailingCounter = replayed.getComponent(thirdEntity.index(), replayedType);
+    assertNotNull(trailingCounter, "Commands after the last tick should be replayed.");
+    assertEquals(7, trailingCounter.count, "Commands after the last tick should not be ticked.");
+  }
+
+  @Test
+  public void testRecordReplayAsync(final @TempDir Path directory) throws IOException, InterruptedException {
+    final Path path = directory.resolve("recording.dat");
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, CounterExample.class);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+    universe.addSystem(new CounterSystem(universe, type));
+    universe.addSystem(new SpawnSystem(universe, type));
+    universe.addSystem(new System() {
+      @Override
+      public boolean blocking() {
+        return true;
+      }
+
+      @Override
+      public void execute() throws InterruptedException {
+        started.countDown();
+        released.await(5, TimeUnit.SECONDS);
+      }
+    });
+
+    final Recorder recorder = Recorder.create(universe, path);
+    recorder.codec(CounterExample.class, new CounterCodec());
+    assertDoesNotThrow(recorder::start, "Recorder starting should not throw an exception.");
+
+    // Every stage runs on a new thread, so no thread is the ticking thread.
+    final Executor executor = command -> new Thread(command).start();
+    final Entity entity = universe.createEntity();
+    universe.addComponent(entity, type);
+    final CompletableFuture<Universe.Tick> suspended = universe.tickAsync(executor);
+    assertTrue(started.await(5, TimeUnit.SECONDS), "Blocking system should be executed.");
+    // The commands are issued from this thread while the tick is suspended
+    // in the blocking system, so they are not issued by the systems.
+    final Entity concurrent = universe.createEntity();
+    universe.addComponent(concurrent, type);
+    released.countDown();
+    suspended.join();
+    universe.tickAsync(executor).join();
+    universe.createEntity();
+    universe.tickAsync(executor).join();
+    recorder.close();
+
+    final Universe replayed = Universe.create();
+    final ComponentType replayedType = ComponentType.create(replayed, CounterExample.class);
+    replayed.addSystem(new CounterSystem(replayed, replayedType));
+    replayed.addSystem(new SpawnSystem(replayed, replayedType));
+
+    final Replayer replayer = Replayer.create(replayed, path);
+    replayer.codec(CounterExample.class, new CounterCodec());
+    final ReplayReport report = assertDoesNotThrow(replayer::run, "Replaying should not throw an exception.");
+
+    assertEquals(3, report.ticks(), "Report should contain 3 ticks.");
+    assertEquals(0, report.errors(), "Report should not contain any errors.");
+    assertEquals(count(universe.entities()), count(replayed.entities()), "Replayed entities should match the recorded entities.");
+    assertEquals(count(universe.components(type)), count(replayed.components(replayedType)), "Replayed components should match the recorded components.");
+    assertEquals(universe.<CounterExample>getComponent(entity, type).count, replayed.<CounterExample>getComponent(entity.index(), replayedType).count, "Replayed component should equal the recorded component.");
+  }
+
+  private static int count(final Iterator<?> iterator) {
+    int count = 0;
+    for(; iterator.hasNext(); iterator.next()) count++;
+    return count;
+  }
+
+  static final class CounterSystem implements System {
+    private final Universe universe;
+    private final ComponentType type;
+
+    CounterSystem(final Universe universe, final ComponentType type) {
+      this.universe = universe;
+      this.type = type;
+    }
+
+    @Override
+    public void execute() {
+      this.universe.<CounterExample>components(this.type).forEachRemaining(counter -> counter.count++);
+    }
+  }
+
+  static final class SpawnSystem implements System {
+    private final Universe universe;
+    private final ComponentType type;
+
+    SpawnSystem(final Universe universe, final ComponentType type) {
+      this.universe = universe;
+      this.type = type;
+    }
+
+    @Override
+    public void execute() {
+      this.universe.addComponent(this.universe.createEntity(), this.type);
+    }
+  }
+
+  @Component(id = "counter_example", name = "Counter Example")
+  static final class CounterExample {
+    private int count;
+  }
+
+  static final class CounterCodec implements ComponentCodec<CounterExample> {
+    @Override
+    public void encode(final CounterExample component, final DataOutput output) throws IOException {
+      output.writeInt(component.count);
+    }
+
+    @Override
+    public void decode(final CounterExample component, final DataInput input) throws IOException {
+      component.count = input.readInt();
+    }
+  }
+}
@@ -24,25 +24,57 @@
  */
 package space.vectrix.inertia;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.junit.jupiter.api.Test;
 import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentCodec;
 import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.component.ComponentTypeRegistry;
 import space.vectrix.inertia.entity.AbstractEntity;
 import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityFilter;
 import space.vectrix.inertia.entity.EntityStash;
+import space.vectrix.inertia.entity.Prefab;
+import space.vectrix.inertia.index.ComponentIndex;
+import space.vectrix.inertia.index.SortedQuery;
+import space.vectrix.inertia.journal.JournalTarget;
+import space.vectrix.inertia.relation.Relation;
+import space.vectrix.inertia.snapshot.Snapshot;
+import space.vectrix.inertia.spatial.SpatialIndex;
+import space.vectrix.inertia.system.Blocking;
+import space.vectrix.inertia.system.SlicedSystem;
 import space.vectrix.inertia.system.System;
 import space.vectrix.inertia.util.CustomIterator;
-
+import space.vectrix.inertia.util.IndexSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -365,6 +397,371 @@ class UniverseTest {
     assertDoesNotThrow(() -> universe.removeEntity(thirdEntity), "Removing an entity from the universe should not throw an exception.");
     assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
     assertFalse(stash.contains(thirdEntity), "Stash should not contain the entity.");
+
+    final Entity fourthEntity = universe.createEntity();
+    assertTrue(stash.add(fourthEntity), "Stash should add the entity.");
+    assertDoesNotThrow(stash::close, "Closing the stash should not throw an exception.");
+    assertFalse(stash.contains(fourthEntity), "Stash should not contain the entity.");
+  }
+
+  @Test
+  public void testBitsetEntityStash() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+
+    final Entity firstEntity = universe.createEntity();
+    final Entity secondEntity = universe.createEntity();
+    final Entity thirdEntity = universe.createEntity();
+    universe.addComponent(secondEntity, type);
+
+    final EntityStash first = assertDoesNotThrow(() -> EntityStash.bitset(universe), "Entity stash creation should not throw an exception.");
+    final EntityStash second = EntityStash.bitset(universe);
+    final EntityStash third = EntityStash.create(universe);
+    first.add(firstEntity);
+    first.add(secondEntity);
+    second.add(secondEntity);
+    second.add(thirdEntity);
+    third.add(thirdEntity);
+
+    first.addAll(second);
+    assertEquals(3, first.size(), "Stash should contain 3 entities.");
+    first.removeAll(third);
+    assertEquals(2, first.size(), "Stash should contain 2 entities.");
+    first.retainAll(second);
+    assertEquals(1, first.size(), "Stash should contain 1 entity.");
+    assertTrue(first.contains(secondEntity), "Stash should contain the entity.");
+
+    second.retainAll(type);
+    assertEquals(1, second.size(), "Stash should contain 1 entity.");
+    assertEquals(secondEntity.index(), second.indexes().nextInt(), "Stash should contain the entity index.");
+    third.addAll(second);
+    third.removeAll(type);
+    assertEquals(1, third.size(), "Stash should contain 1 entity.");
+    assertTrue(third.contains(thirdEntity), "Stash should contain the entity.");
+
+    universe.removeEntity(secondEntity);
+    assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
+    assertFalse(first.contains(secondEntity), "Stash should not contain the entity.");
+    second.add(secondEntity);
+    second.retainAll(type);
+    assertEquals(0, second.size(), "Stash should not contain any entities.");
+
+    final ComponentTypeRegistry registry = ComponentTypeRegistry.create();
+    final ComponentType shared = ComponentType.create(Universe.create(registry), ValueExample.class);
+    final Universe sharedUniverse = Universe.create(registry);
+    final EntityStash sharedStash = EntityStash.bitset(sharedUniverse);
+    sharedStash.add(sharedUniverse.createEntity());
+    assertDoesNotThrow(() -> sharedStash.removeAll(shared), "Removing by an unresolved shared type should not throw an exception.");
+    assertEquals(1, sharedStash.size(), "Bitset stash should keep entities without the shared component type.");
+    assertDoesNotThrow(() -> sharedStash.retainAll(shared), "Retaining by an unresolved shared type should not throw an exception.");
+    assertEquals(0, sharedStash.size(), "Bitset stash should drop entities without the shared component type.");
+  }
+
+  @Test
+  public void testIndexSet() {
+    final IndexSet first = new IndexSet();
+    first.addRange(4000, 8300);
+    first.add(Integer.MAX_VALUE);
+    assertEquals(4301, first.size(), "Set should contain the range and the largest index.");
+    assertEquals(4000, first.next(0), "Set should find the first index of the range.");
+    assertEquals(Integer.MAX_VALUE, first.next(8300), "Set should skip empty pages.");
+    assertTrue(first.remove(Integer.MAX_VALUE), "Largest index should be removed.");
+    assertEquals(-1, first.next(8300), "Set should not find a released page.");
+    assertFalse(first.contains(Integer.MAX_VALUE), "Set should not contain the removed index.");
+
+    final IndexSet second = new IndexSet();
+    second.addRange(0, 4100);
+    second.add(1 << 20);
+    final IndexSet union = first.copy();
+    union.addAll(second);
+    assertEquals(8301, union.size(), "Union should contain both sets.");
+    final IndexSet intersection = first.copy();
+    intersection.retainAll(second);
+    assertEquals(100, intersection.size(), "Intersection should contain the overlap.");
+    assertEquals(4000, intersection.next(0), "Intersection should start at the overlap.");
+    final IndexSet difference = first.copy();
+    difference.removeAll(second);
+    assertEquals(4200, difference.size(), "Difference should not contain the overlap.");
+    assertEquals(4100, difference.next(0), "Difference should start after the overlap.");
+    assertEquals(4301 - 1, first.size(), "Copies should not change the original set.");
+
+    int count = 0;
+    for(final IntIterator iterator = union.iterator(); iterator.hasNext(); iterator.nextInt()) count++;
+    assertEquals(union.size(), count, "Iteration should visit every index.");
+  }
+
+  @Test
+  public void testFilteredEntityStash() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+
+    final Entity firstEntity = universe.createEntity();
+    universe.addComponent(firstEntity, type);
+
+    final EntityStash stash = assertDoesNotThrow(() -> EntityStash.filtered(universe, EntityFilter.all(type).without(markerType)), "Entity stash creation should not throw an exception.");
+    assertTrue(stash.contains(firstEntity), "Stash should contain the existing entity.");
+    assertThrows(UnsupportedOperationException.class, () -> stash.add(firstEntity), "Adding an entity to the stash should throw an exception.");
+
+    final Entity secondEntity = universe.createEntity();
+    assertFalse(stash.contains(secondEntity), "Stash should not contain the entity.");
+    universe.addComponent(secondEntity, type);
+    assertTrue(stash.contains(secondEntity), "Stash should contain the entity.");
+    universe.addComponent(secondEntity, markerType);
+    assertFalse(stash.contains(secondEntity), "Stash should not contain the entity.");
+
+    universe.removeComponent(secondEntity, markerType);
+    universe.removeEntity(firstEntity);
+    assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
+    assertFalse(stash.contains(firstEntity), "Stash should not contain the entity.");
+    assertTrue(stash.contains(secondEntity), "Stash should contain the entity.");
+    assertEquals(1, stash.size(), "Stash should contain 1 entity.");
+
+    final ComponentTypeRegistry registry = ComponentTypeRegistry.create();
+    final ComponentType shared = ComponentType.create(Universe.create(registry), ValueExample.class);
+    final Universe sharedUniverse = Universe.create(registry);
+    final EntityStash sharedStash = assertDoesNotThrow(() -> EntityStash.filtered(sharedUniverse, EntityFilter.all(shared)), "Filtered stash of an unresolved shared type should not throw an exception.");
+    final Entity sharedEntity = sharedUniverse.createEntity();
+    sharedUniverse.addComponent(sharedEntity, shared);
+    assertTrue(sharedStash.contains(sharedEntity), "Filtered stash should track the shared component type.");
+  }
+
+  @Test
+  public void testStashPurge() {
+    final Universe universe = Universe.create();
+    final Universe target = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+    final int first = universe.createEntities(100, type);
+    final EntityStash[] stashes = {EntityStash.create(universe), EntityStash.bitset(universe), EntityStash.create(universe)};
+    for(final EntityStash stash : stashes) {
+      for(int i = first; i < first + 100; i++) stash.add(i);
+    }
+    final EntityStash filtered = EntityStash.filtered(universe, EntityFilter.all(type));
+    assertEquals(100, filtered.size(), "Filtered stash should contain 100 entities.");
+
+    for(int i = first; i < first + 50; i++) universe.removeEntity(i);
+    universe.tick();
+    final int[] transfers = new int[25];
+    for(int i = 0; i < transfers.length; i++) transfers[i] = first + 50 + i;
+    universe.transferEntities(transfers, target);
+    for(final EntityStash stash : stashes) {
+      assertEquals(25, stash.size(), "Stash should be purged of the destroyed and transferred entities.");
+      assertFalse(stash.contains(first), "Stash should not contain the destroyed entity.");
+      assertFalse(stash.contains(first + 50), "Stash should not contain the transferred entity.");
+      assertTrue(stash.contains(first + 75), "Stash should contain the remaining entity.");
+    }
+    assertEquals(25, filtered.size(), "Filtered stash should be purged of the destroyed and transferred entities.");
+    filtered.close();
+    universe.removeEntity(first + 75);
+    universe.tick();
+    assertEquals(0, filtered.size(), "Closed filtered stash should not be maintained.");
+  }
+
+  @Test
+  public void testTagComponent() {
+    final Universe universe = Universe.create();
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+    assertTrue(markerType.tag(), "Component type should be a tag.");
+
+    final Entity firstEntity = universe.createEntity();
+    final Entity secondEntity = universe.createEntity();
+    final MarkerExample marker = universe.addComponent(firstEntity, markerType);
+    assertNotNull(marker, "Tag component should not be null.");
+    assertEquals(marker, universe.addComponent(secondEntity, markerType), "Tag component should be shared.");
+    assertTrue(universe.hasComponent(firstEntity, markerType), "Entity should have the tag component.");
+    assertTrue(universe.hasComponent(firstEntity, MarkerExample.class), "Entity should have the tag component.");
+    assertEquals(marker, universe.getComponent(firstEntity, MarkerExample.class), "Tag component should be returned.");
+    assertTrue(firstEntity.components().hasNext(), "Entity components should contain the tag component.");
+
+    universe.removeComponent(firstEntity, markerType);
+    universe.removeEntity(secondEntity);
+    assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
+    assertFalse(universe.hasComponent(firstEntity, markerType), "Entity should not have the tag component.");
+    assertFalse(universe.components(markerType).hasNext(), "Tag component should not have any members.");
+  }
+
+  @Test
+  public void testCreateEntities() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+    final EntityStash stash = EntityStash.filtered(universe, EntityFilter.all(type, markerType));
+
+    universe.createEntity();
+    final int first = assertDoesNotThrow(() -> universe.createEntities(100, type, markerType), "Entity creation should not throw an exception.");
+    assertEquals(1, first, "First entity index should be 1.");
+    assertEquals(100, stash.size(), "Stash should contain 100 entities.");
+    for(int index = first; index < first + 100; index++) {
+      assertNotNull(universe.getEntity(index), "Entity should exist.");
+      assertNotNull(universe.getComponent(index, type), "Entity should have the component.");
+      assertTrue(universe.hasComponent(index, markerType), "Entity should have the tag component.");
+    }
+    assertEquals(101, universe.createEntity().index(), "Next entity index should follow the range.");
+
+    assertThrows(IllegalArgumentException.class, () -> universe.createEntities(10, type, markerType, type), "Duplicate component types should throw an exception.");
+    assertEquals(102, universe.createEntity().index(), "Rejected entities should not be created.");
+    assertThrows(IllegalArgumentException.class, () -> Prefab.create(universe, type, type), "Duplicate prefab component types should throw an exception.");
+  }
+
+  @Test
+  public void testPrefab() throws IOException {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ValueExample.class);
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+
+    final Prefab prefab = Prefab.create(universe, type, markerType);
+    final ValueExample template = new ValueExample();
+    template.value = 5;
+    prefab.template(type, new ValueCodec(), template);
+
+    final Entity entity = prefab.spawn();
+    assertTrue(universe.hasComponent(entity, markerType), "Entity should have the tag component.");
+    assertEquals(5, universe.<ValueExample>getComponent(entity, type).value, "Component should be initialized from the template.");
+
+    final int first = prefab.spawn(10);
+    for(int index = first; index < first + 10; index++) {
+      final ValueExample component = universe.getComponent(index, type);
+      assertNotNull(component, "Entity should have the component.");
+      assertEquals(5, component.value, "Component should be initialized from the template.");
+    }
+    assertThrows(IllegalArgumentException.class, () -> Prefab.create(universe, type).template(markerType, new ValueCodec(), template), "Template for a foreign type should throw an exception.");
+    assertThrows(IllegalArgumentException.class, () -> prefab.template(markerType, new ValueCodec(), template), "Template for a tag should throw an exception.");
+
+    template.value = 8;
+    prefab.template(type, new ValueCodec(), template);
+    final Entity replaced = prefab.spawn();
+    assertEquals(8, universe.<ValueExample>getComponent(replaced, type).value, "Component should be initialized from the replaced template.");
+
+    prefab.template(type, new BrokenCodec(), template);
+    assertThrows(IllegalStateException.class, () -> prefab.spawn(10), "Spawning from a failing template should throw an exception.");
+    assertNull(universe.getEntity(replaced.index() + 1), "Failed spawn should not create any entity.");
+    assertEquals(replaced.index() + 1, universe.createEntity().index(), "Failed spawn should not reserve any entity index.");
+
+    final ComponentTypeRegistry registry = ComponentTypeRegistry.create();
+    final ComponentType shared = ComponentType.create(Universe.create(registry), ValueExample.class);
+    final Universe sharedUniverse = Universe.create(registry);
+    final Prefab sharedPrefab = assertDoesNotThrow(() -> Prefab.create(sharedUniverse, shared), "Prefab of an unresolved shared type should not throw an exception.");
+    assertTrue(sharedUniverse.hasComponent(sharedPrefab.spawn(), shared), "Spawned entity should have the shared component type.");
+  }
+
+  @Test
+  public void testBulkRemoval() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+    final ComponentType markerType = ComponentType.create(universe, MarkerExample.class);
+    final EntityStash stash = EntityStash.bitset(universe);
+
+    final int first = universe.createEntities(10, type);
+    final int marked = universe.createEntities(10, type, markerType);
+    for(int index = first; index < marked + 10; index++) stash.add(index);
+
+    universe.removeEntities(EntityFilter.all(markerType));
+    universe.removeComponents(type);
+    assertNotNull(universe.getEntity(marked), "Entity should exist until the tick.");
+    assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
+
+    for(int index = marked; index < marked + 10; index++) assertNull(universe.getEntity(index), "Entity should be removed.");
+    for(int index = first; index < first + 10; index++) {
+      assertNotNull(universe.getEntity(index), "Entity should exist.");
+      assertFalse(universe.hasComponent(index, type), "Component should be removed.");
+    }
+    assertEquals(10, stash.size(), "Stash should contain 10 entities.");
+    assertFalse(universe.components(type).hasNext(), "Component type should not have any components.");
+
+    final ComponentTypeRegistry registry = ComponentTypeRegistry.create();
+    final Universe sourceUniverse = Universe.create(registry);
+    final ComponentType shared = ComponentType.create(sourceUniverse, ValueExample.class);
+    final ComponentType sharedMarker = ComponentType.create(sourceUniverse, MarkerExample.class);
+    final ComponentType sharedType = ComponentType.create(sourceUniverse, ComponentExample.class);
+    final Universe sharedUniverse = Universe.create(registry);
+    final Entity kept = sharedUniverse.createEntity();
+    assertDoesNotThrow(() -> sharedUniverse.removeEntities(EntityFilter.all(shared)), "Removing by an unresolved shared type should not throw an exception.");
+    assertDoesNotThrow(() -> sharedUniverse.removeEntities(EntityFilter.all(sharedType).without(sharedMarker)), "Excluding an unresolved shared type should not throw an exception.");
+    sharedUniverse.tick();
+    assertNotNull(sharedUniverse.getEntity(kept.index()), "Entity without the shared component type should not be removed.");
+  }
+
+  @Test
+  public void testTransferEntities() {
+    final Universe firstUniverse = Universe.create();
+    final Universe secondUniverse = Universe.create();
+    ComponentType.create(secondUniverse, MarkerExample.class);
+    final ComponentType type = ComponentType.create(firstUniverse, ValueExample.class);
+    final ComponentType markerType = ComponentType.create(firstUniverse, MarkerExample.class);
+
+    final Entity entity = firstUniverse.createEntity();
+    final ValueExample component = firstUniverse.addComponent(entity, type);
+    firstUniverse.addComponent(entity, markerType);
+
+    final Entity transferred = assertDoesNotThrow(() -> firstUniverse.transferEntity(entity, secondUniverse), "Entity transfer should not throw an exception.");
+    assertNull(firstUniverse.getEntity(entity.index()), "Entity should be removed from the source universe.");
+    final ComponentType targetType = secondUniverse.getType("value_example");
+    assertNotNull(targetType, "Component type should be remapped.");
+    assertEquals(component, secondUniverse.getComponent(transferred, targetType), "Component instance should be moved.");
+    assertTrue(secondUniverse.hasComponent(transferred, MarkerExample.class), "Tag component should be moved.");
+
+    final int first = firstUniverse.createEntities(5, type);
+    assertThrows(IllegalArgumentException.class, () -> firstUniverse.transferEntities(new int[] {first, first}, secondUniverse), "Duplicate entities should be rejected.");
+    assertNotNull(firstUniverse.getEntity(first), "Rejected transfer should not remove the entity.");
+    final int transferredFirst = firstUniverse.transferEntities(new int[] {first, first + 1, first + 2, first + 3, first + 4}, secondUniverse);
+    for(int index = transferredFirst; index < transferredFirst + 5; index++) assertTrue(secondUniverse.hasComponent(index, targetType), "Entity should have the component.");
+    assertFalse(firstUniverse.entities().hasNext(), "Source universe should not have any entities.");
+
+    final Entity custom = firstUniverse.createEntity();
+    final EntityExample transferredCustom = firstUniverse.transferEntity(custom, secondUniverse, EntityExample::new);
+    assertEquals(transferredCustom, secondUniverse.getEntity(transferredCustom.index(), EntityExample.class), "Entity should be transferred with the entity function.");
+    assertThrows(NullPointerException.class, () -> firstUniverse.transferEntities(new int[0], null), "Transfer to a null universe should throw an exception.");
+  }
+
+  @Test
+  public void testComponentTypeRegistry() {
+    final ComponentTypeRegistry registry = ComponentTypeRegistry.create();
+    final Universe firstUniverse = Universe.create(registry);
+    final Universe secondUniverse = Universe.create(registry);
+
+    ComponentType.create(secondUniverse, ValueExample.class);
+    final ComponentType type = ComponentType.create(firstUniverse, ComponentExample.class);
+    assertEquals(type, ComponentType.create(secondUniverse, ComponentExample.class), "Component type should be shared.");
+    assertEquals(type, registry.get(type.index()), "Registry should contain the component type.");
+    assertEquals(type, registry.get("component_example"), "Registry should contain the component type.");
+    assertEquals(2, registry.size(), "Registry should contain 2 component types.");
+
+    final Entity entity = firstUniverse.createEntity();
+    firstUniverse.addComponent(entity, type);
+    final Entity transferred = firstUniverse.transferEntity(entity, secondUniverse);
+    assertTrue(secondUniverse.hasComponent(transferred, type), "Transferred entity should have the shared component type.");
+
+    final Universe thirdUniverse = Universe.create(registry);
+    final ComponentType shared = ComponentType.create(firstUniverse, ValueExample.class);
+    final Entity other = thirdUniverse.createEntity();
+    assertFalse(thirdUniverse.hasComponent(other, shared), "Entity should not have an unresolved shared component type.");
+    assertNull(thirdUniverse.getComponent(other, shared), "Entity should not have an unresolved shared component type.");
+    assertNotNull(thirdUniverse.addComponent(other, shared), "Shared component type should be resolved on first use.");
+    assertTrue(thirdUniverse.hasComponent(other, shared), "Entity should have the shared component type.");
+    assertEquals(shared, thirdUniverse.getType(ValueExample.class), "Shared component type should be registered.");
+    final ComponentType tag = ComponentType.create(firstUniverse, MarkerExample.class);
+    final int first = thirdUniverse.createEntities(2, tag);
+    assertTrue(thirdUniverse.hasComponent(first + 1, tag), "Created entities should have the shared tag.");
+
+    final Universe localUniverse = Universe.create();
+    final Entity local = localUniverse.createEntity();
+    assertThrows(IllegalArgumentException.class, () -> localUniverse.addComponent(local, shared), "Foreign component type should be rejected.");
+    assertFalse(localUniverse.hasComponent(local, shared), "Rejected component should not be added.");
+  }
+
+  @Test
+  public void testResources() {
+    final Universe firstUniverse = Universe.create();
+    final Universe secondUniverse = Universe.create();
+    final SystemExample resource = new SystemExample();
+
+    assertNull(firstUniverse.resource(SystemExample.class), "Resource should not exist.");
+    firstUniverse.insertResource(SystemExample.class, resource);
+    assertEquals(resource, firstUniverse.resource(SystemExample.class), "Resource should exist.");
+    assertNull(secondUniverse.resource(SystemExample.class), "Resource should not exist in another universe.");
+
+    assertEquals(resource, firstUniverse.removeResource(SystemExample.class), "Removed resource should be returned.");
+    assertNull(firstUniverse.resource(SystemExample.class), "Resource should not exist.");
   }
 
   @Test
@@ -385,11 +782,535 @@ class UniverseTest {
     assertEquals(1, secondTick.errors().size(), "Tick errors should contain 1 error.");
   }
 
+  @Test
+  public void testUniverseScheduler() throws InterruptedException {
+    final Universe firstUniverse = Universe.create();
+    final Universe secondUniverse = Universe.create();
+    try(final UniverseScheduler scheduler = UniverseScheduler.create(2, 50, TimeUnit.MILLISECONDS)) {
+      scheduler.add(firstUniverse);
+      scheduler.add(secondUniverse);
+
+      final UniverseScheduler.Report report = scheduler.tick();
+      assertEquals(2, report.ticks(), "Round should tick 2 universes.");
+      assertEquals(0, report.errors(), "Round should not contain any errors.");
+
+      secondUniverse.destroy();
+      assertEquals(1, scheduler.tick().ticks(), "Round should not tick an inactive universe.");
+      assertNull(scheduler.report(secondUniverse), "Inactive universe should be removed.");
+      assertEquals(2, scheduler.report(firstUniverse).ticks(), "Universe should have ticked twice.");
+      assertEquals(3, scheduler.report().ticks(), "Scheduler should have ticked 3 times.");
+
+      final List<Throwable> errors = new CopyOnWriteArrayList<>();
+      scheduler.errors((universe, throwable) -> errors.add(throwable));
+      firstUniverse.addSystem(() -> {
+        throw new IllegalStateException("System error.");
+      });
+      assertEquals(1, scheduler.tick().errors(), "Round should contain the system error.");
+      firstUniverse.addListener(new UniverseListener() {
+        @Override
+        public void tickStarted(final int time) {
+          throw new IllegalStateException("Tick error.");
+        }
+      });
+      assertEquals(1, scheduler.tick().errors(), "Round should contain the tick error.");
+      assertEquals(2, errors.size(), "Handler should receive every error.");
+      assertEquals("System error.", errors.get(0).getMessage(), "Handler should receive the system error.");
+      assertEquals("Tick error.", errors.get(1).getMessage(), "Handler should receive the tick error.");
+    }
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    try(final UniverseScheduler scheduler = UniverseScheduler.create(executor, 50, TimeUnit.MILLISECONDS)) {
+      final List<Throwable> errors = new CopyOnWriteArrayList<>();
+      scheduler.errors((universe, throwable) -> errors.add(throwable));
+      scheduler.add(Universe.create());
+      assertFalse(scheduler.running(), "Scheduler should not be running before it is started.");
+      assertEquals(1, scheduler.tick().skipped(), "Round should count the rejected tick as skipped.");
+      assertEquals(1, scheduler.report().skipped(), "Scheduler should count the rejected tick as skipped.");
+      assertEquals(1, errors.size(), "Handler should receive the rejection.");
+      assertTrue(errors.get(0) instanceof RejectedExecutionException, "Handler should receive the rejection.");
+    }
+
+    try(final UniverseScheduler scheduler = UniverseScheduler.create(executor, 1, TimeUnit.MILLISECONDS)) {
+      final CountDownLatch rejections = new CountDownLatch(3);
+      scheduler.errors((universe, throwable) -> {
+        rejections.countDown();
+        throw new IllegalStateException("Handler error.");
+      });
+      scheduler.add(Universe.create());
+      scheduler.start();
+      assertTrue(rejections.await(5, TimeUnit.SECONDS), "Scheduler should keep running after the handler throws.");
+    }
+  }
+
+  @Test
+  public void testTickDriver() {
+    final Universe universe = Universe.create();
+    final IntervalSystem system = new IntervalSystem();
+    universe.addSystem(system);
+
+    final TickDriver driver = TickDriver.create(universe, 50, TimeUnit.MILLISECONDS, 4);
+    assertEquals(0, driver.advance(20, TimeUnit.MILLISECONDS).size(), "Driver should not tick before the period elapsed.");
+    assertEquals(1, driver.advance(30, TimeUnit.MILLISECONDS).size(), "Driver should tick once the period elapsed.");
+    assertEquals(3, driver.advance(175, TimeUnit.MILLISECONDS).size(), "Driver should catch up on missed ticks.");
+    assertEquals(4, driver.advance(300, TimeUnit.MILLISECONDS).size(), "Driver should not exceed the catch up limit.");
+    assertEquals(2, driver.skipped(), "Driver should skip the ticks beyond the catch up limit.");
+    assertEquals(8, driver.ticks(), "Driver should have ticked 8 times.");
+    assertEquals(2, system.executions, "Interval system should execute every 4th tick.");
+
+    final Universe failing = Universe.create();
+    failing.addSystem(() -> {
+      throw new RuntimeException("Driver error.");
+    });
+    final TickDriver errorDriver = TickDriver.create(failing, 1, TimeUnit.MILLISECONDS);
+    final List<Throwable> errors = new CopyOnWriteArrayList<>();
+    errorDriver.errors((source, throwable) -> errors.add(throwable));
+    assertEquals(2, errorDriver.advance(2, TimeUnit.MILLISECONDS).size(), "Driver should tick twice.");
+    assertEquals(2, errors.size(), "Handler should receive every tick error.");
+    assertDoesNotThrow(() -> errorDriver.run(() -> errorDriver.ticks() < 5), "Driver run should not throw an exception.");
+    assertTrue(errors.size() >= 5, "Handler should receive the errors of the run.");
+    assertEquals("Driver error.", errors.get(0).getMessage(), "Handler should receive the system error.");
+  }
+
+  @Test
+  public void testSlicedSystem() {
+    final Universe universe = Universe.create();
+    final SlicedExample system = new SlicedExample(3, 0);
+    universe.addSystem(system);
+
+    for(int i = 0; i < 3; i++) {
+      universe.tick();
+      assertEquals(i + 1, system.processed, "Sliced system should process one unit per tick once its budget is spent.");
+    }
+    universe.tick();
+    assertEquals(1, system.passes, "Sliced system should complete the pass.");
+    universe.tick();
+    assertEquals(Arrays.asList(0, 1, 2, 3, 0), system.cursors, "Sliced system should resume from the cursor and restart after the pass.");
+
+    final Universe budgeted = Universe.create();
+    final SlicedExample unbounded = new SlicedExample(3, Long.MAX_VALUE);
+    budgeted.addSystem(unbounded);
+    budgeted.tick();
+    assertEquals(1, unbounded.passes, "Sliced system should complete the pass within its budget.");
+    budgeted.budget(1, TimeUnit.NANOSECONDS);
+    budgeted.tick();
+    assertEquals(4, unbounded.processed, "Sliced system should process one unit once the tick budget is spent.");
+  }
+
+  @Test
+  public void testBlockingSystems() {
+    final Universe universe = Universe.create();
+    final CountDownLatch latch = new CountDownLatch(2);
+    final BlockingExample first = new BlockingExample(latch);
+    universe.addSystem(first);
+    universe.addSystem(new System() {
+      @Override
+      public boolean blocking() {
+        return true;
+      }
+
+      @Override
+      public void execute() throws InterruptedException {
+        latch.countDown();
+        if(!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("Blocking systems should run concurrently.");
+        throw new IllegalStateException("Blocking system error.");
+      }
+    });
+
+    final Universe.Tick tick = universe.tick();
+    assertTrue(first.executed, "Annotated blocking system should execute.");
+    assertEquals(1, tick.errors().size(), "Tick should collect the blocking system error.");
+    assertEquals("Blocking system error.", tick.errors().iterator().next().getMessage(), "Tick should collect the blocking system error.");
+
+    final Universe structural = Universe.create();
+    final Universe target = Universe.create();
+    final Entity removed = structural.createEntity();
+    final Entity stripped = structural.createEntity();
+    final ComponentType type = ComponentType.create(structural, ComponentExample.class);
+    structural.addComponent(stripped, type);
+    structural.addSystem(new System() {
+      @Override
+      public boolean blocking() {
+        return true;
+      }
+
+      @Override
+      public void execute() {
+        structural.removeEntity(removed);
+        structural.removeComponent(stripped, type);
+        structural.transferEntity(stripped, target);
+      }
+    });
+    structural.addSystem(new System() {
+      @Override
+      public boolean blocking() {
+        return true;
+      }
+
+      @Override
+      public void execute() {
+        structural.destroy();
+      }
+    });
+    structural.addSystem(new System() {
+      @Override
+      public boolean blocking() {
+        return true;
+      }
+
+      @Override
+      public void execute() {
+        ((JournalTarget) structural).restoreDestroy(removed.index());
+      }
+    });
+
+    final Universe.Tick structuralTick = assertTimeoutPreemptively(Duration.ofSeconds(5), structural::tick, "Blocking system changes should not deadlock the tick.");
+    assertFalse(structural.hasEntity(removed), "Entity removed by a blocking system should be destroyed.");
+    assertFalse(structural.hasComponent(stripped, type), "Component removed by a blocking system should be destroyed.");
+    assertTrue(structural.active(), "Universe destroyed by a blocking system should remain active.");
+    assertEquals(3, structuralTick.errors().size(), "Tick should collect the rejected transfer, destruction and restoration.");
+    for(final Throwable error : structuralTick.errors()) assertTrue(error instanceof IllegalStateException, "Locking the universe from a blocking system should be rejected.");
+    assertFalse(target.entities().hasNext(), "Rejected transfer should not create an entity.");
+  }
+
+  @Test
+  public void testTickAsync() throws Exception {
+    final Universe universe = Universe.create();
+    final CountDownLatch latch = new CountDownLatch(1);
+    universe.addSystem(new System() {
+      @Override
+      public void execute() throws InterruptedException {
+        latch.await(5, TimeUnit.SECONDS);
+      }
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final CompletableFuture<Universe.Tick> first = universe.tickAsync(executor);
+      assertTrue(universe.ticking(), "Universe should be ticking.");
+      final CompletableFuture<Universe.Tick> second = universe.tickAsync(executor);
+      assertTrue(second.isCompletedExceptionally(), "Overlapping tick should be rejected.");
+      latch.countDown();
+      assertEquals(0, first.get(5, TimeUnit.SECONDS).time(), "Tick should complete asynchronously.");
+      assertFalse(universe.ticking(), "Universe should not be ticking.");
+      assertEquals(1, universe.tickAsync(executor).get(5, TimeUnit.SECONDS).time(), "Next tick should run once the previous completed.");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSnapshot() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ValueExample.class);
+    final Entity first = universe.createEntity();
+    final ValueExample value = first.add(type);
+    value.value = 1;
+
+    try(final Snapshot<ValueExample> snapshot = Snapshot.create(universe, type, component -> {
+      final ValueExample copy = new ValueExample();
+      copy.value = component.value;
+      return copy;
+    })) {
+      assertEquals(-1, snapshot.frame().time(), "Snapshot should not be published before a tick.");
+      universe.tick();
+      final Snapshot.Frame<ValueExample> frame = snapshot.frame();
+      assertEquals(0, frame.time(), "Snapshot should be published at the end of the tick.");
+      assertEquals(1, frame.get(first.index()).value, "Snapshot should contain a copy of the component.");
+
+      value.value = 2;
+      universe.markChanged(first, type);
+      final Entity second = universe.createEntity();
+      second.add(type);
+      universe.tick();
+      assertEquals(1, frame.get(first.index()).value, "Published frame should not change.");
+      assertEquals(2, snapshot.frame().get(first.index()).value, "Snapshot should contain the changed component.");
+      assertEquals(2, snapshot.frame().size(), "Snapshot should contain 2 components.");
+
+      second.remove(type);
+      universe.tick();
+      assertNull(snapshot.frame().get(second.index()), "Snapshot should not contain the removed component.");
+      assertEquals(1, snapshot.frame().size(), "Snapshot should contain 1 component.");
+    }
+  }
+
+  @Test
+  public void testSpatialIndex() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, PositionExample.class);
+    final Entity[] entities = new Entity[5];
+    for(int i = 0; i < entities.length; i++) {
+      entities[i] = universe.createEntity();
+      final PositionExample position = entities[i].add(type);
+      position.x = i * 10;
+      universe.markChanged(entities[i], type);
+    }
+
+    try(final SpatialIndex<PositionExample> index = SpatialIndex.create(universe, type, 16, position -> position.x, position -> position.y)) {
+      assertEquals(5, index.size(), "Index should contain 5 entities.");
+      final int[] output = new int[8];
+      assertEquals(3, index.range(10, 0, 10, output), "Range should contain 3 entities.");
+
+      final int[] nearest = new int[2];
+      assertEquals(2, index.nearest(41, 0, nearest), "Nearest should find 2 entities.");
+      assertEquals(entities[4].index(), nearest[0], "Nearest entity should be first.");
+      assertEquals(entities[3].index(), nearest[1], "Second nearest entity should be second.");
+
+      final PositionExample position = universe.getComponent(entities[0], type);
+      position.x = 100;
+      universe.markChanged(entities[0], type);
+      assertEquals(1, index.range(100, 0, 1, output), "Range should contain the moved entity.");
+      assertEquals(entities[0].index(), output[0], "Range should contain the moved entity.");
+      index.move(entities[0].index(), 101, 0);
+      assertEquals(0, index.range(100, 0, 0.5, output), "Range should not contain the entity moved within its cell.");
+      assertEquals(1, index.range(101, 0, 0.5, output), "Range should contain the entity moved within its cell.");
+
+      entities[0].remove(type);
+      universe.tick();
+      assertEquals(0, index.range(100, 0, 1, output), "Range should not contain the removed entity.");
+      assertEquals(4, index.size(), "Index should contain 4 entities.");
+
+      assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+        assertEquals(4, index.range(0, 0, Double.POSITIVE_INFINITY, output), "Infinite range should contain every entity.");
+        assertEquals(4, index.range(0, 0, 1e300, output), "Huge range should contain every entity.");
+        assertEquals(0, index.range(Double.MAX_VALUE, 0, 1, output), "Range at the edge of the grid should be empty.");
+        assertEquals(2, index.nearest(-Double.MAX_VALUE, 0, nearest), "Nearest at the edge of the grid should find 2 entities.");
+      }, "Queries at the edge of the grid should complete.");
+    }
+  }
+
+  @Test
+  public void testComponentIndex() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ValueExample.class);
+    final ComponentIndex<ValueExample, Integer> hash = ComponentIndex.hash(universe, type, component -> component.value);
+    assertFalse(hash instanceof ComponentIndex.Sorted, "Hash index should not be sorted.");
+    final ComponentIndex.Sorted<ValueExample, Integer> sorted = ComponentIndex.sorted(universe, type, component -> component.value, Integer::compare);
+    final Entity[] entities = new Entity[4];
+    for(int i = 0; i < entities.length; i++) {
+      entities[i] = universe.createEntity();
+      final ValueExample value = entities[i].add(type);
+      value.value = i % 3;
+      universe.markChanged(entities[i], type);
+    }
+
+    assertEquals(3, hash.size(), "Index should contain 3 keys.");
+    assertEquals(2, hash.count(0), "Index should contain 2 entities for the key.");
+    assertEquals(entities[1].index(), hash.first(1), "Index should find the entity by key.");
+    assertEquals(-1, hash.first(5), "Index should not find a missing key.");
+
+    final IndexSet range = new IndexSet();
+    sorted.range(1, 3, range::add);
+    assertEquals(2, range.size(), "Range should contain 2 entities.");
+    assertFalse(range.contains(entities[0].index()), "Range should not contain an entity outside of it.");
+
+    final ValueExample value = universe.getComponent(entities[1], type);
+    value.value = 7;
+    universe.markChanged(entities[1], type);
+    assertEquals(-1, hash.first(1), "Index should re-key the changed entity.");
+    assertEquals(entities[1].index(), hash.first(7), "Index should re-key the changed entity.");
+
+    entities[0].remove(type);
+    universe.tick();
+    assertEquals(1, hash.count(0), "Index should not contain the removed entity.");
+
+    for(int i = 0; i < 8; i++) universe.createEntity().<ValueExample>add(type).value = 5;
+    for(final Iterator<Entity> iterator = universe.entities(); iterator.hasNext(); ) universe.markChanged(iterator.next(), type);
+    final int[] visits = new int[1];
+    hash.forEach(5, entity -> {
+      visits[0]++;
+      universe.<ValueExample>getComponent(entity, type).value = 9;
+      universe.markChanged(universe.getEntity(entity), type);
+      final Entity added = universe.createEntity();
+      added.<ValueExample>add(type).value = 5;
+      universe.markChanged(added, type);
+    });
+    assertEquals(8, visits[0], "Index should visit the entities with the key before the consumer once.");
+    assertEquals(8, hash.count(9), "Index should re-key every entity visited by the consumer.");
+    assertEquals(8, hash.count(5), "Index should contain the entities added by the consumer.");
+    visits[0] = 0;
+    sorted.range(8, 10, entity -> {
+      visits[0]++;
+      universe.<ValueExample>getComponent(entity, type).value = 20;
+      universe.markChanged(universe.getEntity(entity), type);
+      final Entity added = universe.createEntity();
+      added.<ValueExample>add(type).value = 9;
+      universe.markChanged(added, type);
+    });
+    assertEquals(8, visits[0], "Range should visit the entities in it before the consumer once.");
+    assertEquals(8, sorted.count(20), "Range should re-key every entity visited by the consumer.");
+    assertEquals(8, sorted.count(9), "Range should contain the entities added by the consumer.");
+    assertThrows(IllegalArgumentException.class, () -> sorted.range(3, 1, range::add), "Range with a lower bound above the upper bound should throw an exception.");
+    hash.close();
+    sorted.close();
+  }
+
+  @Test
+  public void testRelation() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ComponentExample.class);
+    final Entity root = universe.createEntity();
+    final Entity child = universe.createEntity();
+    final Entity grandchild = universe.createEntity();
+    final Entity other = universe.createEntity();
+    child.add(type);
+
+    try(final Relation childOf = Relation.create(universe, true)) {
+      assertTrue(childOf.add(child.index(), root.index()), "Relation should be added.");
+      assertFalse(childOf.add(child.index(), root.index()), "Relation should not be added twice.");
+      childOf.add(grandchild.index(), child.index());
+      childOf.add(other.index(), root.index());
+      assertEquals(root.index(), childOf.target(child.index()), "Child should have the parent as target.");
+      assertEquals(2, childOf.count(root.index()), "Root should have 2 children.");
+
+      final IndexSet descendants = new IndexSet();
+      childOf.descendants(root.index(), descendants::add);
+      assertEquals(3, descendants.size(), "Root should have 3 descendants.");
+      final IndexSet filtered = new IndexSet();
+      childOf.sources(root.index(), EntityFilter.all(type), filtered::add);
+      assertEquals(1, filtered.size(), "Filtered sources should contain 1 entity.");
+
+      assertTrue(childOf.remove(other.index(), root.index()), "Relation should be removed.");
+      universe.removeEntity(root);
+      universe.tick();
+      assertFalse(universe.hasEntity(child), "Child should be destroyed with the parent.");
+      assertFalse(universe.hasEntity(grandchild), "Grandchild should be destroyed with the parent.");
+      assertTrue(universe.hasEntity(other), "Unrelated entity should not be destroyed.");
+      assertEquals(-1, childOf.target(child.index()), "Destroyed entity should have no relations.");
+
+      final Entity parent = universe.createEntity();
+      for(int i = 0; i < 4; i++) childOf.add(universe.createEntity().index(), parent.index());
+      final int[] visits = new int[1];
+      childOf.sources(parent.index(), source -> {
+        visits[0]++;
+        childOf.remove(source, parent.index());
+      });
+      assertEquals(4, visits[0], "Sources should visit every child detached by the consumer.");
+      assertEquals(0, childOf.count(parent.index()), "Parent should have no children once detached.");
+
+      final Entity orphan = universe.createEntity();
+      childOf.add(orphan.index(), parent.index());
+      final Universe target = Universe.create();
+      universe.transferEntity(parent, target);
+      universe.tick();
+      assertFalse(universe.hasEntity(orphan), "Child should be destroyed with the transferred parent.");
+    }
+
+    final Entity source = universe.createEntity();
+    final Entity target = universe.createEntity();
+    // The source is destroyed once its existence is checked, when the
+    // relation looks up the target, before the edge is linked.
+    final Universe destroying = (Universe) Proxy.newProxyInstance(Universe.class.getClassLoader(), new Class<?>[] {Universe.class}, (proxy, method, arguments) -> {
+      if(method.getName().equals("getEntity") && arguments.length == 1 && arguments[0].equals(target.index()) && universe.hasEntity(source)) {
+        universe.removeEntity(source);
+        universe.tick();
+      }
+      try {
+        return method.invoke(universe, arguments);
+      } catch(final InvocationTargetException exception) {
+        throw exception.getCause();
+      }
+    });
+    try(final Relation linked = Relation.create(destroying, false)) {
+      assertThrows(IllegalArgumentException.class, () -> linked.add(source.index(), target.index()), "Relation to an entity destroyed during the addition should fail.");
+      assertFalse(universe.hasEntity(source), "Source should be destroyed during the addition.");
+      assertFalse(linked.has(source.index(), target.index()), "Destroyed entity should not keep a relation added concurrently.");
+      assertEquals(0, linked.count(target.index()), "Target should not have relations from destroyed entities.");
+    }
+  }
+
+  @Test
+  public void testSortedQuery() {
+    final Universe universe = Universe.create();
+    final ComponentType type = ComponentType.create(universe, ValueExample.class);
+    final Entity[] entities = new Entity[4];
+    final int[] values = {3, 1, 2, 1};
+    for(int i = 0; i < entities.length; i++) {
+      entities[i] = universe.createEntity();
+      final ValueExample value = entities[i].add(type);
+      value.value = values[i];
+      universe.markChanged(entities[i], type);
+    }
+
+    try(final SortedQuery<ValueExample, Integer> query = SortedQuery.create(universe, type, component -> component.value, Integer::compare)) {
+      final int[] output = new int[4];
+      assertEquals(4, query.entities(output), "Query should contain 4 entities.");
+      assertArrayEquals(new int[] {entities[1].index(), entities[3].index(), entities[2].index(), entities[0].index()}, output, "Query should be ordered by key, then entity.");
+
+      final ValueExample value = universe.getComponent(entities[0], type);
+      value.value = 0;
+      universe.markChanged(entities[0], type);
+      entities[2].remove(type);
+      universe.tick();
+      assertEquals(3, query.entities(output), "Query should contain 3 entities.");
+      assertArrayEquals(new int[] {entities[0].index(), entities[1].index(), entities[3].index()}, Arrays.copyOf(output, 3), "Query should re-sort the changed entities.");
+    }
+  }
+
   static final class SystemExample implements System {
     @Override
     public void execute() {}
   }
 
+  static final class SlicedExample implements SlicedSystem {
+    private final List<Integer> cursors = new ArrayList<>();
+    private final int size;
+    private final long budget;
+    private int processed;
+    private int passes;
+
+    SlicedExample(final int size, final long budget) {
+      this.size = size;
+      this.budget = budget;
+    }
+
+    @Override
+    public long budget() {
+      return this.budget;
+    }
+
+    @Override
+    public boolean process(final int cursor) {
+      this.cursors.add(cursor);
+      if(cursor >= this.size) {
+        this.passes++;
+        return false;
+      }
+      this.processed++;
+      return true;
+    }
+  }
+
+  @Blocking
+  static final class BlockingExample implements System {
+    private final CountDownLatch latch;
+    private volatile boolean executed;
+
+    BlockingExample(final CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public void execute() throws InterruptedException {
+      this.latch.countDown();
+      this.executed = this.latch.await(5, TimeUnit.SECONDS);
+    }
+  }
+
+  static final class IntervalSystem implements System {
+    private int executions;
+
+    @Override
+    public int interval() {
+      return 4;
+    }
+
+    @Override
+    public void execute() {
+      this.executions++;
+    }
+  }
+
   static final class EntityExample extends AbstractEntity {
     private EntityExample(final @NonNull Universe universe, final @NonNegative int index) {
       super(universe, index);
@@ -402,4 +1323,44 @@ class UniverseTest {
   static final class ComponentExample extends InheritanceTest {
     // No-op
   }
+
+  @Component(id = "position_example", name = "Position Example")
+  static final class PositionExample {
+    private double x;
+    private double y;
+  }
+
+  @Component(id = "value_example", name = "Value Example")
+  static final class ValueExample {
+    private int value;
+  }
+
+  static final class ValueCodec implements ComponentCodec<ValueExample> {
+    @Override
+    public void encode(final ValueExample component, final DataOutput output) throws IOException {
+      output.writeInt(component.value);
+    }
+
+    @Override
+    public void decode(final ValueExample component, final DataInput input) throws IOException {
+      component.value = input.readInt();
+    }
+  }
+
+  static final class BrokenCodec implements ComponentCodec<ValueExample> {
+    @Override
+    public void encode(final ValueExample component, final DataOutput output) throws IOException {
+      output.writeInt(component.value);
+    }
+
+    @Override
+    public void decode(final ValueExample component, final DataInput input) throws IOException {
+      throw new IOException("Template decode error.");
+    }
+  }
+
+  @Component(id = "marker_example", name = "Marker Example", tag = true)
+  static final class MarkerExample {
+    // No-op
+  }
 }
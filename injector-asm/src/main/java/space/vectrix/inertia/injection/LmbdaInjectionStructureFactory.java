@@ -26,11 +26,14 @@ package space.vectrix.inertia.injection;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,25 +58,28 @@ public final class LmbdaInjectionStructureFactory implements InjectionStructure.
   public @NonNull InjectionStructure create(final @NonNull Class<?> target) {
     requireNonNull(target, "target");
     final Map<Class<?>, InjectionStructure.Entry> dependencies = new IdentityHashMap<>();
+    final List<InjectionStructure.QueryEntry> queries = new ArrayList<>();
+    final List<InjectionStructure.ResourceEntry> resources = new ArrayList<>();
     final List<Class<?>> ancestors = (List<Class<?>>) this.ancestors(target);
     for(final Class<?> ancestor : ancestors) {
       for(final Field field : ancestor.getDeclaredFields()) {
         final Dependency dependencyAnnotation = field.getAnnotation(Dependency.class);
+        final Query queryAnnotation = field.getAnnotation(Query.class);
+        final Resource resourceAnnotation = field.getAnnotation(Resource.class);
+        if(dependencyAnnotation == null && queryAnnotation == null && resourceAnnotation == null) continue;
         try {
-          if(dependencyAnnotation != null) {
-            field.setAccessible(true);
-            final MethodHandle handle = this.lookup.unreflectSetter(field);
-            dependencies.put(dependencyAnnotation.value(), new LmbdaInjectionStructureEntry(
-              dependencyAnnotation,
-              this.factory.create(handle)
-            ));
-          }
+          field.setAccessible(true);
+          final MethodHandle handle = this.lookup.unreflectSetter(field);
+          final InjectionTarget injectionTarget = this.factory.create(handle);
+          if(dependencyAnnotation != null) dependencies.put(dependencyAnnotation.value(), new LmbdaInjectionStructureEntry(dependencyAnnotation, injectionTarget));
+          if(queryAnnotation != null) queries.add(new LmbdaInjectionQueryEntry(queryAnnotation, injectionTarget));
+          if(resourceAnnotation != null) resources.add(new LmbdaInjectionResourceEntry(field.getType(), resourceAnnotation.write(), injectionTarget));
         } catch(final Throwable throwable) {
           throw new IllegalStateException("Unable to create method handle for '" + field.getName() + "'!", throwable);
         }
       }
     }
-    return new LmbdaInjectionStructure(dependencies);
+    return new LmbdaInjectionStructure(dependencies, queries, resources);
   }
 
   @SuppressWarnings("unchecked")
@@ -90,15 +96,31 @@ public final class LmbdaInjectionStructureFactory implements InjectionStructure.
 
   /* package */ static final class LmbdaInjectionStructure implements InjectionStructure {
     private final Map<Class<?>, Entry> injectors;
+    private final Collection<QueryEntry> queries;
+    private final Collection<ResourceEntry> resources;
 
-    /* package */ LmbdaInjectionStructure(final @NonNull Map<Class<?>, Entry> injectors) {
+    /* package */ LmbdaInjectionStructure(final @NonNull Map<Class<?>, Entry> injectors,
+                                      final @NonNull Collection<QueryEntry> queries,
+                                      final @NonNull Collection<ResourceEntry> resources) {
       this.injectors = injectors;
+      this.queries = queries;
+      this.resources = resources;
     }
 
     @Override
     public @NonNull Map<Class<?>, Entry> injectors() {
       return this.injectors;
     }
+
+    @Override
+    public @NonNull Collection<QueryEntry> queries() {
+      return this.queries;
+    }
+
+    @Override
+    public @NonNull Collection<ResourceEntry> resources() {
+      return this.resources;
+    }
   }
 
   /* package */ static final class LmbdaInjectionStructureEntry implements InjectionStructure.Entry {
@@ -120,4 +142,51 @@ public final class LmbdaInjectionStructureFactory implements InjectionStructure.
       return this.target;
     }
   }
+
+  /* package */ static final class LmbdaInjectionQueryEntry implements InjectionStructure.QueryEntry {
+    private final Query annotation;
+    private final InjectionTarget target;
+
+    /* package */ LmbdaInjectionQueryEntry(final @NonNull Query annotation, final @NonNull InjectionTarget target) {
+      this.annotation = annotation;
+      this.target = target;
+    }
+
+    @Override
+    public @NonNull Query annotation() {
+      return this.annotation;
+    }
+
+    @Override
+    public @NonNull InjectionTarget target() {
+      return this.target;
+    }
+  }
+
+  /* package */ static final class LmbdaInjectionResourceEntry implements InjectionStructure.ResourceEntry {
+    private final Class<?> type;
+    private final boolean write;
+    private final InjectionTarget target;
+
+    /* package */ LmbdaInjectionResourceEntry(final @NonNull Class<?> type, final boolean write, final @NonNull InjectionTarget target) {
+      this.type = type;
+      this.write = write;
+      this.target = target;
+    }
+
+    @Override
+    public @NonNull Class<?> type() {
+      return this.type;
+    }
+
+    @Override
+    public boolean write() {
+      return this.write;
+    }
+
+    @Override
+    public @NonNull InjectionTarget target() {
+      return this.target;
+    }
+  }
 }
@@ -28,8 +28,12 @@ import org.junit.jupiter.api.Test;
 import space.vectrix.inertia.component.Component;
 import space.vectrix.inertia.component.ComponentType;
 import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityStash;
 import space.vectrix.inertia.injection.LmbdaInjectionStructureFactory;
+import space.vectrix.inertia.system.Blocking;
 import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
 import space.vectrix.inertia.system.System;
 import space.vectrix.inertia.util.CustomIterator;
 
@@ -172,6 +176,96 @@ class InjectionTest {
     assertEquals(1, secondTick.time(), "Tick time should be 1.");
   }
 
+  @Test
+  public void testQueryResourceInjection() {
+    final Universe universe = Universe.create();
+    universe.injector(new LmbdaInjectionStructureFactory());
+    universe.insertResource(Settings.class, new Settings());
+
+    final QuerySystem system = new QuerySystem();
+    universe.addSystem(system);
+    assertNotNull(system.settings, "Resource should be injected.");
+    assertNotNull(system.foos, "Query should be injected.");
+
+    final Entity firstEntity = universe.createEntity();
+    final Entity secondEntity = universe.createEntity();
+    firstEntity.add(ComponentType.create(universe, Foo.class));
+    secondEntity.add(ComponentType.create(universe, Foo.class));
+    secondEntity.add(ComponentType.create(universe, Bar.class));
+    assertTrue(system.foos.contains(firstEntity), "Query should contain the entity.");
+    assertFalse(system.foos.contains(secondEntity), "Query should not contain the excluded entity.");
+
+    final Settings settings = new Settings();
+    universe.insertResource(Settings.class, settings);
+    assertEquals(settings, system.settings, "Replaced resource should be injected.");
+
+    universe.removeSystem(QuerySystem.class);
+    universe.createEntity().add(ComponentType.create(universe, Foo.class));
+    assertEquals(0, system.foos.size(), "Removed system query should be closed.");
+  }
+
+  @Test
+  public void testResourceWriteScheduling() {
+    final Universe universe = Universe.create();
+    universe.injector(new LmbdaInjectionStructureFactory());
+    universe.insertResource(Clock.class, new Clock());
+
+    final ClockReader reader = new ClockReader();
+    universe.addSystem(new ClockWriter());
+    universe.addSystem(reader);
+
+    final Universe.Tick tick = assertDoesNotThrow(universe::tick, "Tick should not throw an exception.");
+    assertEquals(0, tick.errors().size(), "Tick should not contain any errors.");
+    assertEquals(1, reader.observed, "Reader should execute after the blocking writer completed.");
+  }
+
+  static final class QuerySystem implements System {
+    @Query(value = Foo.class, without = Bar.class) private EntityStash foos;
+    @Resource private Settings settings;
+
+    @Override
+    public void execute() {}
+  }
+
+  @Blocking
+  static final class ClockWriter implements System {
+    @Resource(write = true) private Clock clock;
+
+    @Override
+    public int priority() {
+      return 0;
+    }
+
+    @Override
+    public void execute() throws InterruptedException {
+      Thread.sleep(100);
+      this.clock.time = 1;
+    }
+  }
+
+  static final class ClockReader implements System {
+    @Resource private Clock clock;
+    private int observed;
+
+    @Override
+    public int priority() {
+      return 1;
+    }
+
+    @Override
+    public void execute() {
+      this.observed = this.clock.time;
+    }
+  }
+
+  static final class Clock {
+    private volatile int time;
+  }
+
+  static final class Settings {
+    // No-op
+  }
+
   @Component(id = "foo_example", name = "Foo Example")
   static final class Foo {
     // No-op
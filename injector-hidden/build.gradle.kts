@@ -0,0 +1,19 @@
+plugins {
+  id("inertia.shared-conventions")
+  id("me.champeau.jmh") version "0.6.6"
+}
+
+indra {
+  javaVersions {
+    target(17)
+  }
+}
+
+dependencies {
+  implementation(project(":inertia-engine"))
+
+  jmh(project(":inertia-injector-asm"))
+  jmh("org.lanternpowered:lmbda:2.0.0")
+}
+
+applyJarMetadata("space.vectrix.inertia.injection.hidden")
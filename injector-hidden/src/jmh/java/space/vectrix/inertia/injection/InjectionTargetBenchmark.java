@@ -0,0 +1,92 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionTargetBenchmark {
+  private final Holder holder = new Holder();
+  private final Object value = new Object();
+
+  private InjectionTarget lmbda;
+  private InjectionTarget methodHandle;
+  private InjectionTarget hidden;
+
+  @Setup
+  public void setup() throws Throwable {
+    final Field field = Holder.class.getDeclaredField("value");
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    this.lmbda = LmbdaInjectionTargetFactory.factory().create(MethodHandles.privateLookupIn(Holder.class, lookup).unreflectSetter(field));
+    this.methodHandle = MethodHandleInjectionTargetFactory.factory(lookup).create(field);
+    this.hidden = HiddenInjectionTargetFactory.factory(lookup).create(field);
+  }
+
+  @Benchmark
+  public Object direct() {
+    this.holder.value = this.value;
+    return this.holder;
+  }
+
+  @Benchmark
+  public Object lmbda() throws Throwable {
+    this.lmbda.inject(this.holder, this.value);
+    return this.holder;
+  }
+
+  @Benchmark
+  public Object methodHandle() throws Throwable {
+    this.methodHandle.inject(this.holder, this.value);
+    return this.holder;
+  }
+
+  @Benchmark
+  public Object hidden() throws Throwable {
+    this.hidden.inject(this.holder, this.value);
+    return this.holder;
+  }
+
+  /* package */ static final class Holder {
+    private Object value;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+public final class FieldInjectionStructureFactory implements InjectionStructure.Factory {
+  private final InjectionTarget.Factory factory;
+
+  public FieldInjectionStructureFactory() {
+    this(HiddenInjectionTargetFactory.factory());
+  }
+
+  public FieldInjectionStructureFactory(final InjectionTarget.@NonNull Factory factory) {
+    this.factory = requireNonNull(factory, "factory");
+  }
+
+  @Override
+  public @NonNull InjectionStructure create(final @NonNull Class<?> target) {
+    requireNonNull(target, "target");
+    final Map<Class<?>, InjectionStructure.Entry> dependencies = new IdentityHashMap<>();
+    final List<InjectionStructure.QueryEntry> queries = new ArrayList<>();
+    final List<InjectionStructure.ResourceEntry> resources = new ArrayList<>();
+    for(Class<?> ancestor = target; ancestor != null; ancestor = ancestor.getSuperclass()) {
+      for(final Field field : ancestor.getDeclaredFields()) {
+        final Dependency dependencyAnnotation = field.getAnnotation(Dependency.class);
+        final Query queryAnnotation = field.getAnnotation(Query.class);
+        final Resource resourceAnnotation = field.getAnnotation(Resource.class);
+        if(dependencyAnnotation == null && queryAnnotation == null && resourceAnnotation == null) continue;
+        try {
+          final InjectionTarget injectionTarget = this.factory.create(field);
+          if(dependencyAnnotation != null) dependencies.put(dependencyAnnotation.value(), new FieldInjectionStructureEntry(dependencyAnnotation, injectionTarget));
+          if(queryAnnotation != null) queries.add(new FieldInjectionQueryEntry(queryAnnotation, injectionTarget));
+          if(resourceAnnotation != null) resources.add(new FieldInjectionResourceEntry(field.getType(), resourceAnnotation.write(), injectionTarget));
+        } catch(final Throwable throwable) {
+          throw new IllegalStateException("Unable to create injection target for '" + field.getName() + "'!", throwable);
+        }
+      }
+    }
+    return new FieldInjectionStructure(dependencies, queries, resources);
+  }
+
+  /* package */ static final class FieldInjectionStructure implements InjectionStructure {
+    private final Map<Class<?>, Entry> injectors;
+    private final Collection<QueryEntry> queries;
+    private final Collection<ResourceEntry> resources;
+
+    /* package */ FieldInjectionStructure(final @NonNull Map<Class<?>, Entry> injectors,
+                                      final @NonNull Collection<QueryEntry> queries,
+                                      final @NonNull Collection<ResourceEntry> resources) {
+      this.injectors = injectors;
+      this.queries = queries;
+      this.resources = resources;
+    }
+
+    @Override
+    public @NonNull Map<Class<?>, Entry> injectors() {
+      return this.injectors;
+    }
+
+    @Override
+    public @NonNull Collection<QueryEntry> queries() {
+      return this.queries;
+    }
+
+    @Override
+    public @NonNull Collection<ResourceEntry> resources() {
+      return this.resources;
+    }
+  }
+
+  /* package */ static final class FieldInjectionStructureEntry implements InjectionStructure.Entry {
+    private final Dependency annotation;
+    private final InjectionTarget target;
+
+    /* package */ FieldInjectionStructureEntry(final @NonNull Dependency annotation, final @NonNull InjectionTarget target) {
+      this.annotation = annotation;
+      this.target = target;
+    }
+
+    @Override
+    public @NonNull Dependency annotation() {
+      return this.annotation;
+    }
+
+    @Override
+    public @NonNull InjectionTarget target() {
+      return this.target;
+    }
+  }
+
+  /* package */ static final class FieldInjectionQueryEntry implements InjectionStructure.QueryEntry {
+    private final Query annotation;
+    private final InjectionTarget target;
+
+    /* package */ FieldInjectionQueryEntry(final @NonNull Query annotation, final @NonNull InjectionTarget target) {
+      this.annotation = annotation;
+      this.target = target;
+    }
+
+    @Override
+    public @NonNull Query annotation() {
+      return this.annotation;
+    }
+
+    @Override
+    public @NonNull InjectionTarget target() {
+      return this.target;
+    }
+  }
+
+  /* package */ static final class FieldInjectionResourceEntry implements InjectionStructure.ResourceEntry {
+    private final Class<?> type;
+    private final boolean write;
+    private final InjectionTarget target;
+
+    /* package */ FieldInjectionResourceEntry(final @NonNull Class<?> type, final boolean write, final @NonNull InjectionTarget target) {
+      this.type = type;
+      this.write = write;
+      this.target = target;
+    }
+
+    @Override
+    public @NonNull Class<?> type() {
+      return this.type;
+    }
+
+    @Override
+    public boolean write() {
+      return this.write;
+    }
+
+    @Override
+    public @NonNull InjectionTarget target() {
+      return this.target;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.flare.SyncMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+public final class HiddenInjectionTargetFactory implements InjectionTarget.Factory {
+  public static @NonNull HiddenInjectionTargetFactory factory() {
+    return new HiddenInjectionTargetFactory(MethodHandles.lookup());
+  }
+
+  public static @NonNull HiddenInjectionTargetFactory factory(final MethodHandles.@NonNull Lookup lookup) {
+    requireNonNull(lookup, "lookup");
+    return new HiddenInjectionTargetFactory(lookup);
+  }
+
+  private static final String TARGET = InjectionTarget.class.getName().replace('.', '/');
+
+  private final Map<Field, InjectionTarget> targets = SyncMap.hashmap(100);
+  private final MethodHandles.Lookup lookup;
+
+  /* package */ HiddenInjectionTargetFactory(final MethodHandles.@NonNull Lookup lookup) {
+    this.lookup = lookup;
+  }
+
+  @Override
+  public @NonNull InjectionTarget create(final @NonNull Object input) throws Throwable {
+    requireNonNull(input, "input");
+    if(!(input instanceof Field)) throw new IllegalArgumentException("Input must be a field!");
+    final Field field = (Field) input;
+    final int modifiers = field.getModifiers();
+    if(Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.getType().isPrimitive()) {
+      throw new IllegalArgumentException("Field '" + field.getName() + "' must not be static, final or primitive!");
+    }
+    final InjectionTarget existing = this.targets.get(field);
+    if(existing != null) return existing;
+    // Defining the class as a nestmate of the declaring class allows it to
+    // store to private fields directly.
+    final MethodHandles.Lookup owner = MethodHandles.privateLookupIn(field.getDeclaringClass(), this.lookup);
+    final MethodHandles.Lookup hidden = owner.defineHiddenClass(HiddenInjectionTargetFactory.generate(field), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+    final InjectionTarget target = (InjectionTarget) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+    final InjectionTarget previous = this.targets.putIfAbsent(field, target);
+    return previous != null ? previous : target;
+  }
+
+  /* package */ static byte @NonNull [] generate(final @NonNull Field field) throws IOException {
+    final String owner = HiddenInjectionTargetFactory.internalName(field.getDeclaringClass());
+    final Class<?> type = field.getType();
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream output = new DataOutputStream(bytes);
+    output.writeInt(0xCAFEBABE);
+    output.writeShort(0); // Minor version
+    output.writeShort(59); // Java 15, the first with hidden classes
+    // Constant pool
+    output.writeShort(22);
+    HiddenInjectionTargetFactory.utf8(output, owner + "$Injector"); // #1
+    HiddenInjectionTargetFactory.reference(output, 7, 1); // #2 Class
+    HiddenInjectionTargetFactory.utf8(output, "java/lang/Object"); // #3
+    HiddenInjectionTargetFactory.reference(output, 7, 3); // #4 Class
+    HiddenInjectionTargetFactory.utf8(output, HiddenInjectionTargetFactory.TARGET); // #5
+    HiddenInjectionTargetFactory.reference(output, 7, 5); // #6 Class
+    HiddenInjectionTargetFactory.utf8(output, "<init>"); // #7
+    HiddenInjectionTargetFactory.utf8(output, "()V"); // #8
+    HiddenInjectionTargetFactory.reference(output, 12, 7, 8); // #9 NameAndType
+    HiddenInjectionTargetFactory.reference(output, 10, 4, 9); // #10 Methodref
+    HiddenInjectionTargetFactory.utf8(output, "inject"); // #11
+    HiddenInjectionTargetFactory.utf8(output, "(Ljava/lang/Object;Ljava/lang/Object;)V"); // #12
+    HiddenInjectionTargetFactory.utf8(output, "Code"); // #13
+    HiddenInjectionTargetFactory.utf8(output, owner); // #14
+    HiddenInjectionTargetFactory.reference(output, 7, 14); // #15 Class
+    HiddenInjectionTargetFactory.utf8(output, type.isArray() ? type.getName().replace('.', '/') : HiddenInjectionTargetFactory.internalName(type)); // #16
+    HiddenInjectionTargetFactory.reference(output, 7, 16); // #17 Class
+    HiddenInjectionTargetFactory.utf8(output, field.getName()); // #18
+    HiddenInjectionTargetFactory.utf8(output, HiddenInjectionTargetFactory.descriptor(type)); // #19
+    HiddenInjectionTargetFactory.reference(output, 12, 18, 19); // #20 NameAndType
+    HiddenInjectionTargetFactory.reference(output, 9, 15, 20); // #21 Fieldref
+    // Class
+    output.writeShort(0x0001 | 0x0010 | 0x0020); // ACC_PUBLIC | ACC_FINAL | ACC_SUPER
+    output.writeShort(2);
+    output.writeShort(4);
+    output.writeShort(1);
+    output.writeShort(6);
+    output.writeShort(0); // Fields
+    output.writeShort(2); // Methods
+    // public <init>()V
+    HiddenInjectionTargetFactory.method(output, 7, 8, 1, 1, new byte[] {
+      0x2A, // aload_0
+      (byte) 0xB7, 0, 10, // invokespecial #10
+      (byte) 0xB1 // return
+    });
+    // public inject(Ljava/lang/Object;Ljava/lang/Object;)V
+    HiddenInjectionTargetFactory.method(output, 11, 12, 2, 3, new byte[] {
+      0x2B, // aload_1
+      (byte) 0xC0, 0, 15, // checkcast #15
+      0x2C, // aload_2
+      (byte) 0xC0, 0, 17, // checkcast #17
+      (byte) 0xB5, 0, 21, // putfield #21
+      (byte) 0xB1 // return
+    });
+    output.writeShort(0); // Attributes
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void method(final @NonNull DataOutputStream output, final int name, final int descriptor,
+                             final int stack, final int locals, final byte @NonNull [] code) throws IOException {
+    output.writeShort(0x0001); // ACC_PUBLIC
+    output.writeShort(name);
+    output.writeShort(descriptor);
+    output.writeShort(1);
+    output.writeShort(13); // Code
+    output.writeInt(12 + code.length);
+    output.writeShort(stack);
+    output.writeShort(locals);
+    output.writeInt(code.length);
+    output.write(code);
+    output.writeShort(0); // Exceptions
+    output.writeShort(0); // Attributes
+  }
+
+  private static void utf8(final @NonNull DataOutputStream output, final @NonNull String value) throws IOException {
+    output.writeByte(1);
+    output.writeUTF(value);
+  }
+
+  private static void reference(final @NonNull DataOutputStream output, final int tag, final int @NonNull ... indexes) throws IOException {
+    output.writeByte(tag);
+    for(final int index : indexes) output.writeShort(index);
+  }
+
+  private static @NonNull String internalName(final @NonNull Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  private static @NonNull String descriptor(final @NonNull Class<?> type) {
+    return type.isArray() ? type.getName().replace('.', '/') : "L" + HiddenInjectionTargetFactory.internalName(type) + ";";
+  }
+}
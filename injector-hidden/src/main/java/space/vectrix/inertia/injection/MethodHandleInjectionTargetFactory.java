@@ -0,0 +1,83 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import static java.util.Objects.requireNonNull;
+
+public final class MethodHandleInjectionTargetFactory implements InjectionTarget.Factory {
+  public static @NonNull MethodHandleInjectionTargetFactory factory() {
+    return new MethodHandleInjectionTargetFactory(MethodHandles.lookup());
+  }
+
+  public static @NonNull MethodHandleInjectionTargetFactory factory(final MethodHandles.@NonNull Lookup lookup) {
+    requireNonNull(lookup, "lookup");
+    return new MethodHandleInjectionTargetFactory(lookup);
+  }
+
+  private static final MethodType TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final MethodHandles.Lookup lookup;
+
+  /* package */ MethodHandleInjectionTargetFactory(final MethodHandles.@NonNull Lookup lookup) {
+    this.lookup = lookup;
+  }
+
+  @Override
+  public @NonNull InjectionTarget create(final @NonNull Object input) throws Throwable {
+    requireNonNull(input, "input");
+    final MethodHandle handle;
+    if(input instanceof Field) {
+      final Field field = (Field) input;
+      handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), this.lookup).unreflectSetter(field);
+    } else if(input instanceof MethodHandle) {
+      handle = (MethodHandle) input;
+    } else {
+      throw new IllegalArgumentException("Input must be a field or method handle!");
+    }
+    return new MethodHandleInjectionTarget(handle.asType(MethodHandleInjectionTargetFactory.TYPE));
+  }
+
+  /* package */ static final class MethodHandleInjectionTarget implements InjectionTarget {
+    private final MethodHandle handle;
+
+    /* package */ MethodHandleInjectionTarget(final @NonNull MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    public void inject(final @NonNull Object target, final @NonNull Object member) throws Throwable {
+      requireNonNull(target, "target");
+      requireNonNull(member, "member");
+      this.handle.invokeExact(target, member);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.junit.jupiter.api.Test;
+import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityStash;
+import space.vectrix.inertia.injection.FieldInjectionStructureFactory;
+import space.vectrix.inertia.injection.MethodHandleInjectionTargetFactory;
+import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.System;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HiddenInjectionTest {
+  @Test
+  public void testHiddenInjection() {
+    final Universe universe = Universe.create();
+    universe.injector(new FieldInjectionStructureFactory());
+
+    final ExampleSystem system = new ExampleSystem();
+    assertDoesNotThrow(() -> universe.addSystem(system), "System addition should not throw an exception.");
+    assertNotNull(system.fooType, "Component type should be injected.");
+    assertNotNull(system.barType(), "Inherited component type should be injected.");
+    assertNull(system.bazType, "Optional component type should not be injected.");
+
+    final ComponentType bazType = ComponentType.create(universe, Baz.class);
+    assertEquals(bazType, system.bazType, "Optional component type should be injected.");
+  }
+
+  @Test
+  public void testMethodHandleInjection() {
+    final Universe universe = Universe.create();
+    universe.injector(new FieldInjectionStructureFactory(MethodHandleInjectionTargetFactory.factory()));
+
+    final ExampleSystem system = new ExampleSystem();
+    assertDoesNotThrow(() -> universe.addSystem(system), "System addition should not throw an exception.");
+    assertNotNull(system.fooType, "Component type should be injected.");
+    assertNotNull(system.barType(), "Inherited component type should be injected.");
+  }
+
+  @Test
+  public void testFailedInjection() {
+    final Universe universe = Universe.create();
+    universe.injector(new FieldInjectionStructureFactory());
+
+    final FailingSystem system = new FailingSystem();
+    assertDoesNotThrow(() -> universe.addSystem(system), "System addition should not throw an exception.");
+    assertNotNull(universe.getSystem(FailingSystem.class), "System should be added without injection.");
+    assertNotNull(system.foos, "Query should be injected before the failure.");
+
+    final Entity entity = universe.createEntity();
+    entity.add(ComponentType.create(universe, Foo.class));
+    assertFalse(system.foos.contains(entity), "Query of a system that failed injection should be closed.");
+  }
+
+  static class ParentSystem implements System {
+    @Dependency(Bar.class) private ComponentType barType;
+
+    ComponentType barType() {
+      return this.barType;
+    }
+
+    @Override
+    public void execute() {}
+  }
+
+  static final class ExampleSystem extends ParentSystem {
+    @Dependency(Foo.class) private ComponentType fooType;
+    @Dependency(value = Baz.class, optional = true) private ComponentType bazType;
+  }
+
+  static final class FailingSystem implements System {
+    @Query(Foo.class) private EntityStash foos;
+    @Dependency(Bar.class) private String barType;
+
+    @Override
+    public void execute() {}
+  }
+
+  @Component(id = "foo_example", name = "Foo Example")
+  static final class Foo {
+    // No-op
+  }
+
+  @Component(id = "bar_example", name = "Bar Example")
+  static final class Bar {
+    // No-op
+  }
+
+  @Component(id = "baz_example", name = "Baz Example")
+  static final class Baz {
+    // No-op
+  }
+}
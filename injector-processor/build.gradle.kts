@@ -0,0 +1,11 @@
+plugins {
+  id("inertia.shared-conventions")
+}
+
+dependencies {
+  implementation(project(":inertia-engine"))
+
+  testAnnotationProcessor(files(sourceSets.main.get().output))
+}
+
+applyJarMetadata("space.vectrix.inertia.injection.processor")
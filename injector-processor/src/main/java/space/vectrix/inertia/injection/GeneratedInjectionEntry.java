@@ -0,0 +1,88 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.system.Dependency;
+
+import java.lang.annotation.Annotation;
+
+/* package */ final class GeneratedInjectionEntry implements InjectionStructure.Entry, Dependency {
+  private final Class<?> value;
+  private final boolean optional;
+  private final InjectionTarget target;
+
+  /* package */ GeneratedInjectionEntry(final @NonNull Class<?> value, final boolean optional, final @NonNull InjectionTarget target) {
+    this.value = value;
+    this.optional = optional;
+    this.target = target;
+  }
+
+  @Override
+  public @NonNull Dependency annotation() {
+    return this;
+  }
+
+  @Override
+  public @NonNull InjectionTarget target() {
+    return this.target;
+  }
+
+  @Override
+  public @NonNull Class<?> value() {
+    return this.value;
+  }
+
+  @Override
+  public boolean optional() {
+    return this.optional;
+  }
+
+  @Override
+  public @NonNull Class<? extends Annotation> annotationType() {
+    return Dependency.class;
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    if(this == other) return true;
+    if(!(other instanceof Dependency)) return false;
+    final Dependency that = (Dependency) other;
+    return this.value == that.value() && this.optional == that.optional();
+  }
+
+  @Override
+  public int hashCode() {
+    // As specified by Annotation#hashCode.
+    return ((127 * "value".hashCode()) ^ this.value.hashCode())
+      + ((127 * "optional".hashCode()) ^ Boolean.valueOf(this.optional).hashCode());
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "@" + Dependency.class.getName() + "(value=" + this.value.getName() + ".class, optional=" + this.optional + ")";
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link InjectionStructure} generated at compile time for a
+ * {@link Class} target.
+ *
+ * <p>Generated structures are discovered by the
+ * {@link GeneratedInjectionStructureFactory} using a
+ * {@link java.util.ServiceLoader}.</p>
+ *
+ * @since 0.3.0
+ */
+public interface GeneratedInjectionStructure extends InjectionStructure {
+  /**
+   * Returns a new {@link InjectionStructure.Entry} for a {@link Dependency}
+   * with the specified {@link Class} value, optional flag and
+   * {@link InjectionTarget}.
+   *
+   * @param value the dependency component class
+   * @param optional whether the dependency is optional
+   * @param target the injection target
+   * @return a new injection structure entry
+   * @since 0.3.0
+   */
+  static InjectionStructure.@NonNull Entry entry(final @NonNull Class<?> value, final boolean optional, final @NonNull InjectionTarget target) {
+    requireNonNull(value, "value");
+    requireNonNull(target, "target");
+    return new GeneratedInjectionEntry(value, optional, target);
+  }
+
+  /**
+   * Returns a new {@link InjectionStructure.QueryEntry} for a
+   * {@link Query} with the specified required and excluded component
+   * {@link Class}es and {@link InjectionTarget}.
+   *
+   * @param value the required component classes
+   * @param without the excluded component classes
+   * @param target the injection target
+   * @return a new query structure entry
+   * @since 0.3.0
+   */
+  static InjectionStructure.@NonNull QueryEntry query(final Class<?> @NonNull [] value, final Class<?> @NonNull [] without, final @NonNull InjectionTarget target) {
+    requireNonNull(value, "value");
+    requireNonNull(without, "without");
+    requireNonNull(target, "target");
+    return new GeneratedQueryEntry(value, without, target);
+  }
+
+  /**
+   * Returns a new {@link InjectionStructure.ResourceEntry} for a
+   * {@link Resource} of the specified {@link Class} type, write flag and
+   * {@link InjectionTarget}.
+   *
+   * @param type the resource type
+   * @param write whether the resource is written
+   * @param target the injection target
+   * @return a new resource structure entry
+   * @since 0.3.0
+   */
+  static InjectionStructure.@NonNull ResourceEntry resource(final @NonNull Class<?> type, final boolean write, final @NonNull InjectionTarget target) {
+    requireNonNull(type, "type");
+    requireNonNull(target, "target");
+    return new GeneratedResourceEntry(type, write, target);
+  }
+
+  /**
+   * Returns the {@link Class} target this structure was generated for.
+   *
+   * @return the target class
+   * @since 0.3.0
+   */
+  @NonNull Class<?> target();
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import static java.util.Objects.requireNonNull;
+
+public final class GeneratedInjectionStructureFactory implements InjectionStructure.Factory {
+  private static final InjectionStructure EMPTY = Collections::emptyMap;
+
+  private final Map<Class<?>, InjectionStructure> structures = new IdentityHashMap<>();
+  private final InjectionStructure.Factory fallback;
+
+  public GeneratedInjectionStructureFactory() {
+    this(GeneratedInjectionStructureFactory.class.getClassLoader(), null);
+  }
+
+  public GeneratedInjectionStructureFactory(final @NonNull ClassLoader loader, final InjectionStructure.@Nullable Factory fallback) {
+    requireNonNull(loader, "loader");
+    this.fallback = fallback;
+    for(final GeneratedInjectionStructure structure : ServiceLoader.load(GeneratedInjectionStructure.class, loader)) {
+      this.structures.put(structure.target(), structure);
+    }
+  }
+
+  @Override
+  public @NonNull InjectionStructure create(final @NonNull Class<?> target) {
+    requireNonNull(target, "target");
+    final InjectionStructure structure = this.structures.get(target);
+    if(structure != null) return structure;
+    // Targets without dependencies have no generated structure.
+    return this.fallback != null ? this.fallback.create(target) : GeneratedInjectionStructureFactory.EMPTY;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import space.vectrix.inertia.system.Query;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+/* package */ final class GeneratedQueryEntry implements InjectionStructure.QueryEntry, Query {
+  private final Class<?>[] value;
+  private final Class<?>[] without;
+  private final InjectionTarget target;
+
+  /* package */ GeneratedQueryEntry(final Class<?> @NonNull [] value, final Class<?> @NonNull [] without, final @NonNull InjectionTarget target) {
+    this.value = value;
+    this.without = without;
+    this.target = target;
+  }
+
+  @Override
+  public @NonNull Query annotation() {
+    return this;
+  }
+
+  @Override
+  public @NonNull InjectionTarget target() {
+    return this.target;
+  }
+
+  @Override
+  public Class<?> @NonNull [] value() {
+    return this.value.clone();
+  }
+
+  @Override
+  public Class<?> @NonNull [] without() {
+    return this.without.clone();
+  }
+
+  @Override
+  public @NonNull Class<? extends Annotation> annotationType() {
+    return Query.class;
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    if(this == other) return true;
+    if(!(other instanceof Query)) return false;
+    final Query that = (Query) other;
+    return Arrays.equals(this.value, that.value()) && Arrays.equals(this.without, that.without());
+  }
+
+  @Override
+  public int hashCode() {
+    // As specified by Annotation#hashCode.
+    return ((127 * "value".hashCode()) ^ Arrays.hashCode(this.value))
+      + ((127 * "without".hashCode()) ^ Arrays.hashCode(this.without));
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "@" + Query.class.getName() + "(value=" + Arrays.toString(this.value) + ", without=" + Arrays.toString(this.without) + ")";
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia.injection.processor;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code GeneratedInjectionStructure} for each class with
+ * {@code Dependency}, {@code Query} or {@code Resource} fields, so
+ * injection does not need reflection at runtime.
+ *
+ * <p>Injected fields must not be private, final or static, and must be
+ * accessible from the package of the class they are injected into.</p>
+ *
+ * <p>The processor only runs for compilations that use one of these
+ * annotations, so a subclass that inherits injected fields from another
+ * compilation is left to the fallback factory of the
+ * {@code GeneratedInjectionStructureFactory}.</p>
+ *
+ * <p>The services file lists the structures of every compilation into the
+ * same output, so those of types that are not recompiled are kept. The
+ * processor is not registered as incremental, as a subclass without
+ * annotations of its own is only generated when it is recompiled.</p>
+ *
+ * @since 0.3.0
+ */
+public final class InjectionProcessor extends AbstractProcessor {
+  /* package */ static final String DEPENDENCY = "space.vectrix.inertia.system.Dependency";
+  /* package */ static final String QUERY = "space.vectrix.inertia.system.Query";
+  /* package */ static final String RESOURCE = "space.vectrix.inertia.system.Resource";
+  /* package */ static final String STRUCTURE = "space.vectrix.inertia.injection.GeneratedInjectionStructure";
+  /* package */ static final String SUFFIX = "_InjectionStructure";
+
+  private final Set<String> generated = new TreeSet<>();
+  private final Set<String> processed = new HashSet<>();
+  private Elements elements;
+  private Types types;
+  private Filer filer;
+  private Messager messager;
+
+  @Override
+  public synchronized void init(final @NonNull ProcessingEnvironment environment) {
+    super.init(environment);
+    this.elements = environment.getElementUtils();
+    this.types = environment.getTypeUtils();
+    this.filer = environment.getFiler();
+    this.messager = environment.getMessager();
+  }
+
+  @Override
+  public @NonNull Set<String> getSupportedAnnotationTypes() {
+    // Every root type of a round is still inspected, so subclasses that
+    // only inherit injected fields are generated alongside them.
+    return new HashSet<>(Arrays.asList(InjectionProcessor.DEPENDENCY, InjectionProcessor.QUERY, InjectionProcessor.RESOURCE));
+  }
+
+  @Override
+  public @NonNull SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final @NonNull Set<? extends TypeElement> annotations, final @NonNull RoundEnvironment round) {
+    if(this.elements.getTypeElement(InjectionProcessor.DEPENDENCY) == null) return false;
+    for(final TypeElement type : ElementFilter.typesIn(round.getRootElements())) this.processType(type);
+    if(round.processingOver()) this.writeServices();
+    return false;
+  }
+
+  private void processType(final @NonNull TypeElement type) {
+    for(final TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) this.processType(nested);
+    if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return;
+    this.processed.add(this.qualifiedName(type, this.elements.getPackageOf(type)));
+    final Map<String, DependencyField> dependencies = this.dependencies(type);
+    final List<QueryField> queries = new ArrayList<>();
+    final List<VariableElement> resources = new ArrayList<>();
+    this.collect(type, queries, resources);
+    if(dependencies.isEmpty() && queries.isEmpty() && resources.isEmpty()) return;
+    final PackageElement owner = this.elements.getPackageOf(type);
+    boolean valid = this.accessible(type, owner, type);
+    for(final DependencyField dependency : dependencies.values()) valid &= this.check(type, owner, dependency.field, "@Dependency", Collections.singletonList(dependency.value));
+    for(final QueryField query : queries) valid &= this.check(type, owner, query.field, "@Query", query.types());
+    for(final VariableElement resource : resources) valid &= this.check(type, owner, resource, "@Resource", Collections.singletonList(resource.asType()));
+    if(valid) this.generate(type, owner, dependencies.values(), queries, resources);
+  }
+
+  private void collect(final @NonNull TypeElement type, final @NonNull List<QueryField> queries, final @NonNull List<VariableElement> resources) {
+    TypeElement current = type;
+    while(current != null) {
+      for(final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+        final AnnotationMirror query = this.annotation(field, InjectionProcessor.QUERY);
+        if(query != null) {
+          final List<TypeMirror> value = new ArrayList<>();
+          final List<TypeMirror> without = new ArrayList<>();
+          for(final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(query).entrySet()) {
+            final String name = entry.getKey().getSimpleName().toString();
+            if(name.equals("value")) this.classes(entry.getValue(), value);
+            if(name.equals("without")) this.classes(entry.getValue(), without);
+          }
+          queries.add(new QueryField(field, value, without));
+        }
+        if(this.annotation(field, InjectionProcessor.RESOURCE) != null) resources.add(field);
+      }
+      final TypeMirror parent = current.getSuperclass();
+      current = parent.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) parent).asElement() : null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void classes(final @NonNull AnnotationValue value, final @NonNull List<TypeMirror> classes) {
+    for(final AnnotationValue element : (List<? extends AnnotationValue>) value.getValue()) classes.add((TypeMirror) element.getValue());
+  }
+
+  private @NonNull Map<String, DependencyField> dependencies(final @NonNull TypeElement type) {
+    // Ancestors replace the dependencies of their descendants, the same as
+    // the reflective injection structure factories.
+    final Map<String, DependencyField> dependencies = new LinkedHashMap<>();
+    TypeElement current = type;
+    while(current != null) {
+      for(final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+        final AnnotationMirror annotation = this.annotation(field, InjectionProcessor.DEPENDENCY);
+        if(annotation == null) continue;
+        TypeMirror value = null;
+        boolean optional = false;
+        for(final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+          final String name = entry.getKey().getSimpleName().toString();
+          if(name.equals("value")) value = (TypeMirror) entry.getValue().getValue();
+          if(name.equals("optional")) optional = (Boolean) entry.getValue().getValue();
+        }
+        if(value == null) continue;
+        dependencies.put(this.types.erasure(value).toString(), new DependencyField(field, value, optional));
+      }
+      final TypeMirror parent = current.getSuperclass();
+      current = parent.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) parent).asElement() : null;
+    }
+    return dependencies;
+  }
+
+  private boolean check(final @NonNull TypeElement type, final @NonNull PackageElement owner, final @NonNull VariableElement field,
+                        final @NonNull String kind, final @NonNull List<TypeMirror> values) {
+    final Set<Modifier> modifiers = field.getModifiers();
+    final Element error = field.getEnclosingElement().equals(type) ? field : type;
+    final String name = field.getEnclosingElement().getSimpleName() + "." + field.getSimpleName();
+    if(modifiers.contains(Modifier.PRIVATE)) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, kind + " field '" + name + "' must not be private to be injected.", error);
+      return false;
+    }
+    if(modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, kind + " field '" + name + "' must not be final or static.", error);
+      return false;
+    }
+    if(!modifiers.contains(Modifier.PUBLIC) && !this.elements.getPackageOf(field).equals(owner)) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, kind + " field '" + name + "' must be public to be injected into '" + type.getQualifiedName() + "'.", error);
+      return false;
+    }
+    if(field.asType().getKind().isPrimitive()) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, kind + " field '" + name + "' must not be primitive.", error);
+      return false;
+    }
+    boolean valid = true;
+    for(final TypeMirror value : values) {
+      final Element element = this.types.asElement(value);
+      if(element instanceof TypeElement) valid &= this.accessible(type, owner, (TypeElement) element);
+    }
+    return valid;
+  }
+
+  private boolean accessible(final @NonNull TypeElement type, final @NonNull PackageElement owner, final @NonNull TypeElement target) {
+    for(Element current = target; current instanceof TypeElement; current = current.getEnclosingElement()) {
+      final Set<Modifier> modifiers = current.getModifiers();
+      if(modifiers.contains(Modifier.PRIVATE)
+        || (!modifiers.contains(Modifier.PUBLIC) && !this.elements.getPackageOf(current).equals(owner))) {
+        this.messager.printMessage(Diagnostic.Kind.ERROR, "Class '" + ((TypeElement) current).getQualifiedName() + "' must be accessible to generate an injection structure for '" + type.getQualifiedName() + "'.", type);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void generate(final @NonNull TypeElement type, final @NonNull PackageElement owner, final @NonNull Iterable<DependencyField> dependencies,
+                        final @NonNull List<QueryField> queries, final @NonNull List<VariableElement> resources) {
+    final String packageName = owner.isUnnamed() ? "" : owner.getQualifiedName().toString();
+    final String simpleName = this.flatName(type) + InjectionProcessor.SUFFIX;
+    final String qualifiedName = this.qualifiedName(type, owner);
+    final String target = this.types.erasure(type.asType()).toString();
+    final List<Element> origins = new ArrayList<>();
+    origins.add(type);
+    final StringBuilder builder = new StringBuilder();
+    if(!packageName.isEmpty()) builder.append("package ").append(packageName).append(";\n\n");
+    builder.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+    builder.append("public final class ").append(simpleName).append(" implements ").append(InjectionProcessor.STRUCTURE).append(" {\n");
+    builder.append("  private final java.util.Map<Class<?>, space.vectrix.inertia.injection.InjectionStructure.Entry> injectors;\n");
+    builder.append("  private final java.util.List<space.vectrix.inertia.injection.InjectionStructure.QueryEntry> queries;\n");
+    builder.append("  private final java.util.List<space.vectrix.inertia.injection.InjectionStructure.ResourceEntry> resources;\n\n");
+    builder.append("  public ").append(simpleName).append("() {\n");
+    builder.append("    final java.util.Map<Class<?>, space.vectrix.inertia.injection.InjectionStructure.Entry> injectors = new java.util.IdentityHashMap<>();\n");
+    for(final DependencyField dependency : dependencies) {
+      final VariableElement field = dependency.field;
+      final String value = this.types.erasure(dependency.value).toString();
+      origins.add(field.getEnclosingElement());
+      builder.append("    injectors.put(").append(value).append(".class, ")
+        .append(InjectionProcessor.STRUCTURE).append(".entry(").append(value).append(".class, ").append(dependency.optional)
+        .append(", (target, instance) -> ((").append(target).append(") target).").append(field.getSimpleName())
+        .append(" = (").append(this.types.erasure(field.asType())).append(") instance));\n");
+    }
+    builder.append("    final java.util.List<space.vectrix.inertia.injection.InjectionStructure.QueryEntry> queries = new java.util.ArrayList<>();\n");
+    for(final QueryField query : queries) {
+      final VariableElement field = query.field;
+      origins.add(field.getEnclosingElement());
+      builder.append("    queries.add(").append(InjectionProcessor.STRUCTURE).append(".query(")
+        .append(this.classArray(query.value)).append(", ").append(this.classArray(query.without))
+        .append(", (target, instance) -> ((").append(target).append(") target).").append(field.getSimpleName())
+        .append(" = (").append(this.types.erasure(field.asType())).append(") instance));\n");
+    }
+    builder.append("    final java.util.List<space.vectrix.inertia.injection.InjectionStructure.ResourceEntry> resources = new java.util.ArrayList<>();\n");
+    for(final VariableElement field : resources) {
+      final String value = this.types.erasure(field.asType()).toString();
+      origins.add(field.getEnclosingElement());
+      builder.append("    resources.add(").append(InjectionProcessor.STRUCTURE).append(".resource(").append(value).append(".class, ")
+        .append(this.write(field))
+        .append(", (target, instance) -> ((").append(target).append(") target).").append(field.getSimpleName())
+        .append(" = (").append(value).append(") instance));\n");
+    }
+    builder.append("    this.injectors = java.util.Collections.unmodifiableMap(injectors);\n");
+    builder.append("    this.queries = java.util.Collections.unmodifiableList(queries);\n");
+    builder.append("    this.resources = java.util.Collections.unmodifiableList(resources);\n");
+    builder.append("  }\n\n");
+    builder.append("  @Override\n");
+    builder.append("  public Class<?> target() {\n");
+    builder.append("    return ").append(target).append(".class;\n");
+    builder.append("  }\n\n");
+    builder.append("  @Override\n");
+    builder.append("  public java.util.Map<Class<?>, space.vectrix.inertia.injection.InjectionStructure.Entry> injectors() {\n");
+    builder.append("    return this.injectors;\n");
+    builder.append("  }\n\n");
+    builder.append("  @Override\n");
+    builder.append("  public java.util.Collection<space.vectrix.inertia.injection.InjectionStructure.QueryEntry> queries() {\n");
+    builder.append("    return this.queries;\n");
+    builder.append("  }\n\n");
+    builder.append("  @Override\n");
+    builder.append("  public java.util.Collection<space.vectrix.inertia.injection.InjectionStructure.ResourceEntry> resources() {\n");
+    builder.append("    return this.resources;\n");
+    builder.append("  }\n");
+    builder.append("}\n");
+    try(final Writer writer = this.filer.createSourceFile(qualifiedName, origins.toArray(new Element[0])).openWriter()) {
+      writer.write(builder.toString());
+    } catch(final IOException exception) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, "Unable to write injection structure '" + qualifiedName + "': " + exception.getMessage(), type);
+      return;
+    }
+    this.generated.add(qualifiedName);
+  }
+
+  private void writeServices() {
+    final String path = "META-INF/services/" + InjectionProcessor.STRUCTURE;
+    final Set<String> services = new TreeSet<>(this.generated);
+    boolean existing = false;
+    try {
+      final FileObject file = this.filer.getResource(StandardLocation.CLASS_OUTPUT, "", path);
+      try(final BufferedReader reader = new BufferedReader(file.openReader(true))) {
+        existing = true;
+        // Structures of types processed in this compilation are replaced,
+        // the others are kept as long as they still exist.
+        String line;
+        while((line = reader.readLine()) != null) {
+          final String name = line.trim();
+          if(!name.isEmpty() && !this.processed.contains(name) && this.elements.getTypeElement(name) != null) services.add(name);
+        }
+      }
+    } catch(final IOException exception) {
+      // There is no services file from an earlier compilation.
+    }
+    if(services.isEmpty() && !existing) return;
+    try {
+      final FileObject file = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", path);
+      try(final Writer writer = file.openWriter()) {
+        for(final String name : services) writer.write(name + "\n");
+      }
+    } catch(final IOException exception) {
+      this.messager.printMessage(Diagnostic.Kind.ERROR, "Unable to write '" + path + "': " + exception.getMessage());
+    }
+  }
+
+  private @Nullable AnnotationMirror annotation(final @NonNull Element element, final @NonNull String name) {
+    for(final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if(annotationType.getQualifiedName().contentEquals(name)) return annotation;
+    }
+    return null;
+  }
+
+  private boolean write(final @NonNull VariableElement field) {
+    final AnnotationMirror annotation = this.annotation(field, InjectionProcessor.RESOURCE);
+    if(annotation == null) return false;
+    for(final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+      if(entry.getKey().getSimpleName().contentEquals("write")) return (Boolean) entry.getValue().getValue();
+    }
+    return false;
+  }
+
+  private @NonNull String classArray(final @NonNull List<TypeMirror> classes) {
+    final StringBuilder builder = new StringBuilder("new Class<?>[] {");
+    for(int i = 0; i < classes.size(); i++) {
+      if(i > 0) builder.append(", ");
+      builder.append(this.types.erasure(classes.get(i))).append(".class");
+    }
+    return builder.append("}").toString();
+  }
+
+  private @NonNull String qualifiedName(final @NonNull TypeElement type, final @NonNull PackageElement owner) {
+    final String simpleName = this.flatName(type) + InjectionProcessor.SUFFIX;
+    return owner.isUnnamed() ? simpleName : owner.getQualifiedName() + "." + simpleName;
+  }
+
+  private @NonNull String flatName(final @NonNull TypeElement type) {
+    final Element parent = type.getEnclosingElement();
+    if(parent instanceof TypeElement) return this.flatName((TypeElement) parent) + "_" + type.getSimpleName();
+    return type.getSimpleName().toString();
+  }
+
+  /* package */ static final class DependencyField {
+    private final VariableElement field;
+    private final TypeMirror value;
+    private final boolean optional;
+
+    /* package */ DependencyField(final @NonNull VariableElement field, final @NonNull TypeMirror value, final boolean optional) {
+      this.field = field;
+      this.value = value;
+      this.optional = optional;
+    }
+  }
+
+  /* package */ static final class QueryField {
+    private final VariableElement field;
+    private final List<TypeMirror> value;
+    private final List<TypeMirror> without;
+
+    /* package */ QueryField(final @NonNull VariableElement field, final @NonNull List<TypeMirror> value, final @NonNull List<TypeMirror> without) {
+      this.field = field;
+      this.value = value;
+      this.without = without;
+    }
+
+    /* package */ @NonNull List<TypeMirror> types() {
+      final List<TypeMirror> types = new ArrayList<>(this.value);
+      types.addAll(this.without);
+      return types;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of inertia, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) vectrix.space <https://vectrix.space/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package space.vectrix.inertia;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import space.vectrix.inertia.component.Component;
+import space.vectrix.inertia.component.ComponentType;
+import space.vectrix.inertia.entity.Entity;
+import space.vectrix.inertia.entity.EntityStash;
+import space.vectrix.inertia.injection.GeneratedInjectionStructure;
+import space.vectrix.inertia.injection.GeneratedInjectionStructureFactory;
+import space.vectrix.inertia.injection.InjectionStructure;
+import space.vectrix.inertia.injection.processor.InjectionProcessor;
+import space.vectrix.inertia.system.Dependency;
+import space.vectrix.inertia.system.Query;
+import space.vectrix.inertia.system.Resource;
+import space.vectrix.inertia.system.System;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessorTest {
+  @Test
+  public void testGeneratedInjection() {
+    final Universe universe = Universe.create();
+    universe.injector(new GeneratedInjectionStructureFactory());
+
+    final InjectionStructure structure = new GeneratedInjectionStructureFactory().create(ExampleSystem.class);
+    assertEquals(3, structure.injectors().size(), "Structure should contain 3 injectors.");
+    assertTrue(structure.injectors().get(Baz.class).annotation().optional(), "Dependency should be optional.");
+
+    final ExampleSystem system = new ExampleSystem();
+    assertDoesNotThrow(() -> universe.addSystem(system), "System addition should not throw an exception.");
+    assertNotNull(system.fooType, "Component type should be injected.");
+    assertNotNull(system.barType, "Inherited component type should be injected.");
+    assertNull(system.bazType, "Optional component type should not be injected.");
+
+    final ComponentType bazType = ComponentType.create(universe, Baz.class);
+    assertEquals(bazType, system.bazType, "Optional component type should be injected.");
+  }
+
+  @Test
+  public void testGeneratedQueryResource() {
+    final Universe universe = Universe.create();
+    universe.injector(new GeneratedInjectionStructureFactory());
+    universe.insertResource(Settings.class, new Settings());
+
+    final QuerySystem system = new QuerySystem();
+    universe.addSystem(system);
+    assertNotNull(system.settings, "Resource should be injected.");
+    assertNotNull(system.foos, "Query should be injected.");
+    assertTrue(new GeneratedInjectionStructureFactory().create(QuerySystem.class).resources().iterator().next().write(), "Resource should be written.");
+
+    final Entity entity = universe.createEntity();
+    entity.add(ComponentType.create(universe, Foo.class));
+    assertTrue(system.foos.contains(entity), "Query should contain the entity.");
+    entity.add(ComponentType.create(universe, Bar.class));
+    assertFalse(system.foos.contains(entity), "Query should not contain the excluded entity.");
+  }
+
+  @Test
+  public void testPrivateDependency() throws URISyntaxException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///example/PrivateSystem.java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return "package example;\n"
+          + "public final class PrivateSystem implements space.vectrix.inertia.system.System {\n"
+          + "  @space.vectrix.inertia.system.Dependency(Object.class) private space.vectrix.inertia.component.ComponentType type;\n"
+          + "  @Override public void execute() {}\n"
+          + "}\n";
+      }
+    };
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+      Arrays.asList("-proc:only", "-classpath", Paths.get(Dependency.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString()),
+      null, Collections.singletonList(source));
+    task.setProcessors(Collections.singletonList(new InjectionProcessor()));
+    assertFalse(task.call(), "Compilation should fail.");
+    assertTrue(diagnostics.getDiagnostics().stream().anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+      && diagnostic.getMessage(null).contains("must not be private")), "Compilation should report the private field.");
+  }
+
+  @Test
+  public void testPartialRecompilation(final @TempDir Path directory) throws IOException {
+    final JavaFileObject parent = ProcessorTest.source("example/BaseSystem.java", "package example;\n"
+      + "public class BaseSystem implements space.vectrix.inertia.system.System {\n"
+      + "  @space.vectrix.inertia.system.Dependency(Object.class) public space.vectrix.inertia.component.ComponentType type;\n"
+      + "  @Override public void execute() {}\n"
+      + "}\n");
+    final JavaFileObject child = ProcessorTest.source("example/DerivedSystem.java", "package example;\n"
+      + "public final class DerivedSystem extends BaseSystem {}\n");
+    assertTrue(ProcessorTest.compile(directory, parent, child), "Compilation should succeed.");
+    assertTrue(ProcessorTest.compile(directory, parent), "Recompilation of the parent class should succeed.");
+
+    final Path services = directory.resolve("META-INF/services/" + GeneratedInjectionStructure.class.getName());
+    assertEquals(Arrays.asList("example.BaseSystem_InjectionStructure", "example.DerivedSystem_InjectionStructure"), Files.readAllLines(services),
+      "Services file should keep the structure of the class that was not recompiled.");
+  }
+
+  private static boolean compile(final @NonNull Path directory, final @NonNull JavaFileObject @NonNull ... sources) {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+      Arrays.asList("-d", directory.toString(), "-classpath", java.lang.System.getProperty("java.class.path") + File.pathSeparator + directory),
+      null, Arrays.asList(sources));
+    task.setProcessors(Collections.singletonList(new InjectionProcessor()));
+    return task.call();
+  }
+
+  private static @NonNull JavaFileObject source(final @NonNull String path, final @NonNull String content) {
+    return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return content;
+      }
+    };
+  }
+
+  static class ParentSystem implements System {
+    @Dependency(Bar.class) ComponentType barType;
+
+    @Override
+    public void execute() {}
+  }
+
+  static final class ExampleSystem extends ParentSystem {
+    @Dependency(Foo.class) ComponentType fooType;
+    @Dependency(value = Baz.class, optional = true) ComponentType bazType;
+  }
+
+  static final class QuerySystem implements System {
+    @Query(value = Foo.class, without = Bar.class) EntityStash foos;
+    @Resource(write = true) Settings settings;
+
+    @Override
+    public void execute() {}
+  }
+
+  static final class Settings {
+    // No-op
+  }
+
+  @Component(id = "foo_example", name = "Foo Example")
+  static final class Foo {
+    // No-op
+  }
+
+  @Component(id = "bar_example", name = "Bar Example")
+  static final class Bar {
+    // No-op
+  }
+
+  @Component(id = "baz_example", name = "Baz Example")
+  static final class Baz {
+    // No-op
+  }
+}
@@ -6,7 +6,9 @@ rootProject.name = "inertia-parent"
 
 sequenceOf(
   "engine",
-  "injector-asm"
+  "injector-asm",
+  "injector-hidden",
+  "injector-processor"
 ).forEach {
   include("inertia-$it")
   project(":inertia-$it").projectDir = file(it)